@@ -19,12 +19,26 @@ package com.grookage.leia.dw.client;
 import com.google.common.base.Preconditions;
 import com.grookage.korg.config.KorgHttpConfiguration;
 import com.grookage.leia.client.LeiaMessageProduceClient;
+import com.grookage.leia.client.MessageValidationMode;
 import com.grookage.leia.client.datasource.LeiaClientRequest;
 import com.grookage.leia.client.refresher.LeiaClientRefresher;
 import com.grookage.leia.client.refresher.LeiaClientSupplier;
+import com.grookage.leia.dw.client.health.BackendsHealthCheck;
+import com.grookage.leia.dw.client.metrics.StatsGauges;
+import com.grookage.leia.http.processor.client.HttpPoolStats;
+import com.grookage.leia.http.processor.utils.HttpClientUtils;
+import com.grookage.leia.mux.DefaultMessageProcessor;
 import com.grookage.leia.mux.MessageProcessor;
+import com.grookage.leia.mux.breaker.CircuitBreakerStats;
+import com.grookage.leia.mux.breaker.CircuitState;
+import com.grookage.leia.mux.bulkhead.BulkheadStats;
+import com.grookage.leia.mux.failover.BackendHealthStats;
+import com.grookage.leia.mux.lanes.LaneStats;
+import com.grookage.leia.mux.limiter.LimiterStats;
+import com.grookage.leia.mux.pipeline.BackendPipeline;
 import com.grookage.leia.mux.targetvalidator.DefaultTargetValidator;
 import com.grookage.leia.mux.targetvalidator.TargetValidator;
+import com.grookage.leia.mux.tenancy.TenantStats;
 import com.grookage.leia.validator.LeiaSchemaValidator;
 import com.grookage.leia.validator.StaticSchemaValidator;
 import io.dropwizard.Configuration;
@@ -32,12 +46,19 @@ import io.dropwizard.ConfiguredBundle;
 import io.dropwizard.lifecycle.Managed;
 import io.dropwizard.setup.Environment;
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 @SuppressWarnings("unused")
 @Getter
+@Slf4j
 public abstract class LeiaClientBundle<T extends Configuration> implements ConfiguredBundle<T> {
 
     private LeiaMessageProduceClient producerClient;
@@ -77,6 +98,136 @@ public abstract class LeiaClientBundle<T extends Configuration> implements Confi
         return DefaultTargetValidator::new;
     }
 
+    protected MessageValidationMode getMessageValidationMode(T configuration) {
+        return MessageValidationMode.STRICT;
+    }
+
+    protected double getValidationSampleRate(T configuration) {
+        return 0.01;
+    }
+
+    /*
+        The executor batches of requests are multiplexed on, the common fork join pool when null.
+        BatchExecutors.preferVirtualThreads() can be used to run them on virtual threads where available.
+     */
+    protected Executor getBatchExecutor(T configuration) {
+        return null;
+    }
+
+    /*
+        How often the gauges of backends and tenants that the processor has started sending to are registered
+     */
+    protected int getMetricsIntervalSeconds(T configuration) {
+        return 30;
+    }
+
+    private static <S> Map<String, S> getStats(Supplier<MessageProcessor> processorSupplier,
+                                               Function<DefaultMessageProcessor, Map<String, S>> stats) {
+        return processorSupplier.get() instanceof DefaultMessageProcessor processor ? stats.apply(processor) : Map.of();
+    }
+
+    private static <S> Map<String, S> getPipelineStats(Supplier<MessageProcessor> processorSupplier,
+                                                       Function<BackendPipeline, Map<String, S>> stats) {
+        return getStats(processorSupplier, processor -> stats.apply(processor.getBackendPipeline()));
+    }
+
+    /*
+        The gauges of the backends and tenants of the processor, registered under leia.client.processor, and of the
+        HTTP connection pools of the backends, under leia.client.http
+     */
+    private static List<StatsGauges<?>> getGauges(Supplier<MessageProcessor> processorSupplier) {
+        return List.of(
+                /*
+                    Active, queued and rejected sends per backend, when the processor sends on bulkheads
+                 */
+                new StatsGauges<>("leia.client.processor.bulkheads",
+                        () -> getPipelineStats(processorSupplier, BackendPipeline::getBulkheadStats),
+                        Map.<String, Function<BulkheadStats, Number>>of(
+                                "active", BulkheadStats::getActive,
+                                "queued", BulkheadStats::getQueued,
+                                "rejected", BulkheadStats::getRejected)),
+                /*
+                    Concurrency limit, in flight, queued and rejected sends per backend, when limited
+                 */
+                new StatsGauges<>("leia.client.processor.limiters",
+                        () -> getPipelineStats(processorSupplier, BackendPipeline::getLimiterStats),
+                        Map.<String, Function<LimiterStats, Number>>of(
+                                "limit", LimiterStats::getLimit,
+                                "inFlight", LimiterStats::getInFlight,
+                                "queued", LimiterStats::getQueued,
+                                "rejected", LimiterStats::getRejected)),
+                /*
+                    Failure and slow call rates per backend, with open / halfOpen at 1 while the breaker is
+                 */
+                new StatsGauges<>("leia.client.processor.circuitbreakers",
+                        () -> getPipelineStats(processorSupplier, BackendPipeline::getCircuitBreakerStats),
+                        Map.<String, Function<CircuitBreakerStats, Number>>of(
+                                "open", stats -> stats.getState() == CircuitState.OPEN ? 1 : 0,
+                                "halfOpen", stats -> stats.getState() == CircuitState.HALF_OPEN ? 1 : 0,
+                                "calls", CircuitBreakerStats::getCalls,
+                                "failureRate", CircuitBreakerStats::getFailureRate,
+                                "slowCallRate", CircuitBreakerStats::getSlowCallRate,
+                                "notPermitted", CircuitBreakerStats::getNotPermitted)),
+                /*
+                    Queued sends and the deepest lane per backend, when the processor sends keys in order
+                 */
+                new StatsGauges<>("leia.client.processor.lanes",
+                        () -> getPipelineStats(processorSupplier, BackendPipeline::getLaneStats),
+                        Map.<String, Function<LaneStats, Number>>of(
+                                "lanes", LaneStats::getLanes,
+                                "queued", LaneStats::getQueued,
+                                "maxDepth", LaneStats::getMaxDepth,
+                                "hottestLane", LaneStats::getHottestLane)),
+                /*
+                    Queued, in flight and throttled batches and latencies per tenant, when the processor has tenancy
+                 */
+                new StatsGauges<>("leia.client.processor.tenants",
+                        () -> getStats(processorSupplier, DefaultMessageProcessor::getTenantStats),
+                        Map.<String, Function<TenantStats, Number>>of(
+                                "queued", TenantStats::getQueued,
+                                "inFlight", TenantStats::getInFlight,
+                                "completed", TenantStats::getCompleted,
+                                "throttled", TenantStats::getThrottled,
+                                "queueLatencyMs", TenantStats::getQueueLatencyMs,
+                                "latencyMs", TenantStats::getLatencyMs)),
+                /*
+                    Success rate, latency and health (1 when healthy) per backend, which fallbacks are picked by
+                 */
+                new StatsGauges<>("leia.client.processor.backends",
+                        () -> getPipelineStats(processorSupplier, BackendPipeline::getBackendHealthStats),
+                        Map.<String, Function<BackendHealthStats, Number>>of(
+                                "samples", BackendHealthStats::getSamples,
+                                "successRate", BackendHealthStats::getSuccessRate,
+                                "latencyMs", BackendHealthStats::getLatencyMs,
+                                "healthy", stats -> stats.isHealthy() ? 1 : 0)),
+                /*
+                    Leased, pending and available connections per backend, once HTTP backends have been sent to
+                 */
+                new StatsGauges<>("leia.client.http.pools",
+                        HttpClientUtils::getPoolStats,
+                        Map.<String, Function<HttpPoolStats, Number>>of(
+                                "leased", HttpPoolStats::getLeased,
+                                "pending", HttpPoolStats::getPending,
+                                "available", HttpPoolStats::getAvailable,
+                                "max", HttpPoolStats::getMax)));
+    }
+
+    /*
+        Registers the gauges of backends and tenants as they show up. A failure is logged and retried on the next
+        run, since an exception escaping the task would cancel every later registration
+     */
+    private void registerGauges(T configuration, Environment environment, List<StatsGauges<?>> gauges) {
+        final var intervalSeconds = getMetricsIntervalSeconds(configuration);
+        environment.lifecycle().scheduledExecutorService("leia-client-metrics", true).build()
+                .scheduleWithFixedDelay(() -> gauges.forEach(each -> {
+                    try {
+                        each.register(environment.metrics());
+                    } catch (Exception e) {
+                        log.error("Couldn't register the gauges of {}", each.getPrefix(), e);
+                    }
+                }), 0, intervalSeconds, TimeUnit.SECONDS);
+    }
+
     @Override
     public void run(T configuration, Environment environment) {
         final var clientRequestSupplier = getClientRequestSupplier(configuration);
@@ -113,13 +264,19 @@ public abstract class LeiaClientBundle<T extends Configuration> implements Confi
             }
         });
         if (withProducerClient) {
+            final var processorSupplier = getMessageProcessor(configuration);
             producerClient = LeiaMessageProduceClient.builder()
                     .refresher(clientRefresher)
                     .schemaValidator(validator)
                     .mapper(environment.getObjectMapper())
-                    .processorSupplier(getMessageProcessor(configuration))
+                    .processorSupplier(processorSupplier)
                     .targetValidator(getTargetRetriever(configuration))
+                    .validationMode(getMessageValidationMode(configuration))
+                    .validationSampleRate(getValidationSampleRate(configuration))
+                    .batchExecutor(getBatchExecutor(configuration))
                     .build();
+            registerGauges(configuration, environment, getGauges(processorSupplier));
+            environment.healthChecks().register(BackendsHealthCheck.NAME, new BackendsHealthCheck(processorSupplier));
             environment.lifecycle().manage(new Managed() {
                 @Override
                 public void start() {
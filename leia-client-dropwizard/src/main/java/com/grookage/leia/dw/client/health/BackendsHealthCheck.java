@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.dw.client.health;
+
+import com.codahale.metrics.health.HealthCheck;
+import com.grookage.leia.mux.DefaultMessageProcessor;
+import com.grookage.leia.mux.MessageProcessor;
+import com.grookage.leia.mux.breaker.CircuitState;
+
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/*
+    Unhealthy while the circuit breaker of any backend is open, healthy otherwise, with the state of every breaker
+ */
+public class BackendsHealthCheck extends HealthCheck {
+
+    public static final String NAME = "leia-backends-health-check";
+
+    private final Supplier<MessageProcessor> processorSupplier;
+
+    public BackendsHealthCheck(Supplier<MessageProcessor> processorSupplier) {
+        this.processorSupplier = processorSupplier;
+    }
+
+    @Override
+    protected Result check() {
+        if (!(processorSupplier.get() instanceof DefaultMessageProcessor processor)) {
+            return Result.healthy();
+        }
+        final var stats = processor.getBackendPipeline().getCircuitBreakerStats();
+        final var states = stats.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue().getState())
+                .collect(Collectors.joining(", "));
+        final var open = stats.values().stream().anyMatch(each -> each.getState() == CircuitState.OPEN);
+        return open ? Result.unhealthy("Circuit breakers: %s", states) : Result.healthy("Circuit breakers: %s", states);
+    }
+}
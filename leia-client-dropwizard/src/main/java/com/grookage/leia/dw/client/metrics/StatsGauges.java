@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.dw.client.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/*
+    A numeric gauge per key and field of the stats of a processor, named prefix.key.field, so that reporters can
+    export them. Keys (backends, tenants) only show up once the processor sends to them, so register is called again
+    as the stats grow, and the gauges of a key that is no longer there read 0.
+ */
+public class StatsGauges<S> {
+
+    @Getter
+    private final String prefix;
+    private final Supplier<Map<String, S>> stats;
+    private final Map<String, Function<S, Number>> fields;
+    private final Set<String> registered = ConcurrentHashMap.newKeySet();
+
+    public StatsGauges(String prefix,
+                       Supplier<Map<String, S>> stats,
+                       Map<String, Function<S, Number>> fields) {
+        this.prefix = prefix;
+        this.stats = stats;
+        this.fields = Map.copyOf(fields);
+    }
+
+    public void register(MetricRegistry metricRegistry) {
+        stats.get().keySet().stream()
+                .filter(registered::add)
+                .forEach(key -> fields.forEach((field, value) ->
+                        metricRegistry.register(MetricRegistry.name(prefix, key, field), (Gauge<Number>) () -> {
+                            final var current = stats.get().get(key);
+                            return null == current ? 0 : value.apply(current);
+                        })));
+    }
+}
@@ -20,6 +20,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.grookage.leia.client.refresher.LeiaClientRefresher;
 import com.grookage.leia.models.schema.SchemaDetails;
 import com.grookage.leia.models.schema.SchemaKey;
+import com.grookage.leia.models.schema.SchemaSnapshot;
+import com.grookage.leia.models.schema.SchemaSnapshotHolder;
 import com.grookage.leia.validator.LeiaSchemaValidator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -36,18 +38,22 @@ public abstract class AbstractSchemaClient implements LeiaSchemaClient {
     private final ObjectMapper mapper;
     private final LeiaClientRefresher refresher;
     private final LeiaSchemaValidator schemaValidator;
+    private final SchemaSnapshotHolder snapshotHolder = new SchemaSnapshotHolder();
 
     public List<SchemaDetails> getSchemaDetails() {
         return refresher.getData();
     }
 
-    public List<SchemaDetails> getSchemaDetails(final Set<SchemaKey> schemas) {
-        if (null == refresher.getData()) {
+    public SchemaSnapshot getSchemaSnapshot() {
+        final var schemas = refresher.getData();
+        if (null == schemas) {
             throw new IllegalStateException("The configuration object has returned null data. Something gone wrong with refresher");
         }
-        final var schemaKeys = schemas.stream().map(SchemaKey::getReferenceId).toList();
-        return refresher.getData().stream()
-                .filter(each -> schemaKeys.contains(each.getReferenceId())).toList();
+        return snapshotHolder.get(schemas);
+    }
+
+    public List<SchemaDetails> getSchemaDetails(final Set<SchemaKey> schemas) {
+        return getSchemaSnapshot().getSchemaDetails(schemas);
     }
 
     public boolean valid(SchemaKey schemaKey) {
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+@UtilityClass
+@Slf4j
+public class BatchExecutors {
+
+    /*
+        A virtual thread per task executor when the runtime has one (Java 21+), the common fork join pool otherwise.
+        The executor is shared and lives as long as the process, so callers must not shut it down.
+     */
+    public static Executor preferVirtualThreads() {
+        return VirtualThreads.EXECUTOR;
+    }
+
+    /*
+        Created once, on first use. Looked up reflectively, since the library is built for Java 17.
+     */
+    private static final class VirtualThreads {
+        private static final Executor EXECUTOR = create();
+
+        private static Executor create() {
+            try {
+                return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.debug("Virtual threads aren't available on this runtime, using the common fork join pool");
+                return ForkJoinPool.commonPool();
+            }
+        }
+    }
+}
@@ -16,30 +16,47 @@
 
 package com.grookage.leia.client;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.grookage.leia.client.plan.MessageSource;
+import com.grookage.leia.client.plan.ProducePlan;
+import com.grookage.leia.client.plan.ProducePlanner;
+import com.grookage.leia.client.plan.ProducePlanCache;
+import com.grookage.leia.client.plan.ProducePlanStats;
+import com.grookage.leia.client.plan.TargetPlan;
+import com.grookage.leia.common.exception.SchemaValidationException;
+import com.grookage.leia.common.exception.ValidationErrorCode;
 import com.grookage.leia.models.mux.LeiaMessage;
 import com.grookage.leia.models.mux.MessageRequest;
 import com.grookage.leia.models.schema.SchemaDetails;
 import com.grookage.leia.models.schema.SchemaKey;
 import com.grookage.leia.models.schema.transformer.TransformationTarget;
-import com.grookage.leia.models.utils.SchemaUtils;
 import com.grookage.leia.mux.MessageProcessor;
+import com.grookage.leia.mux.executor.SendResult;
 import com.grookage.leia.mux.targetvalidator.DefaultTargetValidator;
 import com.grookage.leia.mux.targetvalidator.TargetValidator;
 import com.jayway.jsonpath.Configuration;
-import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
 import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.SneakyThrows;
 import lombok.experimental.SuperBuilder;
 import lombok.extern.slf4j.Slf4j;
-import lombok.val;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 
 @EqualsAndHashCode(callSuper = true)
@@ -53,63 +70,170 @@ public class LeiaMessageProduceClient extends AbstractSchemaClient {
             .mappingProvider(new JacksonMappingProvider())
             .build();
     private static final TargetValidator DEFAULT_VALIDATOR = new DefaultTargetValidator();
-    private final Map<SchemaKey, Map<String, JsonPath>> compiledPaths = new HashMap<>();
+    @Getter(lazy = true)
+    private final ProducePlanCache producePlanCache = new ProducePlanCache(maxProducePlans);
     private final Supplier<MessageProcessor> processorSupplier;
     private final Supplier<TargetValidator> targetValidator;
+    private final MessageValidationMode validationMode;
+    @Builder.Default
+    private final double validationSampleRate = 0.01;
+    private final Executor batchExecutor;
+    @Builder.Default
+    private final long maxProducePlans = 10_000;
+
+    private TargetValidator getInitiatedValidator() {
+        final var initiatedValidator = null != targetValidator ? targetValidator.get() : null;
+        return Objects.requireNonNullElse(initiatedValidator, DEFAULT_VALIDATOR);
+    }
+
+    private boolean validateMessage() {
+        final var mode = Objects.requireNonNullElse(validationMode, MessageValidationMode.STRICT);
+        return switch (mode) {
+            case OFF -> false;
+            case SAMPLED -> ThreadLocalRandom.current().nextDouble() < validationSampleRate;
+            case STRICT -> true;
+        };
+    }
+
 
     /*
         Multiplexes from source and generates the list of messages as applicable
-        a) Fetches the schemaDetails from schemaKey of source
-        b) Checks if there is a transformationTarget, if none, returns source as is.
+        a) Fetches the compiled plan of the target from the plan of the source
+        b) Checks if the target is eligible, and transforms the source as per the plan, from values extracted once per source
+        c) Validates the transformed message against the compiled attributes of the target schema, as per validationMode
      */
     @SneakyThrows
     private Optional<LeiaMessage> createMessage(MessageRequest messageRequest,
-                                                SchemaDetails sourceSchema,
-                                                TransformationTarget transformationTarget,
-                                                TargetValidator tValidator) {
-        if (!validTarget(messageRequest, sourceSchema, transformationTarget, tValidator)) {
+                                                MessageSource messageSource,
+                                                ProducePlan producePlan,
+                                                TargetPlan targetPlan,
+                                                TargetValidator validator) {
+        if (!validator.validate(targetPlan.getTransformationTarget(), messageRequest, producePlan.getSourceSchema())) {
             return Optional.empty();
         }
-        final var targetSchema = SchemaUtils.getMatchingSchema(super.getSchemaDetails(), transformationTarget.getSchemaKey())
-                .orElse(null);
-        if (null == targetSchema) {
-            log.error("No schema found for target schemaKey {}", transformationTarget.getSchemaKey());
-            throw new UnsupportedOperationException("No valid schema found for target schemaKey " + transformationTarget.getSchemaKey().getReferenceId());
+        if (null == targetPlan.getTargetSchema()) {
+            log.error("No schema found for target schemaKey {}", targetPlan.getSchemaKey());
+            throw new UnsupportedOperationException("No valid schema found for target schemaKey " + targetPlan.getSchemaKey().getReferenceId());
         }
-        final var registeredKlass = getSchemaValidator()
-                .getKlass(transformationTarget.getSchemaKey()).orElse(null);
+        final var registeredKlass = targetPlan.getRegisteredKlass();
         if (null == registeredKlass) {
             return Optional.empty();
         }
-        final var sourceContext = JsonPath.using(configuration).parse(messageRequest.getMessage());
-        final var responseObject = MessageTransformerUtils.transformMessage(sourceContext, transformationTarget,
-                getJsonPaths(transformationTarget.getSchemaKey()), getMapper());
-        getMapper().convertValue(responseObject, registeredKlass); //Do this to do the schema validation of if the conversion is right or not.
-        val tags = Stream.of(targetSchema.getTags(), transformationTarget.getTags())
-                .flatMap(Collection::stream).collect(Collectors.toSet());
+        final var responseObject = MessageTransformerUtils.transformMessage(messageSource, targetPlan.getAttributes(),
+                getMapper());
+        if (validateMessage()) {
+            final var validationErrors = targetPlan.getPayloadValidator().validate(responseObject);
+            if (!validationErrors.isEmpty()) {
+                log.error("Transformed message doesn't match the target schemaKey {}, errors {}", targetPlan.getSchemaKey(),
+                        validationErrors);
+                throw SchemaValidationException.error(ValidationErrorCode.INVALID_SCHEMAS,
+                        "Invalid message for target schemaKey " + targetPlan.getSchemaKey().getReferenceId());
+            }
+        }
         return Optional.of(
                 LeiaMessage.builder()
-                        .schemaKey(transformationTarget.getSchemaKey())
-                        .tags(tags)
+                        .schemaKey(targetPlan.getSchemaKey())
+                        .tags(targetPlan.getTags())
                         .message(responseObject)
                         .build()
         );
     }
 
-    private Map<String, JsonPath> getJsonPaths(SchemaKey schemaKey) {
-        return compiledPaths.containsKey(schemaKey) ? compiledPaths.get(schemaKey) : Map.of();
+    /*
+        Plans are compiled on first use against the latest snapshot, and carried over across refreshes until the source
+        or one of its targets changes. The cache is bounded by maxProducePlans.
+     */
+    public Optional<ProducePlan> getProducePlan(SchemaKey schemaKey) {
+        final var snapshot = getSchemaSnapshot();
+        return getProducePlanCache().getPlan(snapshot, schemaKey, sourceSchema ->
+                ProducePlanner.getProducePlan(snapshot, sourceSchema, getSchemaValidator(), getInitiatedValidator()));
+    }
+
+    public ProducePlanStats getProducePlanStats() {
+        return getProducePlanCache().getStats();
+    }
+
+    private ProducePlan getRequiredPlan(SchemaKey schemaKey) {
+        final var producePlan = getProducePlan(schemaKey).orElse(null);
+        if (null == producePlan) {
+            log.error("No schema found for schemaKey {}", schemaKey);
+            throw new UnsupportedOperationException("No valid schema found for schemaKey " + schemaKey.getReferenceId());
+        }
+        return producePlan;
     }
 
     public Map<SchemaKey, LeiaMessage> getMessages(MessageRequest messageRequest,
                                                    TargetValidator tValidator) {
-        final var messages = new HashMap<SchemaKey, LeiaMessage>();
-        final var sourceSchemaDetails = SchemaUtils.getMatchingSchema(super.getSchemaDetails(), messageRequest.getSchemaKey())
-                .orElse(null);
-        if (null == sourceSchemaDetails) {
-            log.error("No schema found for schemaKey {}", messageRequest.getSchemaKey());
-            throw new UnsupportedOperationException("No valid schema found for schemaKey " + messageRequest.getSchemaKey().getReferenceId());
+        final var producePlan = getRequiredPlan(messageRequest.getSchemaKey());
+        final var messageSource = new MessageSource(messageRequest.getMessage(), producePlan.getPathTrie(), configuration);
+        return getMessages(messageRequest, producePlan, messageSource, tValidator);
+    }
+
+    /*
+        Multiplexes a source that is still in its serialized form. When the plan and the validator allow it, the values
+        needed by the targets are pulled straight off a JsonParser, skipping the subtrees that no target reads.
+        Otherwise, i.e. when the source has to be included or a target needs JsonPath or the message for its criteria,
+        the source is read into a tree and multiplexed like any other MessageRequest.
+     */
+    @SneakyThrows
+    private Map<SchemaKey, LeiaMessage> getMessages(SchemaKey schemaKey,
+                                                    JsonParser parser,
+                                                    boolean includeSource,
+                                                    TargetValidator tValidator) {
+        try (parser) {
+            final var producePlan = getRequiredPlan(schemaKey);
+            final var validator = Objects.requireNonNullElse(tValidator, producePlan.getTargetValidator());
+            if (includeSource || !producePlan.streamable(validator)) {
+                final JsonNode message = getMapper().readTree(parser);
+                final var messageRequest = MessageRequest.builder()
+                        .includeSource(includeSource)
+                        .schemaKey(schemaKey)
+                        .message(message)
+                        .build();
+                final var messageSource = new MessageSource(message, producePlan.getPathTrie(), configuration);
+                return getMessages(messageRequest, producePlan, messageSource, validator);
+            }
+            final var messageSource = new MessageSource(producePlan.getPathTrie().extract(parser));
+            final var messageRequest = MessageRequest.builder()
+                    .schemaKey(schemaKey)
+                    .build();
+            return getMessages(messageRequest, producePlan, messageSource, validator);
         }
+    }
+
+    @SneakyThrows
+    public Map<SchemaKey, LeiaMessage> getMessages(SchemaKey schemaKey,
+                                                   byte[] message,
+                                                   boolean includeSource,
+                                                   TargetValidator tValidator) {
+        return getMessages(schemaKey, getMapper().createParser(message), includeSource, tValidator);
+    }
 
+    @SneakyThrows
+    public Map<SchemaKey, LeiaMessage> getMessages(SchemaKey schemaKey,
+                                                   ByteBuffer message,
+                                                   boolean includeSource,
+                                                   TargetValidator tValidator) {
+        final var parser = message.hasArray()
+                ? getMapper().createParser(message.array(), message.arrayOffset() + message.position(), message.remaining())
+                : getMapper().createParser(new ByteBufferBackedInputStream(message.duplicate()));
+        return getMessages(schemaKey, parser, includeSource, tValidator);
+    }
+
+    @SneakyThrows
+    public Map<SchemaKey, LeiaMessage> getMessages(SchemaKey schemaKey,
+                                                   InputStream message,
+                                                   boolean includeSource,
+                                                   TargetValidator tValidator) {
+        return getMessages(schemaKey, getMapper().createParser(message), includeSource, tValidator);
+    }
+
+    private Map<SchemaKey, LeiaMessage> getMessages(MessageRequest messageRequest,
+                                                    ProducePlan producePlan,
+                                                    MessageSource messageSource,
+                                                    TargetValidator tValidator) {
+        final var messages = new HashMap<SchemaKey, LeiaMessage>();
+        final var sourceSchemaDetails = producePlan.getSourceSchema();
         if (messageRequest.isIncludeSource()) {
             messages.put(messageRequest.getSchemaKey(), LeiaMessage.builder()
                     .schemaKey(sourceSchemaDetails.getSchemaKey())
@@ -118,41 +242,169 @@ public class LeiaMessageProduceClient extends AbstractSchemaClient {
                     .build()
             );
         }
-        final var transformationTargets = sourceSchemaDetails.getTransformationTargets();
-        if (null == transformationTargets) {
+        final var targetPlans = producePlan.getTargets();
+        if (targetPlans.isEmpty()) {
             return messages;
         }
-        transformationTargets.forEach(transformationTarget ->
-                createMessage(messageRequest, sourceSchemaDetails, transformationTarget, tValidator)
+        final var validator = Objects.requireNonNullElse(tValidator, producePlan.getTargetValidator());
+        producePlan.candidates(messageSource, validator).forEach(targetPlan ->
+                createMessage(messageRequest, messageSource, producePlan, targetPlan, validator)
                         .ifPresent(message -> messages.put(message.getSchemaKey(), message)));
         return messages;
     }
 
+    private ProduceResult getResult(MessageRequest messageRequest,
+                                    TargetValidator tValidator) {
+        try {
+            return ProduceResult.builder()
+                    .messageRequest(messageRequest)
+                    .messages(getMessages(messageRequest, tValidator))
+                    .build();
+        } catch (Exception e) {
+            log.error("Couldn't multiplex the message request with schemaKey {}", messageRequest.getSchemaKey(), e);
+            return ProduceResult.builder()
+                    .messageRequest(messageRequest)
+                    .error(e)
+                    .build();
+        }
+    }
+
+    /*
+        Multiplexes a batch of requests in parallel on the batchExecutor (the common fork join pool when not set).
+        Results are returned in the order of the requests, a request that fails is reported in its own result.
+     */
+    public List<ProduceResult> getMessages(List<MessageRequest> messageRequests,
+                                           TargetValidator tValidator) {
+        if (messageRequests.size() <= 1) {
+            return messageRequests.stream().map(each -> getResult(each, tValidator)).toList();
+        }
+        final var executor = Objects.requireNonNullElseGet(batchExecutor, ForkJoinPool::commonPool);
+        final var futures = messageRequests.stream()
+                .map(each -> CompletableFuture.supplyAsync(() -> getResult(each, tValidator), executor))
+                .toList();
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
     public boolean validTarget(MessageRequest messageRequest,
                                SchemaDetails schemaDetails,
                                TransformationTarget transformationTarget,
                                TargetValidator tValidator) {
-        final var initiatedValidator = null != targetValidator ? targetValidator.get() : null;
-        final var validator = Objects.requireNonNullElseGet(tValidator, () -> Objects.requireNonNullElse(initiatedValidator, DEFAULT_VALIDATOR));
+        final var validator = Objects.requireNonNullElseGet(tValidator, this::getInitiatedValidator);
         return validator.validate(transformationTarget, messageRequest, schemaDetails);
     }
 
-    public void processMessages(MessageRequest messageRequest,
-                                MessageProcessor messageProcessor,
-                                TargetValidator retriever) {
+    private MessageProcessor getProcessor(MessageProcessor messageProcessor) {
         final var processor = null != messageProcessor ? messageProcessor : processorSupplier.get();
         if (null == processor) {
             log.error("No message processor hub supplied to process messages, call getMessages instead");
             throw new UnsupportedOperationException("No message processor hub found");
         }
+        return processor;
+    }
+
+    public void processMessages(MessageRequest messageRequest,
+                                MessageProcessor messageProcessor,
+                                TargetValidator retriever) {
+        final var processor = getProcessor(messageProcessor);
         final var messages = getMessages(messageRequest, retriever).values().stream().toList();
         processor.processMessages(messages);
     }
 
+    /*
+        Multiplexes the request on the calling thread, and hands its messages to the processor without waiting on the
+        backends. The stage completes with a SendResult per backend once all of them are done, and fails when the
+        request can't be multiplexed.
+     */
+    public CompletionStage<List<SendResult>> processMessagesAsync(MessageRequest messageRequest,
+                                                                  MessageProcessor messageProcessor,
+                                                                  TargetValidator retriever) {
+        try {
+            final var processor = getProcessor(messageProcessor);
+            final var messages = getMessages(messageRequest, retriever).values().stream().toList();
+            return processor.processMessagesAsync(messages);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public void processMessages(SchemaKey schemaKey,
+                                byte[] message,
+                                boolean includeSource,
+                                MessageProcessor messageProcessor,
+                                TargetValidator retriever) {
+        final var processor = getProcessor(messageProcessor);
+        processor.processMessages(getMessages(schemaKey, message, includeSource, retriever).values().stream().toList());
+    }
+
+    public void processMessages(SchemaKey schemaKey,
+                                ByteBuffer message,
+                                boolean includeSource,
+                                MessageProcessor messageProcessor,
+                                TargetValidator retriever) {
+        final var processor = getProcessor(messageProcessor);
+        processor.processMessages(getMessages(schemaKey, message, includeSource, retriever).values().stream().toList());
+    }
+
+    public void processMessages(SchemaKey schemaKey,
+                                InputStream message,
+                                boolean includeSource,
+                                MessageProcessor messageProcessor,
+                                TargetValidator retriever) {
+        final var processor = getProcessor(messageProcessor);
+        processor.processMessages(getMessages(schemaKey, message, includeSource, retriever).values().stream().toList());
+    }
+
+    /*
+        Multiplexes a batch of requests and hands all of their messages to the processor in one call, so that the
+        messages of the entire batch are grouped per backend and sent as a single batch per executor. Blocks until the
+        processor is done, and fails the results of the requests whose messages couldn't be sent, with the error of the
+        send, or of the processor when it fails as a whole.
+     */
+    public List<ProduceResult> processMessages(List<MessageRequest> messageRequests,
+                                               MessageProcessor messageProcessor,
+                                               TargetValidator retriever) {
+        final var processor = getProcessor(messageProcessor);
+        final var results = getMessages(messageRequests, retriever);
+        final var messages = results.stream()
+                .flatMap(each -> each.getMessages().values().stream())
+                .toList();
+        if (messages.isEmpty()) {
+            return results;
+        }
+        final var errors = new IdentityHashMap<LeiaMessage, Throwable>();
+        try {
+            processor.processMessagesAsync(messages).toCompletableFuture().join().stream()
+                    .filter(sendResult -> !sendResult.succeeded())
+                    .forEach(sendResult -> sendResult.getFailedMessages()
+                            .forEach(message -> errors.putIfAbsent(message, sendResult.getError())));
+        } catch (CompletionException e) {
+            final var cause = null == e.getCause() ? e : e.getCause();
+            log.error("Couldn't process the messages of a batch of {} requests", messageRequests.size(), cause);
+            messages.forEach(message -> errors.put(message, cause));
+        }
+        if (errors.isEmpty()) {
+            return results;
+        }
+        return results.stream()
+                .map(result -> result.getMessages().values().stream()
+                        .map(errors::get)
+                        .filter(Objects::nonNull)
+                        .findFirst()
+                        .map(error -> ProduceResult.builder()
+                                .messageRequest(result.getMessageRequest())
+                                .messages(result.getMessages())
+                                .error(error)
+                                .build())
+                        .orElse(result))
+                .toList();
+    }
+
+    /*
+        Compiles the plans of every schema known at startup, so that misconfigured targets fail here rather than on the
+        first message. Schemas that arrive on later refreshes are compiled lazily, on their first message.
+     */
     @Override
     public void start() {
-        compiledPaths.putAll(
-                MessageTransformerUtils.getCompiledPaths(super.getSchemaDetails(), this::valid)
-        );
+        getSchemaSnapshot().getSchemas().forEach(schemaDetails -> getProducePlan(schemaDetails.getSchemaKey()));
     }
 }
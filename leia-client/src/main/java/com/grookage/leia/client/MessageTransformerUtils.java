@@ -20,20 +20,17 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.TextNode;
-import com.grookage.leia.models.schema.SchemaDetails;
-import com.grookage.leia.models.schema.SchemaKey;
-import com.grookage.leia.models.schema.transformer.AttributeTransformer;
+import com.grookage.leia.client.plan.AttributePlan;
+import com.grookage.leia.client.plan.NodePath;
+import com.grookage.leia.client.plan.MessageSource;
+import com.grookage.leia.client.plan.PathTrie;
 import com.grookage.leia.models.schema.transformer.TransformationTarget;
-import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
 import lombok.SneakyThrows;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.function.Predicate;
 
 @UtilityClass
 @Slf4j
@@ -41,33 +38,30 @@ public class MessageTransformerUtils {
 
     private static final String LITERAL = "~";
 
-    public static Map<SchemaKey, Map<String, JsonPath>> getCompiledPaths(List<SchemaDetails> schemas,
-                                                                         Predicate<SchemaKey> schemaPredicate) {
-        final var compiledPaths = new HashMap<SchemaKey, Map<String, JsonPath>>();
-        schemas.forEach(schemaDetails -> {
-            if (!schemaPredicate.test(schemaDetails.getSchemaKey())) {
-                return;
-            }
-            final var transformationTargets = schemaDetails.getTransformationTargets();
-            transformationTargets.forEach(transformationTarget -> {
-                final var valid = schemaPredicate.test(transformationTarget.getSchemaKey());
-                if (!valid) {
-                    log.error("The transformationSchema schema doesn't seem to be valid for schemaKey {}. Please check the schema bindings provided",
-                            transformationTarget.getSchemaKey());
-                    throw new IllegalStateException("Invalid transformation schema");
-                }
-                final var paths = new HashMap<String, JsonPath>();
-                transformationTarget.getTransformers()
-                        .forEach(transformer -> {
-                            if (!transformer.getTransformationPath().startsWith(LITERAL)) {
-                                paths.put(transformer.getAttributeName(),
-                                        JsonPath.compile(transformer.getTransformationPath()));
-                            }
-                        });
-                compiledPaths.put(transformationTarget.getSchemaKey(), paths);
-            });
-        });
-        return compiledPaths;
+    /*
+        Compiles the transformers of a target once, literal values are turned into nodes and paths are compiled.
+        Paths are compiled only when asked to, the attributes that aren't compiled are left out of the transformation.
+        Plain property / index paths are added to the PathTrie of the source, the rest fall back to a compiled JsonPath.
+     */
+    public static List<AttributePlan> getAttributePlans(TransformationTarget transformationTarget,
+                                                        boolean compilePaths,
+                                                        PathTrie.Builder pathTrie) {
+        return transformationTarget.getTransformers().stream()
+                .filter(transformer -> compilePaths || text(transformer.getTransformationPath()))
+                .map(transformer -> {
+                    final var attributePlan = AttributePlan.builder()
+                            .attributeName(transformer.getAttributeName())
+                            .serialize(transformer.isSerialize());
+                    if (text(transformer.getTransformationPath())) {
+                        return attributePlan.literal(toTextNode(transformer.getTransformationPath())).build();
+                    }
+                    final var nodePath = NodePath.compile(transformer.getTransformationPath()).orElse(null);
+                    if (null != nodePath) {
+                        return attributePlan.nodePath(nodePath).slot(pathTrie.add(nodePath)).build();
+                    }
+                    return attributePlan.jsonPath(JsonPath.compile(transformer.getTransformationPath())).build();
+                })
+                .toList();
     }
 
     public static boolean text(String transformationPath) {
@@ -78,30 +72,25 @@ public class MessageTransformerUtils {
         return new TextNode(attributeValue.substring(attributeValue.lastIndexOf(LITERAL) + 1));
     }
 
-    public static JsonNode transformMessage(DocumentContext sourceContext,
-                                            TransformationTarget transformationTarget,
-                                            Map<String, JsonPath> compiledPaths,
+    public static JsonNode transformMessage(MessageSource messageSource,
+                                            List<AttributePlan> attributePlans,
                                             ObjectMapper mapper) {
         final var responseObject = JsonNodeFactory.instance.objectNode();
-        transformationTarget.getTransformers().forEach(transformer -> {
-            if (text(transformer.getTransformationPath())) {
-                responseObject.set(transformer.getAttributeName(), toTextNode(transformer.getTransformationPath()));
+        attributePlans.forEach(attributePlan -> {
+            if (attributePlan.literal()) {
+                responseObject.set(attributePlan.getAttributeName(), attributePlan.getLiteral());
             } else {
-                final var jsonPath = compiledPaths.get(transformer.getAttributeName());
-                if (null != jsonPath) {
-                    responseObject.set(transformer.getAttributeName(), jsonPathValue(sourceContext, transformer, jsonPath, mapper));
-                }
+                responseObject.set(attributePlan.getAttributeName(), jsonPathValue(messageSource, attributePlan, mapper));
             }
         });
         return responseObject;
     }
 
     @SneakyThrows
-    private static JsonNode jsonPathValue(DocumentContext sourceContext,
-                                          AttributeTransformer transformer,
-                                          JsonPath jsonPath,
+    private static JsonNode jsonPathValue(MessageSource messageSource,
+                                          AttributePlan attributePlan,
                                           ObjectMapper mapper) {
-        final JsonNode value = sourceContext.read(jsonPath);
-        return transformer.isSerialize() ? new TextNode(mapper.writeValueAsString(value)) : value;
+        final var value = messageSource.read(attributePlan);
+        return attributePlan.isSerialize() ? new TextNode(mapper.writeValueAsString(value)) : value;
     }
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client;
+
+import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.models.mux.MessageRequest;
+import com.grookage.leia.models.schema.SchemaKey;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Map;
+
+/*
+    The outcome of multiplexing one request of a batch. A request that failed to multiplex carries its error and no
+    messages, and one whose messages failed to send carries its messages along with the error. Neither fails the rest
+    of the batch.
+ */
+@Value
+@Builder
+public class ProduceResult {
+    MessageRequest messageRequest;
+    @Builder.Default
+    Map<SchemaKey, LeiaMessage> messages = Map.of();
+    Throwable error;
+
+    public boolean succeeded() {
+        return null == error;
+    }
+}
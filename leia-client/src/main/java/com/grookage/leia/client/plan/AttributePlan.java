@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.grookage.leia.client.plan;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.jayway.jsonpath.JsonPath;
+import lombok.Builder;
+import lombok.Value;
+
+/*
+    A single attribute of a transformation target, with either its literal value already built or its path compiled.
+    Simple paths are compiled into a NodePath, whose value is read from the slot it was given in the PathTrie of the source.
+    jsonPath is used only for the paths that NodePath can't read.
+ */
+@Value
+@Builder
+public class AttributePlan {
+    String attributeName;
+    JsonNode literal;
+    NodePath nodePath;
+    int slot;
+    JsonPath jsonPath;
+    boolean serialize;
+
+    public boolean literal() {
+        return null != literal;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.plan;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.jayway.jsonpath.PathNotFoundException;
+import io.appform.jsonrules.Expression;
+import io.appform.jsonrules.expressions.array.InExpression;
+import io.appform.jsonrules.expressions.composite.AndExpression;
+import io.appform.jsonrules.expressions.equality.EqualsExpression;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/*
+    An index of the targets of a source on the field that discriminates between them, like $.eventType. The criteria of
+    the targets are looked at once, at compile time, and the equality / in-set checks of string values on the most common
+    simple path are indexed, including the ones that are a part of an AndExpression. A message then reads the field once,
+    and only the targets indexed under its value, along with the targets that couldn't be indexed, are evaluated.
+    Anything that isn't a plain string value (missing fields, nulls, numbers) is evaluated against all the targets, so
+    the messages produced are the same as evaluating every criteria.
+ */
+public class CriteriaIndex {
+
+    private final AttributePlan discriminator;
+    private final Map<String, List<TargetPlan>> candidates;
+    private final List<TargetPlan> unindexed;
+    private final List<TargetPlan> targets;
+
+    private CriteriaIndex(AttributePlan discriminator,
+                          Map<String, List<TargetPlan>> candidates,
+                          List<TargetPlan> unindexed,
+                          List<TargetPlan> targets) {
+        this.discriminator = discriminator;
+        this.candidates = candidates;
+        this.unindexed = unindexed;
+        this.targets = targets;
+    }
+
+    /*
+        Returns empty when none of the targets have a criteria that can be indexed
+     */
+    public static Optional<CriteriaIndex> build(List<TargetPlan> targets, PathTrie.Builder pathTrie) {
+        final var predicates = targets.stream()
+                .map(target -> predicates(target.getTransformationTarget().getCriteria()))
+                .toList();
+        final var frequencies = new LinkedHashMap<List<NodePath.Step>, Integer>();
+        final var nodePaths = new HashMap<List<NodePath.Step>, NodePath>();
+        for (final var indexable : predicates) {
+            final var keys = new HashSet<List<NodePath.Step>>();
+            for (final var predicate : indexable) {
+                nodePaths.putIfAbsent(predicate.key(), predicate.nodePath());
+                if (keys.add(predicate.key())) {
+                    frequencies.merge(predicate.key(), 1, Integer::sum);
+                }
+            }
+        }
+        final var key = frequencies.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(null);
+        if (null == key) {
+            return Optional.empty();
+        }
+        final var candidates = new HashMap<String, List<TargetPlan>>();
+        final var unindexed = new ArrayList<TargetPlan>();
+        for (var i = 0; i < targets.size(); i++) {
+            final var target = targets.get(i);
+            final var values = predicates.get(i).stream()
+                    .filter(predicate -> predicate.key().equals(key))
+                    .findFirst()
+                    .map(Predicate::values)
+                    .orElse(null);
+            if (null == values) {
+                unindexed.add(target);
+                candidates.values().forEach(each -> each.add(target));
+            } else {
+                values.forEach(value -> candidates.computeIfAbsent(value, k -> new ArrayList<>(unindexed)).add(target));
+            }
+        }
+        final var nodePath = nodePaths.get(key);
+        final var discriminator = AttributePlan.builder()
+                .nodePath(nodePath)
+                .slot(pathTrie.add(nodePath))
+                .build();
+        return Optional.of(new CriteriaIndex(discriminator,
+                candidates.entrySet().stream()
+                        .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> List.copyOf(entry.getValue()))),
+                List.copyOf(unindexed),
+                targets));
+    }
+
+    public String getPath() {
+        return discriminator.getNodePath().getPath();
+    }
+
+    public List<TargetPlan> getTargets(MessageSource messageSource) {
+        final JsonNode value;
+        try {
+            value = messageSource.read(discriminator);
+        } catch (PathNotFoundException e) {
+            return targets;
+        }
+        if (null == value || !value.isTextual()) {
+            return targets;
+        }
+        return candidates.getOrDefault(value.textValue(), unindexed);
+    }
+
+    /*
+        A criteria that holds only when the field at nodePath is one of values, if the field is a string. Subclasses,
+        preoperations and values read from the message change what the checks mean, and are left to be evaluated.
+     */
+    private static List<Predicate> predicates(Expression criteria) {
+        if (null == criteria) {
+            return List.of();
+        }
+        if (criteria.getClass() == AndExpression.class) {
+            final var children = ((AndExpression) criteria).getChildren();
+            return null == children ? List.of() : children.stream()
+                    .map(CriteriaIndex::predicate)
+                    .flatMap(Optional::stream)
+                    .toList();
+        }
+        return predicate(criteria).stream().toList();
+    }
+
+    private static Optional<Predicate> predicate(Expression criteria) {
+        if (criteria instanceof EqualsExpression equals && criteria.getClass() == EqualsExpression.class
+                && null == equals.getPreoperation() && !equals.isExtractValueFromPath() && text(equals.getValue())) {
+            return predicate(equals.getPath(), Set.of(textValue(equals.getValue())));
+        }
+        if (criteria instanceof InExpression in && criteria.getClass() == InExpression.class
+                && null == in.getPreoperation() && !in.isExtractValues() && null != in.getValues()
+                && !in.getValues().isEmpty() && in.getValues().stream().allMatch(CriteriaIndex::text)) {
+            return predicate(in.getPath(), in.getValues().stream()
+                    .map(CriteriaIndex::textValue)
+                    .collect(Collectors.toUnmodifiableSet()));
+        }
+        return Optional.empty();
+    }
+
+    /*
+        InExpression holds its values as nodes, while EqualsExpression holds them as they were given
+     */
+    private static boolean text(Object value) {
+        return value instanceof String || value instanceof TextNode;
+    }
+
+    private static String textValue(Object value) {
+        return value instanceof TextNode textNode ? textNode.textValue() : (String) value;
+    }
+
+    private static Optional<Predicate> predicate(String path, Set<String> values) {
+        return null == path ? Optional.empty() : NodePath.compile(path).map(nodePath -> new Predicate(nodePath, values));
+    }
+
+    /*
+        Paths that walk the same steps ($.a.b and $['a']['b']) are the same discriminator
+     */
+    private record Predicate(NodePath nodePath, Set<String> values) {
+        private List<NodePath.Step> key() {
+            return List.of(nodePath.steps());
+        }
+    }
+}
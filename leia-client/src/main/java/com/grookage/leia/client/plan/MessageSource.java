@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.plan;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+
+/*
+    The source message being multiplexed, as seen by the targets of its plan. The trie is walked and the JsonPath
+    context is built only on the first read that needs them, and are then shared by all the targets of the message.
+    Sources streamed from bytes come with their values already extracted, and have no message to run JsonPath on.
+    Bound to a single message on a single thread.
+ */
+public class MessageSource {
+
+    private final JsonNode message;
+    private final PathTrie pathTrie;
+    private final Configuration configuration;
+    private PathValues pathValues;
+    private DocumentContext documentContext;
+
+    public MessageSource(JsonNode message, PathTrie pathTrie, Configuration configuration) {
+        this.message = message;
+        this.pathTrie = pathTrie;
+        this.configuration = configuration;
+    }
+
+    public MessageSource(PathValues pathValues) {
+        this(null, PathTrie.empty(), null);
+        this.pathValues = pathValues;
+    }
+
+    public JsonNode read(AttributePlan attributePlan) {
+        if (null != attributePlan.getNodePath()) {
+            if (null == pathValues) {
+                pathValues = pathTrie.extract(message);
+            }
+            return pathValues.get(attributePlan.getSlot());
+        }
+        if (null == message) {
+            throw new IllegalStateException("No source message to read path " + attributePlan.getJsonPath().getPath());
+        }
+        if (null == documentContext) {
+            documentContext = JsonPath.using(configuration).parse(message);
+        }
+        return documentContext.read(attributePlan.getJsonPath());
+    }
+}
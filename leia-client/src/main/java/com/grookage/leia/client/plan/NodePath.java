@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.plan;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.jayway.jsonpath.PathNotFoundException;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/*
+    A definite path made of only property and index steps ($.a.b, $.a[0].b, $['a'][-1]), read by walking the JsonNode
+    directly instead of going through the JsonPath engine. Reads behave like JsonPath does on a JacksonJsonNodeJsonProvider:
+    a missing property or a step on the wrong node type throws PathNotFoundException, an index out of bounds reads as null.
+    Anything else (filters, wildcards, deep scans, functions, multiple properties) isn't compiled, and is left to JsonPath.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class NodePath {
+
+    private static final String ROOT = "$";
+
+    @Getter
+    private final String path;
+    private final Step[] steps;
+
+    public static Optional<NodePath> compile(String path) {
+        if (null == path || !path.startsWith(ROOT)) {
+            return Optional.empty();
+        }
+        final var steps = new ArrayList<Step>();
+        var position = 1;
+        while (position < path.length()) {
+            final var current = path.charAt(position);
+            final int next;
+            if (current == '.') {
+                next = scanProperty(path, position + 1, steps);
+            } else if (current == '[') {
+                next = scanBracket(path, position + 1, steps);
+            } else {
+                return Optional.empty();
+            }
+            if (next < 0) {
+                return Optional.empty();
+            }
+            position = next;
+        }
+        return Optional.of(new NodePath(path, steps.toArray(new Step[0])));
+    }
+
+    private static int scanProperty(String path, int start, List<Step> steps) {
+        var end = start;
+        while (end < path.length() && propertyChar(path.charAt(end))) {
+            end++;
+        }
+        if (end == start) {
+            return -1;
+        }
+        steps.add(new Step(path.substring(start, end), 0));
+        return end;
+    }
+
+    private static int scanBracket(String path, int start, List<Step> steps) {
+        final var end = path.indexOf(']', start);
+        if (end < 0) {
+            return -1;
+        }
+        final var content = path.substring(start, end);
+        if (content.length() > 2 && content.charAt(0) == '\'' && content.charAt(content.length() - 1) == '\'') {
+            final var property = content.substring(1, content.length() - 1);
+            if (property.indexOf('\'') >= 0 || property.indexOf('\\') >= 0) {
+                return -1;
+            }
+            steps.add(new Step(property, 0));
+            return end + 1;
+        }
+        if (!index(content)) {
+            return -1;
+        }
+        steps.add(new Step(null, Integer.parseInt(content)));
+        return end + 1;
+    }
+
+    private static boolean propertyChar(char character) {
+        return Character.isLetterOrDigit(character) || character == '_';
+    }
+
+    private static boolean index(String content) {
+        final var digits = content.startsWith("-") ? content.substring(1) : content;
+        if (digits.isEmpty() || digits.length() > 9) {
+            return false;
+        }
+        return digits.chars().allMatch(character -> character >= '0' && character <= '9');
+    }
+
+    Step[] steps() {
+        return steps;
+    }
+
+    public JsonNode read(JsonNode source) {
+        var node = source;
+        for (final var step : steps) {
+            node = step.next(node);
+            if (node.isMissingNode()) {
+                throw new PathNotFoundException("No results for path: " + path);
+            }
+        }
+        return node;
+    }
+
+    /*
+        A property or an index step. next returns a MissingNode when the step can't be applied, and a NullNode when an
+        index is out of bounds, which is what JsonPath reads such a leaf as. Steps off a NullNode always go missing.
+     */
+    record Step(String name, int index) {
+
+        boolean property() {
+            return null != name;
+        }
+
+        JsonNode next(JsonNode node) {
+            if (property()) {
+                final var value = node.isObject() ? node.get(name) : null;
+                return null == value ? MissingNode.getInstance() : value;
+            }
+            if (!node.isArray()) {
+                return MissingNode.getInstance();
+            }
+            final var position = index < 0 ? node.size() + index : index;
+            return position >= 0 && position < node.size() ? node.get(position) : NullNode.getInstance();
+        }
+    }
+}
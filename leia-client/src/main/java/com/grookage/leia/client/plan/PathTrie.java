@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.plan;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.node.NullNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+    All the NodePaths of a source schema, across all of its targets, merged by their common prefixes. Every distinct path
+    gets a slot, and a single walk of the source extracts the value of every slot, so a prefix like $.payload.customer
+    is navigated once per message instead of once per attribute per target.
+ */
+public class PathTrie {
+
+    private static final PathTrie EMPTY = new PathTrie(new MutableNode().freeze(), new String[0]);
+
+    private final Node root;
+    private final String[] paths;
+
+    private PathTrie(Node root, String[] paths) {
+        this.root = root;
+        this.paths = paths;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static PathTrie empty() {
+        return EMPTY;
+    }
+
+    public boolean isEmpty() {
+        return paths.length == 0;
+    }
+
+    public int size() {
+        return paths.length;
+    }
+
+    public PathValues extract(JsonNode source) {
+        final var values = new JsonNode[paths.length];
+        if (!isEmpty()) {
+            visit(root, source, values);
+        }
+        return new PathValues(paths, values);
+    }
+
+    /*
+        Extracts the slots straight off a parser positioned before the source, building trees only for the values that
+        are slots themselves. Subtrees that no path goes through are skipped without being built.
+     */
+    public PathValues extract(JsonParser parser) throws IOException {
+        if (null == parser.nextToken()) {
+            throw MismatchedInputException.from(parser, JsonNode.class, "No content to map due to end-of-input");
+        }
+        final var values = new JsonNode[paths.length];
+        if (isEmpty()) {
+            parser.skipChildren();
+        } else {
+            stream(root, parser, values);
+        }
+        return new PathValues(paths, values);
+    }
+
+    private static void stream(Node node, JsonParser parser, JsonNode[] values) throws IOException {
+        if (node.buffered) {
+            final JsonNode value = parser.readValueAsTree();
+            visit(node, null == value ? NullNode.getInstance() : value, values);
+            return;
+        }
+        final var token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final var child = node.properties.get(parser.currentName());
+                parser.nextToken();
+                if (null == child) {
+                    parser.skipChildren();
+                } else {
+                    stream(child, parser, values);
+                }
+            }
+        } else if (token == JsonToken.START_ARRAY) {
+            var size = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                final var child = node.indexChild(size++);
+                if (null == child) {
+                    parser.skipChildren();
+                } else {
+                    stream(child, parser, values);
+                }
+            }
+            for (var i = 0; i < node.steps.length; i++) {
+                if (!node.steps[i].property() && node.steps[i].index() >= size) {
+                    visit(node.children[i], NullNode.getInstance(), values);
+                }
+            }
+        }
+    }
+
+    /*
+        Subtrees under a step that can't be applied aren't visited, and their slots are left unresolved
+     */
+    private static void visit(Node node, JsonNode value, JsonNode[] values) {
+        if (node.slot >= 0) {
+            values[node.slot] = value;
+        }
+        for (var i = 0; i < node.steps.length; i++) {
+            final var next = node.steps[i].next(value);
+            if (!next.isMissingNode()) {
+                visit(node.children[i], next, values);
+            }
+        }
+    }
+
+    /*
+        A node is buffered, read as a tree while streaming, when its own value is needed or it has negative indexes,
+        which can't be resolved without knowing the size of the array
+     */
+    private static class Node {
+        private final int slot;
+        private final NodePath.Step[] steps;
+        private final Node[] children;
+        private final Map<String, Node> properties = new HashMap<>();
+        private final boolean buffered;
+
+        private Node(int slot, NodePath.Step[] steps, Node[] children) {
+            this.slot = slot;
+            this.steps = steps;
+            this.children = children;
+            var negativeIndex = false;
+            for (var i = 0; i < steps.length; i++) {
+                if (steps[i].property()) {
+                    properties.put(steps[i].name(), children[i]);
+                } else {
+                    negativeIndex |= steps[i].index() < 0;
+                }
+            }
+            this.buffered = slot >= 0 || negativeIndex;
+        }
+
+        private Node indexChild(int index) {
+            for (var i = 0; i < steps.length; i++) {
+                if (!steps[i].property() && steps[i].index() == index) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+    }
+
+    public static class Builder {
+        private final MutableNode root = new MutableNode();
+        private final List<String> paths = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /*
+            Returns the slot of the path, paths that walk the same steps ($.a.b and $['a']['b']) share a slot
+         */
+        public int add(NodePath nodePath) {
+            var node = root;
+            for (final var step : nodePath.steps()) {
+                node = node.children.computeIfAbsent(step, k -> new MutableNode());
+            }
+            if (node.slot < 0) {
+                node.slot = paths.size();
+                paths.add(nodePath.getPath());
+            }
+            return node.slot;
+        }
+
+        public PathTrie build() {
+            return paths.isEmpty() ? EMPTY : new PathTrie(root.freeze(), paths.toArray(new String[0]));
+        }
+    }
+
+    private static class MutableNode {
+        private final Map<NodePath.Step, MutableNode> children = new LinkedHashMap<>();
+        private int slot = -1;
+
+        private Node freeze() {
+            return new Node(slot,
+                    children.keySet().toArray(new NodePath.Step[0]),
+                    children.values().stream().map(MutableNode::freeze).toArray(Node[]::new));
+        }
+    }
+}
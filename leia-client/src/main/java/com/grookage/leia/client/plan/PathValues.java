@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.plan;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.jayway.jsonpath.PathNotFoundException;
+
+/*
+    The values extracted from a source by a PathTrie, by slot. A path that couldn't be resolved fails only when it is
+    read, so that a missing path of a target that isn't produced doesn't fail the other targets.
+ */
+public class PathValues {
+
+    private final String[] paths;
+    private final JsonNode[] values;
+
+    PathValues(String[] paths, JsonNode[] values) {
+        this.paths = paths;
+        this.values = values;
+    }
+
+    public JsonNode get(int slot) {
+        final var value = values[slot];
+        if (null == value) {
+            throw new PathNotFoundException("No results for path: " + paths[slot]);
+        }
+        return value;
+    }
+}
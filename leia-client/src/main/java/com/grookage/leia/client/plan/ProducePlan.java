@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.grookage.leia.client.plan;
+
+import com.grookage.leia.models.schema.SchemaDetails;
+import com.grookage.leia.mux.targetvalidator.TargetValidator;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/*
+    The compiled, immutable produce plan of a source schema. pathTrie holds the simple paths of all the targets, so they can
+    be extracted from a message in one walk. A plan is streamable when every attribute of its targets is a literal or
+    a simple path, so that the source can be multiplexed straight off its bytes. criteriaIndex is null when none of the
+    criteria of the targets could be indexed.
+ */
+@Value
+@Builder
+public class ProducePlan {
+    SchemaDetails sourceSchema;
+    TargetValidator targetValidator;
+    List<TargetPlan> targets;
+    PathTrie pathTrie;
+    boolean streamable;
+    CriteriaIndex criteriaIndex;
+
+    public boolean streamable(TargetValidator validator) {
+        return streamable && targets.stream()
+                .noneMatch(target -> validator.requiresMessage(target.getTransformationTarget()));
+    }
+
+    /*
+        The targets to be validated for the message, narrowed down by the criteriaIndex when the validator goes by criteria
+     */
+    public List<TargetPlan> candidates(MessageSource messageSource, TargetValidator validator) {
+        return null == criteriaIndex || !validator.evaluatesCriteria() ? targets : criteriaIndex.getTargets(messageSource);
+    }
+}
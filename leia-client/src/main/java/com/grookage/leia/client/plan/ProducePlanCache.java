@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.plan;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.grookage.leia.models.schema.SchemaDetails;
+import com.grookage.leia.models.schema.SchemaKey;
+import com.grookage.leia.models.schema.SchemaSnapshot;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/*
+    A bounded cache of produce plans, compiled lazily on the first message of a source schema. Every plan remembers the
+    snapshot it was last checked against. When the refresher hands out a new snapshot, a plan is carried over as is if
+    neither its source nor any of its targets have changed, and only recompiled otherwise.
+ */
+public class ProducePlanCache {
+
+    private final Cache<SchemaKey, Entry> plans;
+    private final LongAdder compileCount = new LongAdder();
+    private final LongAdder compileTimeNanos = new LongAdder();
+    private final LongAdder reuseCount = new LongAdder();
+
+    public ProducePlanCache(long maximumSize) {
+        this.plans = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<ProducePlan> getPlan(SchemaSnapshot snapshot,
+                                         SchemaKey schemaKey,
+                                         Function<SchemaDetails, ProducePlan> compiler) {
+        final var sourceSchema = snapshot.getSchemaDetails(schemaKey).orElse(null);
+        if (null == sourceSchema) {
+            plans.invalidate(schemaKey);
+            return Optional.empty();
+        }
+        final var current = plans.getIfPresent(schemaKey);
+        if (null != current && current.snapshot == snapshot) {
+            return Optional.of(current.plan);
+        }
+        final var entry = plans.asMap().compute(schemaKey, (key, existing) -> {
+            if (null != existing && existing.snapshot == snapshot) {
+                return existing;
+            }
+            if (null != existing && unchanged(existing.plan, sourceSchema, snapshot)) {
+                reuseCount.increment();
+                return new Entry(snapshot, existing.plan);
+            }
+            return new Entry(snapshot, compile(sourceSchema, compiler));
+        });
+        return Optional.of(entry.plan);
+    }
+
+    private ProducePlan compile(SchemaDetails sourceSchema,
+                                Function<SchemaDetails, ProducePlan> compiler) {
+        final var start = System.nanoTime();
+        try {
+            return compiler.apply(sourceSchema);
+        } finally {
+            compileCount.increment();
+            compileTimeNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private static boolean unchanged(ProducePlan plan,
+                                     SchemaDetails sourceSchema,
+                                     SchemaSnapshot snapshot) {
+        return plan.getSourceSchema().equals(sourceSchema) && plan.getTargets().stream()
+                .allMatch(target -> Objects.equals(target.getTargetSchema(),
+                        snapshot.getSchemaDetails(target.getSchemaKey()).orElse(null)));
+    }
+
+    public ProducePlanStats getStats() {
+        return ProducePlanStats.builder()
+                .cachedPlans(plans.size())
+                .compileCount(compileCount.sum())
+                .compileTimeNanos(compileTimeNanos.sum())
+                .reuseCount(reuseCount.sum())
+                .evictionCount(plans.stats().evictionCount())
+                .build();
+    }
+
+    private record Entry(SchemaSnapshot snapshot, ProducePlan plan) {
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.grookage.leia.client.plan;
+
+import com.grookage.leia.client.MessageTransformerUtils;
+import com.grookage.leia.common.validation.CompiledPayloadValidator;
+import com.grookage.leia.models.schema.SchemaDetails;
+import com.grookage.leia.models.schema.SchemaSnapshot;
+import com.grookage.leia.models.schema.transformer.TransformationTarget;
+import com.grookage.leia.mux.targetvalidator.TargetValidator;
+import com.grookage.leia.validator.LeiaSchemaValidator;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+@UtilityClass
+@Slf4j
+public class ProducePlanner {
+
+    private static Set<String> getTags(SchemaDetails targetSchema,
+                                       TransformationTarget transformationTarget) {
+        final var tags = new HashSet<String>();
+        if (null != targetSchema && null != targetSchema.getTags()) {
+            tags.addAll(targetSchema.getTags());
+        }
+        if (null != transformationTarget.getTags()) {
+            tags.addAll(transformationTarget.getTags());
+        }
+        return Set.copyOf(tags);
+    }
+
+    private static TargetPlan getTargetPlan(SchemaSnapshot snapshot,
+                                            LeiaSchemaValidator schemaValidator,
+                                            TransformationTarget transformationTarget,
+                                            boolean validSource,
+                                            PathTrie.Builder pathTrie) {
+        final var targetKey = transformationTarget.getSchemaKey();
+        if (validSource && !schemaValidator.valid(targetKey)) {
+            log.error("The transformationSchema schema doesn't seem to be valid for schemaKey {}. Please check the schema bindings provided",
+                    targetKey);
+            throw new IllegalStateException("Invalid transformation schema");
+        }
+        final var targetSchema = snapshot.getSchemaDetails(targetKey).orElse(null);
+        return TargetPlan.builder()
+                .transformationTarget(transformationTarget)
+                .targetSchema(targetSchema)
+                .registeredKlass(schemaValidator.getKlass(targetKey).orElse(null))
+                .tags(getTags(targetSchema, transformationTarget))
+                .attributes(MessageTransformerUtils.getAttributePlans(transformationTarget, validSource, pathTrie))
+                .payloadValidator(null == targetSchema ? null : CompiledPayloadValidator.compile(
+                        targetSchema.getValidationType(), targetSchema.getAttributes()))
+                .build();
+    }
+
+    public static ProducePlan getProducePlan(SchemaSnapshot snapshot,
+                                             SchemaDetails sourceSchema,
+                                             LeiaSchemaValidator schemaValidator,
+                                             TargetValidator targetValidator) {
+        final var validSource = schemaValidator.valid(sourceSchema.getSchemaKey());
+        final Collection<TransformationTarget> transformationTargets = null == sourceSchema.getTransformationTargets()
+                ? Set.of() : sourceSchema.getTransformationTargets();
+        final var pathTrie = PathTrie.builder();
+        final var targets = transformationTargets.stream()
+                .map(each -> getTargetPlan(snapshot, schemaValidator, each, validSource, pathTrie))
+                .toList();
+        return ProducePlan.builder()
+                .sourceSchema(sourceSchema)
+                .targetValidator(targetValidator)
+                .targets(targets)
+                .criteriaIndex(CriteriaIndex.build(targets, pathTrie).orElse(null))
+                .pathTrie(pathTrie.build())
+                .streamable(targets.stream()
+                        .flatMap(target -> target.getAttributes().stream())
+                        .allMatch(attribute -> null == attribute.getJsonPath()))
+                .build();
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.grookage.leia.client.plan;
+
+import com.grookage.leia.common.validation.CompiledPayloadValidator;
+import com.grookage.leia.models.schema.SchemaDetails;
+import com.grookage.leia.models.schema.SchemaKey;
+import com.grookage.leia.models.schema.transformer.TransformationTarget;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Set;
+
+/*
+    Everything needed to produce one transformation target of a source, resolved at compile time.
+    targetSchema and registeredKlass are left null when they couldn't be resolved, and are reported when the target is hit.
+    payloadValidator is compiled from the attributes of the targetSchema, and is null along with it.
+ */
+@Value
+@Builder
+public class TargetPlan {
+    TransformationTarget transformationTarget;
+    SchemaDetails targetSchema;
+    Class<?> registeredKlass;
+    Set<String> tags;
+    List<AttributePlan> attributes;
+    CompiledPayloadValidator payloadValidator;
+
+    public SchemaKey getSchemaKey() {
+        return transformationTarget.getSchemaKey();
+    }
+}
@@ -17,11 +17,15 @@
 package com.grookage.leia.client;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
 import com.grookage.leia.client.refresher.LeiaClientRefresher;
 import com.grookage.leia.client.stubs.TargetSchema;
 import com.grookage.leia.client.stubs.TestSchema;
 import com.grookage.leia.client.stubs.TestSchemaUnit;
+import com.grookage.leia.common.exception.SchemaValidationException;
 import com.grookage.leia.models.ResourceHelper;
+import com.grookage.leia.models.attributes.IntegerAttribute;
+import com.grookage.leia.models.attributes.StringAttribute;
 import com.grookage.leia.models.mux.LeiaMessage;
 import com.grookage.leia.models.mux.MessageRequest;
 import com.grookage.leia.models.schema.SchemaDetails;
@@ -30,6 +34,7 @@ import com.grookage.leia.models.schema.transformer.TransformationTarget;
 import com.grookage.leia.mux.DefaultMessageProcessor;
 import com.grookage.leia.mux.executor.MessageExecutor;
 import com.grookage.leia.mux.executor.MessageExecutorFactory;
+import com.grookage.leia.mux.executor.SendResult;
 import com.grookage.leia.mux.resolver.BackendNameResolver;
 import com.grookage.leia.mux.targetvalidator.DefaultTargetValidator;
 import com.grookage.leia.mux.targetvalidator.JsonRuleTargetValidator;
@@ -42,9 +47,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 class LeiaMessageProduceClientTest {
 
@@ -256,4 +267,235 @@ class LeiaMessageProduceClientTest {
             }
         }, null);
     }
+
+    @Test
+    @SneakyThrows
+    void testStreamedMessages() {
+        final var testSchema = TestSchema.builder()
+                .userName("testUser")
+                .schemaUnits(List.of(TestSchemaUnit.builder()
+                        .registeredName("testRegisteredName").build()))
+                .build();
+        final var bytes = mapper.writeValueAsBytes(testSchema);
+        final var expected = schemaClient.getMessages(MessageRequest.builder()
+                .schemaKey(sourceSchema)
+                .message(mapper.valueToTree(testSchema))
+                .build(), null);
+        Assertions.assertEquals(1, expected.size());
+        Assertions.assertEquals(expected.get(targetSchema).getMessage(),
+                schemaClient.getMessages(sourceSchema, bytes, false, null).get(targetSchema).getMessage());
+        final var directBuffer = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        Assertions.assertEquals(expected.get(targetSchema).getMessage(),
+                schemaClient.getMessages(sourceSchema, directBuffer, false, null).get(targetSchema).getMessage());
+        Assertions.assertEquals(bytes.length, directBuffer.remaining());
+        Assertions.assertEquals(expected.get(targetSchema).getMessage(), schemaClient.getMessages(sourceSchema,
+                new ByteArrayInputStream(bytes), false, null).get(targetSchema).getMessage());
+
+        final var withSource = schemaClient.getMessages(sourceSchema, ByteBuffer.wrap(bytes), true, null);
+        Assertions.assertEquals(2, withSource.size());
+        Assertions.assertEquals(mapper.valueToTree(testSchema), withSource.get(sourceSchema).getMessage());
+
+        schemaDetails.getTransformationTargets()
+                .forEach(each -> each.setCriteria(EqualsExpression.builder()
+                        .path("$.userName")
+                        .value("otherUser")
+                        .build()));
+        Assertions.assertTrue(schemaClient.getMessages(sourceSchema, bytes, false, new JsonRuleTargetValidator()).isEmpty());
+        Assertions.assertThrows(MismatchedInputException.class,
+                () -> schemaClient.getMessages(sourceSchema, new byte[0], false, null));
+    }
+
+    @Test
+    void testStartWithInvalidTargets() {
+        final var schemaValidator = Mockito.mock(LeiaSchemaValidator.class);
+        Mockito.when(schemaValidator.valid(sourceSchema)).thenReturn(true);
+        final var invalidClient = LeiaMessageProduceClient.builder()
+                .mapper(new ObjectMapper())
+                .refresher(schemaClient.getRefresher())
+                .schemaValidator(schemaValidator)
+                .targetValidator(DefaultTargetValidator::new)
+                .build();
+        Assertions.assertThrows(IllegalStateException.class, invalidClient::start);
+    }
+
+    @Test
+    void testMessageValidation() {
+        targetSchemaDetails.setAttributes(Set.of(new IntegerAttribute("name", true, null),
+                new StringAttribute("officialName", true, null)));
+        final var messageRequest = MessageRequest.builder()
+                .schemaKey(sourceSchema)
+                .message(mapper.valueToTree(TestSchema.builder().userName("testUser").build()))
+                .build();
+        final var strictClient = LeiaMessageProduceClient.builder()
+                .mapper(new ObjectMapper())
+                .refresher(schemaClient.getRefresher())
+                .schemaValidator(schemaClient.getSchemaValidator())
+                .build();
+        strictClient.start();
+        Assertions.assertThrows(SchemaValidationException.class, () -> strictClient.getMessages(messageRequest, null));
+        final var sampledClient = LeiaMessageProduceClient.builder()
+                .mapper(new ObjectMapper())
+                .refresher(schemaClient.getRefresher())
+                .schemaValidator(schemaClient.getSchemaValidator())
+                .validationMode(MessageValidationMode.SAMPLED)
+                .validationSampleRate(1)
+                .build();
+        Assertions.assertThrows(SchemaValidationException.class, () -> sampledClient.getMessages(messageRequest, null));
+        final var unvalidatedClient = LeiaMessageProduceClient.builder()
+                .mapper(new ObjectMapper())
+                .refresher(schemaClient.getRefresher())
+                .schemaValidator(schemaClient.getSchemaValidator())
+                .validationMode(MessageValidationMode.OFF)
+                .build();
+        Assertions.assertEquals(1, unvalidatedClient.getMessages(messageRequest, null).size());
+    }
+
+    @Test
+    @SneakyThrows
+    void testProcessMessagesAsync() {
+        final var sent = new CopyOnWriteArrayList<LeiaMessage>();
+        final MessageExecutor executor = sent::addAll;
+        final MessageExecutor failingExecutor = messages -> {
+            throw new IllegalStateException("Backend is down");
+        };
+        final var messageProcessor = DefaultMessageProcessor.builder()
+                .name("Test")
+                .processingThresholdMs(10_000L)
+                .backendNameResolver(message -> Set.of("BACKEND", "FAILING"))
+                .executorFactory(backend -> Optional.of(backend.equals("BACKEND") ? executor : failingExecutor))
+                .build();
+        final var testSchema = TestSchema.builder()
+                .userName("testUser")
+                .build();
+        final var results = schemaClient.processMessagesAsync(MessageRequest.builder()
+                        .schemaKey(sourceSchema)
+                        .message(mapper.valueToTree(testSchema))
+                        .includeSource(true)
+                        .build(), messageProcessor, null)
+                .toCompletableFuture()
+                .get();
+        Assertions.assertEquals(2, results.size());
+        final var succeeded = results.stream().filter(SendResult::succeeded).findFirst().orElseThrow();
+        Assertions.assertEquals("BACKEND", succeeded.getBackend());
+        Assertions.assertEquals(2, succeeded.getMessages().size());
+        Assertions.assertEquals(2, sent.size());
+        final var failed = results.stream().filter(each -> !each.succeeded()).findFirst().orElseThrow();
+        Assertions.assertEquals("FAILING", failed.getBackend());
+        Assertions.assertTrue(failed.getError() instanceof IllegalStateException);
+        Assertions.assertTrue(failed.getLatencyMs() >= 0);
+        messageProcessor.shutdown();
+    }
+
+    @Test
+    void testBatchMessages() {
+        final var batchClient = LeiaMessageProduceClient.builder()
+                .mapper(new ObjectMapper())
+                .refresher(schemaClient.getRefresher())
+                .schemaValidator(schemaClient.getSchemaValidator())
+                .batchExecutor(BatchExecutors.preferVirtualThreads())
+                .build();
+        final var unknownSchema = SchemaKey.builder()
+                .namespace("testNamespace")
+                .schemaName("unknownSchema")
+                .version("v")
+                .orgId("testOrg")
+                .type("default")
+                .tenantId("tenantId")
+                .build();
+        final var messageRequests = List.of("firstUser", "secondUser", "thirdUser").stream()
+                .map(userName -> MessageRequest.builder()
+                        .schemaKey(userName.equals("secondUser") ? unknownSchema : sourceSchema)
+                        .message(mapper.valueToTree(TestSchema.builder().userName(userName).build()))
+                        .build())
+                .toList();
+        final var processed = new ArrayList<List<LeiaMessage>>();
+        final var results = batchClient.processMessages(messageRequests,
+                new DefaultMessageProcessor("Test", 10_000L, nameResolver, executorFactory) {
+                    @Override
+                    public CompletionStage<List<SendResult>> processMessagesAsync(List<LeiaMessage> messages) {
+                        processed.add(messages);
+                        return CompletableFuture.completedFuture(List.of());
+                    }
+                }, null);
+        Assertions.assertEquals(3, results.size());
+        Assertions.assertTrue(results.get(0).succeeded());
+        Assertions.assertEquals("firstUser", results.get(0).getMessages().get(targetSchema).getMessage().get("name").asText());
+        Assertions.assertFalse(results.get(1).succeeded());
+        Assertions.assertTrue(results.get(1).getError() instanceof UnsupportedOperationException);
+        Assertions.assertTrue(results.get(1).getMessages().isEmpty());
+        Assertions.assertEquals("thirdUser", results.get(2).getMessages().get(targetSchema).getMessage().get("name").asText());
+        Assertions.assertEquals(1, processed.size());
+        Assertions.assertEquals(2, processed.get(0).size());
+
+        final var failedResults = batchClient.processMessages(messageRequests,
+                new DefaultMessageProcessor("Test", 10_000L, nameResolver, executorFactory) {
+                    @Override
+                    public CompletionStage<List<SendResult>> processMessagesAsync(List<LeiaMessage> messages) {
+                        return CompletableFuture.completedFuture(List.of(SendResult.builder()
+                                .backend("BACKEND")
+                                .messages(messages)
+                                .error(SendResult.partiallyFailed(List.of(messages.get(1))))
+                                .build()));
+                    }
+                }, null);
+        Assertions.assertTrue(failedResults.get(0).succeeded());
+        Assertions.assertTrue(failedResults.get(1).getError() instanceof UnsupportedOperationException);
+        Assertions.assertFalse(failedResults.get(2).succeeded());
+        Assertions.assertEquals("thirdUser", failedResults.get(2).getMessages().get(targetSchema).getMessage()
+                .get("name").asText());
+
+        final var unresolvedResults = batchClient.processMessages(messageRequests,
+                new DefaultMessageProcessor("Test", 10_000L, nameResolver, executorFactory) {
+                    @Override
+                    public CompletionStage<List<SendResult>> processMessagesAsync(List<LeiaMessage> messages) {
+                        return CompletableFuture.failedFuture(new IllegalStateException("No backends"));
+                    }
+                }, null);
+        Assertions.assertTrue(unresolvedResults.get(0).getError() instanceof IllegalStateException);
+        Assertions.assertTrue(unresolvedResults.get(1).getError() instanceof UnsupportedOperationException);
+        Assertions.assertTrue(unresolvedResults.get(2).getError() instanceof IllegalStateException);
+    }
+
+    @Test
+    @SneakyThrows
+    void testProducePlan() {
+        Mockito.when(schemaClient.getRefresher().getData()).thenReturn(List.of(schemaDetails, targetSchemaDetails));
+        final var producePlan = schemaClient.getProducePlan(sourceSchema).orElse(null);
+        Assertions.assertNotNull(producePlan);
+        Assertions.assertSame(schemaDetails, producePlan.getSourceSchema());
+        Assertions.assertTrue(producePlan.getTargetValidator() instanceof DefaultTargetValidator);
+        Assertions.assertEquals(1, producePlan.getTargets().size());
+        final var targetPlan = producePlan.getTargets().get(0);
+        Assertions.assertEquals(targetSchema, targetPlan.getSchemaKey());
+        Assertions.assertSame(targetSchemaDetails, targetPlan.getTargetSchema());
+        Assertions.assertEquals(TargetSchema.class, targetPlan.getRegisteredKlass());
+        Assertions.assertEquals(Set.of("backend-TRANSFORMATION_BACKEND", "backend-BACKEND"), targetPlan.getTags());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> targetPlan.getTags().add("backend-OTHER"));
+        final var literalAttribute = targetPlan.getAttributes().stream()
+                .filter(each -> each.getAttributeName().equals("officialName")).findFirst().orElse(null);
+        Assertions.assertNotNull(literalAttribute);
+        Assertions.assertTrue(literalAttribute.literal());
+        Assertions.assertEquals("TestName", literalAttribute.getLiteral().asText());
+        Assertions.assertSame(producePlan, schemaClient.getProducePlan(sourceSchema).orElse(null));
+        final var compileCount = schemaClient.getProducePlanStats().getCompileCount();
+
+        Mockito.when(schemaClient.getRefresher().getData()).thenReturn(List.of(schemaDetails, targetSchemaDetails));
+        Assertions.assertSame(producePlan, schemaClient.getProducePlan(sourceSchema).orElse(null));
+        Assertions.assertEquals(compileCount, schemaClient.getProducePlanStats().getCompileCount());
+        Assertions.assertTrue(schemaClient.getProducePlanStats().getReuseCount() > 0);
+
+        final var changedTarget = ResourceHelper.getResource("schema/targetSchemaDetails.json", SchemaDetails.class);
+        changedTarget.setTags(Set.of("backend-OTHER"));
+        Mockito.when(schemaClient.getRefresher().getData()).thenReturn(List.of(schemaDetails, changedTarget));
+        final var recompiledPlan = schemaClient.getProducePlan(sourceSchema).orElse(null);
+        Assertions.assertNotNull(recompiledPlan);
+        Assertions.assertNotSame(producePlan, recompiledPlan);
+        Assertions.assertEquals(Set.of("backend-TRANSFORMATION_BACKEND", "backend-OTHER"),
+                recompiledPlan.getTargets().get(0).getTags());
+        Assertions.assertEquals(compileCount + 1, schemaClient.getProducePlanStats().getCompileCount());
+
+        Mockito.when(schemaClient.getRefresher().getData()).thenReturn(List.of(targetSchemaDetails));
+        Assertions.assertTrue(schemaClient.getProducePlan(sourceSchema).isEmpty());
+        Assertions.assertTrue(schemaClient.getProducePlan(targetSchema).isPresent());
+    }
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.plan;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grookage.leia.models.schema.SchemaKey;
+import com.grookage.leia.models.schema.transformer.TransformationTarget;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
+import io.appform.jsonrules.Expression;
+import io.appform.jsonrules.expressions.array.InExpression;
+import io.appform.jsonrules.expressions.composite.AndExpression;
+import io.appform.jsonrules.expressions.equality.EqualsExpression;
+import io.appform.jsonrules.expressions.equality.NotEqualsExpression;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+class CriteriaIndexTest {
+
+    private static final Configuration CONFIGURATION = Configuration.builder()
+            .jsonProvider(new JacksonJsonNodeJsonProvider())
+            .build();
+
+    private static TargetPlan target(String version, Expression criteria) {
+        return TargetPlan.builder()
+                .transformationTarget(TransformationTarget.builder()
+                        .schemaKey(SchemaKey.builder()
+                                .namespace("testNamespace")
+                                .schemaName("testSchema")
+                                .version(version)
+                                .orgId("testOrg")
+                                .type("default")
+                                .tenantId("tenantId")
+                                .build())
+                        .criteria(criteria)
+                        .build())
+                .build();
+    }
+
+    private static EqualsExpression equals(String path, String value) {
+        return EqualsExpression.builder().path(path).value(value).build();
+    }
+
+    private static boolean valid(TargetPlan target, JsonNode message) {
+        final var criteria = target.getTransformationTarget().getCriteria();
+        return null == criteria || criteria.evaluate(message);
+    }
+
+    @Test
+    void testNoIndexableCriteria() {
+        final var targets = List.of(target("v1", null),
+                target("v2", NotEqualsExpression.builder().path("$.type").value("A").build()),
+                target("v3", EqualsExpression.builder().path("$.items[*].type").value("A").build()));
+        Assertions.assertTrue(CriteriaIndex.build(targets, PathTrie.builder()).isEmpty());
+    }
+
+    @Test
+    @SneakyThrows
+    void testCandidatesMatchCriteria() {
+        final var targets = List.of(
+                target("v1", equals("$.type", "A")),
+                target("v2", equals("$['type']", "B")),
+                target("v3", null),
+                target("v4", InExpression.builder().path("$.type").values(Set.of("A", "C")).build()),
+                target("v5", AndExpression.builder()
+                        .child(equals("$.region", "x"))
+                        .child(equals("$.type", "C"))
+                        .build()),
+                target("v6", equals("$.region", "x")),
+                target("v7", EqualsExpression.builder().path("$.type").value("D").defaultResult(true).build()));
+        final var pathTrie = PathTrie.builder();
+        final var criteriaIndex = CriteriaIndex.build(targets, pathTrie).orElseThrow();
+        Assertions.assertEquals("$.type", criteriaIndex.getPath());
+        final var trie = pathTrie.build();
+        final var mapper = new ObjectMapper();
+        List.of("{\"type\": \"A\", \"region\": \"x\"}", "{\"type\": \"B\"}", "{\"type\": \"C\", \"region\": \"x\"}",
+                        "{\"type\": \"C\", \"region\": \"y\"}", "{\"type\": \"D\"}", "{\"type\": \"Z\", \"region\": \"x\"}",
+                        "{\"region\": \"x\"}", "{\"type\": null}", "{\"type\": [\"A\"]}")
+                .forEach(json -> {
+                    final var message = read(mapper, json);
+                    final var expected = targets.stream().filter(target -> valid(target, message)).toList();
+                    final var actual = criteriaIndex.getTargets(new MessageSource(message, trie, CONFIGURATION)).stream()
+                            .filter(target -> valid(target, message))
+                            .toList();
+                    Assertions.assertEquals(expected, actual, json);
+                });
+        final var message = read(mapper, "{\"type\": \"B\"}");
+        Assertions.assertEquals(List.of(targets.get(1), targets.get(2), targets.get(5)),
+                criteriaIndex.getTargets(new MessageSource(message, trie, CONFIGURATION)));
+    }
+
+    @SneakyThrows
+    private static JsonNode read(ObjectMapper mapper, String json) {
+        return mapper.readTree(json);
+    }
+}
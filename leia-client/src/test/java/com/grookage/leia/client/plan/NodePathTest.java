@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.plan;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.PathNotFoundException;
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class NodePathTest {
+
+    private static final Configuration configuration = Configuration.builder()
+            .jsonProvider(new JacksonJsonNodeJsonProvider())
+            .mappingProvider(new JacksonMappingProvider())
+            .build();
+
+    @Test
+    void testCompile() {
+        List.of("$", "$.a", "$.a.b.c", "$.a[0].b", "$['a'][-1]", "$.a['b c'].d", "$.1")
+                .forEach(path -> Assertions.assertTrue(NodePath.compile(path).isPresent(), path));
+        List.of("a.b", "$..a", "$.a.*", "$.a[*]", "$.a[0,1]", "$.a[0:2]", "$.a[?(@.b)]", "$.a.length()",
+                        "$['a','b']", "$.a.", "$.a-b", "$[]")
+                .forEach(path -> Assertions.assertTrue(NodePath.compile(path).isEmpty(), path));
+    }
+
+    @Test
+    @SneakyThrows
+    void testReadMatchesJsonPath() {
+        final var source = new ObjectMapper().readTree("""
+                {"a": {"b": 1, "n": null, "s": "x", "arr": [{"c": 2}, 3]}, "top": [1, 2], "we ird": 5, "1": 9}
+                """);
+        List.of("$", "$.a", "$.a.b", "$.a.n", "$.a.arr[0].c", "$.a.arr[1]", "$.a.arr[5]", "$.top[-1]",
+                "$.top[-5]", "$['we ird']", "$.a['b']", "$.1", "$.a.missing", "$.a.b.c", "$.a.s.x", "$.top.x",
+                "$.a.n.x", "$.a[0]", "$.a.n[0]", "$.top[5].x", "$.a.arr[0].missing").forEach(path -> {
+            final var nodePath = NodePath.compile(path).orElseThrow();
+            final var expected = read(source, path);
+            if (null == expected) {
+                Assertions.assertThrows(PathNotFoundException.class, () -> nodePath.read(source), path);
+            } else {
+                Assertions.assertEquals(expected, nodePath.read(source), path);
+            }
+        });
+    }
+
+    private static JsonNode read(JsonNode source, String path) {
+        try {
+            return JsonPath.compile(path).read(source, configuration);
+        } catch (PathNotFoundException e) {
+            return null;
+        }
+    }
+}
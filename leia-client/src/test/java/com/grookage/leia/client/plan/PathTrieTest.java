@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.client.plan;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.jayway.jsonpath.PathNotFoundException;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+
+class PathTrieTest {
+
+    @Test
+    void testEmptyTrie() {
+        final var pathTrie = PathTrie.builder().build();
+        Assertions.assertSame(PathTrie.empty(), pathTrie);
+        Assertions.assertTrue(pathTrie.isEmpty());
+        Assertions.assertNotNull(pathTrie.extract(NullNode.getInstance()));
+    }
+
+    @Test
+    void testSharedSlots() {
+        final var builder = PathTrie.builder();
+        final var first = builder.add(NodePath.compile("$.payload.customer.name").orElseThrow());
+        final var second = builder.add(NodePath.compile("$.payload.customer.id").orElseThrow());
+        final var same = builder.add(NodePath.compile("$['payload']['customer']['name']").orElseThrow());
+        Assertions.assertNotEquals(first, second);
+        Assertions.assertEquals(first, same);
+        Assertions.assertEquals(2, builder.build().size());
+    }
+
+    @Test
+    @SneakyThrows
+    void testExtractMatchesNodePath() {
+        final var source = new ObjectMapper().readTree("""
+                {"payload": {"customer": {"name": "x", "id": 1, "tags": ["a", "b"]}, "n": null}, "top": [1]}
+                """);
+        final var builder = PathTrie.builder();
+        final var slots = new LinkedHashMap<NodePath, Integer>();
+        List.of("$", "$.payload", "$.payload.customer.name", "$.payload.customer.id", "$.payload.customer.tags[1]",
+                        "$.payload.customer.tags[5]", "$.payload.customer.missing", "$.payload.n", "$.payload.n.x",
+                        "$.top[0]", "$.top.x", "$.payload.customer.name.x")
+                .forEach(path -> {
+                    final var nodePath = NodePath.compile(path).orElseThrow();
+                    slots.put(nodePath, builder.add(nodePath));
+                });
+        final var values = builder.build().extract(source);
+        slots.forEach((nodePath, slot) -> {
+            try {
+                final var expected = nodePath.read(source);
+                Assertions.assertEquals(expected, values.get(slot), nodePath.getPath());
+            } catch (PathNotFoundException e) {
+                Assertions.assertThrows(PathNotFoundException.class, () -> values.get(slot), nodePath.getPath());
+            }
+        });
+    }
+
+    @Test
+    @SneakyThrows
+    void testStreamedExtractMatchesTree() {
+        final var mapper = new ObjectMapper();
+        final var content = """
+                {"skip": {"deep": [1, {"x": 2}]}, "payload": {"customer": {"name": "x", "id": 1, "tags": ["a", "b"]},
+                "n": null}, "top": [1, [2, 3]], "s": "t"}
+                """;
+        final var source = mapper.readTree(content);
+        final var builder = PathTrie.builder();
+        final var slots = new LinkedHashMap<NodePath, Integer>();
+        List.of("$.payload.customer.name", "$.payload.customer.tags[1]", "$.payload.customer.tags[-1]",
+                        "$.payload.customer.tags[5]", "$.payload.customer.tags[5].x", "$.payload.customer.missing",
+                        "$.payload.n", "$.payload.n.x", "$.top[1][0]", "$.top[0].x", "$.top.x", "$.s.x", "$.s[0]",
+                        "$.payload.customer")
+                .forEach(path -> {
+                    final var nodePath = NodePath.compile(path).orElseThrow();
+                    slots.put(nodePath, builder.add(nodePath));
+                });
+        final var pathTrie = builder.build();
+        final var expected = pathTrie.extract(source);
+        final var streamed = pathTrie.extract(mapper.createParser(content));
+        slots.forEach((nodePath, slot) -> {
+            try {
+                Assertions.assertEquals(expected.get(slot), streamed.get(slot), nodePath.getPath());
+            } catch (PathNotFoundException e) {
+                Assertions.assertThrows(PathNotFoundException.class, () -> streamed.get(slot), nodePath.getPath());
+            }
+        });
+    }
+}
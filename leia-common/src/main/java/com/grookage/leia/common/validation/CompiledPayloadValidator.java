@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.common.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.grookage.leia.models.attributes.*;
+import com.grookage.leia.models.schema.SchemaValidationType;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+    SchemaPayloadValidator, compiled once per set of attributes. The attributes are turned into a tree of checks up front
+    (enum values, nested attributes, element and map attributes), so that validating a payload is a walk of the payload
+    that allocates nothing and stops at the first violation. The errors of an invalid payload are still reported through
+    SchemaPayloadValidator, which is only ever run on the payloads that have failed. As with converting the payload to
+    the registered class, decimals are taken for floats, and nulls for optional and non-primitive attributes.
+ */
+public class CompiledPayloadValidator {
+
+    private final SchemaValidationType validationType;
+    private final Set<SchemaAttribute> schemaAttributes;
+    private final Check root;
+
+    private CompiledPayloadValidator(SchemaValidationType validationType, Set<SchemaAttribute> schemaAttributes) {
+        this.validationType = validationType;
+        this.schemaAttributes = schemaAttributes;
+        this.root = attributes(validationType, schemaAttributes);
+    }
+
+    public static CompiledPayloadValidator compile(SchemaValidationType validationType,
+                                                   Set<SchemaAttribute> schemaAttributes) {
+        return new CompiledPayloadValidator(validationType, null == schemaAttributes ? Set.of() : schemaAttributes);
+    }
+
+    public boolean valid(JsonNode jsonNode) {
+        return root.valid(jsonNode);
+    }
+
+    public List<String> validate(JsonNode jsonNode) {
+        return valid(jsonNode) ? List.of() : SchemaPayloadValidator.validate(jsonNode, validationType, schemaAttributes);
+    }
+
+    private static Check attributes(SchemaValidationType validationType, Set<SchemaAttribute> schemaAttributes) {
+        final var attributes = schemaAttributes.toArray(new SchemaAttribute[0]);
+        final var fields = new Check[attributes.length];
+        final var names = new HashSet<String>();
+        for (var i = 0; i < attributes.length; i++) {
+            fields[i] = field(validationType, attributes[i], false);
+            names.add(attributes[i].getName());
+        }
+        final var strict = validationType == SchemaValidationType.STRICT;
+        return jsonNode -> {
+            if (strict && !knownFields(jsonNode, names)) {
+                return false;
+            }
+            for (var i = 0; i < attributes.length; i++) {
+                final var fieldName = attributes[i].getName();
+                if (jsonNode.isObject() && !jsonNode.has(fieldName)) {
+                    if (!attributes[i].isOptional()) {
+                        return false;
+                    }
+                    continue;
+                }
+                final var fieldNode = jsonNode.isValueNode() ? jsonNode : jsonNode.get(fieldName);
+                if (!fields[i].valid(fieldNode)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    private static boolean knownFields(JsonNode jsonNode, Set<String> names) {
+        final Iterator<String> fieldNames = jsonNode.fieldNames();
+        while (fieldNames.hasNext()) {
+            if (!names.contains(fieldNames.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+        Elements and map entries are always boxed, so only fields are held as primitives
+     */
+    private static Check field(SchemaValidationType validationType, SchemaAttribute attribute, boolean boxed) {
+        if (null == attribute) {
+            return jsonNode -> false;
+        }
+        final var type = type(attribute);
+        final var nested = nested(validationType, attribute);
+        final var nullable = boxed || attribute.isOptional() || !primitive(attribute);
+        return jsonNode -> null != jsonNode && (jsonNode.isNull()
+                ? nullable
+                : type.valid(jsonNode) && (null == nested || nested.valid(jsonNode)));
+    }
+
+    private static boolean primitive(SchemaAttribute attribute) {
+        return attribute instanceof BooleanAttribute || attribute instanceof CharacterAttribute
+                || attribute instanceof DoubleAttribute || attribute instanceof FloatAttribute
+                || attribute instanceof IntegerAttribute || attribute instanceof LongAttribute
+                || attribute instanceof ShortAttribute;
+    }
+
+    private static Check nested(SchemaValidationType validationType, SchemaAttribute attribute) {
+        if (attribute instanceof ObjectAttribute objectAttribute) {
+            return null == objectAttribute.getNestedAttributes()
+                    ? null : attributes(validationType, objectAttribute.getNestedAttributes());
+        }
+        if (attribute instanceof ArrayAttribute arrayAttribute) {
+            if (null == arrayAttribute.getElementAttribute()) {
+                return null;
+            }
+            final var element = field(validationType, arrayAttribute.getElementAttribute(), true);
+            return jsonNode -> {
+                for (final var each : jsonNode) {
+                    if (!element.valid(each)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        }
+        if (attribute instanceof MapAttribute mapAttribute) {
+            if (null == mapAttribute.getKeyAttribute() && null == mapAttribute.getValueAttribute()) {
+                return null;
+            }
+            final var key = field(validationType, mapAttribute.getKeyAttribute(), true);
+            final var value = field(validationType, mapAttribute.getValueAttribute(), true);
+            return jsonNode -> {
+                final Iterator<Map.Entry<String, JsonNode>> entries = jsonNode.fields();
+                while (entries.hasNext()) {
+                    final var entry = entries.next();
+                    if (!key.valid(TextNode.valueOf(entry.getKey())) || !value.valid(entry.getValue())) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        }
+        return null;
+    }
+
+    private static Check type(SchemaAttribute attribute) {
+        return attribute.accept(new SchemaAttributeAcceptor<>() {
+            @Override
+            public Check accept(BooleanAttribute attribute) {
+                return JsonNode::isBoolean;
+            }
+
+            @Override
+            public Check accept(ByteAttribute attribute) {
+                return JsonNode::isArray;
+            }
+
+            @Override
+            public Check accept(CharacterAttribute attribute) {
+                return jsonNode -> jsonNode.isTextual() && jsonNode.asText().length() == 1;
+            }
+
+            @Override
+            public Check accept(DoubleAttribute attribute) {
+                return JsonNode::isNumber;
+            }
+
+            @Override
+            public Check accept(EnumAttribute attribute) {
+                final var values = null == attribute.getValues() ? Set.<String>of() : Set.copyOf(attribute.getValues());
+                return jsonNode -> jsonNode.isTextual() && values.contains(jsonNode.asText());
+            }
+
+            @Override
+            public Check accept(FloatAttribute attribute) {
+                // Decimals are read as doubles
+                return JsonNode::isNumber;
+            }
+
+            @Override
+            public Check accept(IntegerAttribute attribute) {
+                return JsonNode::isInt;
+            }
+
+            @Override
+            public Check accept(LongAttribute attribute) {
+                return jsonNode -> jsonNode.isLong() || jsonNode.isInt();
+            }
+
+            @Override
+            public Check accept(ShortAttribute attribute) {
+                return jsonNode -> jsonNode.isShort() || jsonNode.isInt();
+            }
+
+            @Override
+            public Check accept(StringAttribute attribute) {
+                return JsonNode::isTextual;
+            }
+
+            @Override
+            public Check accept(DateAttribute attribute) {
+                return jsonNode -> jsonNode.isTextual() || jsonNode.isLong() || jsonNode.isInt();
+            }
+
+            @Override
+            public Check accept(ArrayAttribute attribute) {
+                return JsonNode::isArray;
+            }
+
+            @Override
+            public Check accept(MapAttribute attribute) {
+                return JsonNode::isObject;
+            }
+
+            @Override
+            public Check accept(ObjectAttribute attribute) {
+                // Handling Object.class
+                return null == attribute.getNestedAttributes() ? jsonNode -> true : JsonNode::isObject;
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface Check {
+        boolean valid(JsonNode jsonNode);
+    }
+}
@@ -0,0 +1,112 @@
+package com.grookage.leia.common.validation;
+
+import com.grookage.leia.common.builder.SchemaBuilder;
+import com.grookage.leia.common.stubs.NestedStub;
+import com.grookage.leia.common.stubs.TestObjectStub;
+import com.grookage.leia.common.stubs.TestParameterizedStub;
+import com.grookage.leia.common.stubs.TestRawCollectionStub;
+import com.grookage.leia.models.ResourceHelper;
+import com.grookage.leia.models.attributes.*;
+import com.grookage.leia.models.schema.SchemaValidationType;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+class CompiledPayloadValidatorTest {
+
+    private static final Set<SchemaAttribute> USER_ATTRIBUTES = Set.of(
+            new StringAttribute("name", false, null),
+            new IntegerAttribute("age", true, null),
+            new EnumAttribute("status", true, null, Set.of("ACTIVE", "INACTIVE")),
+            new ArrayAttribute("numbers", true, null, new IntegerAttribute("element", false, null)),
+            new MapAttribute("attributes", true, null,
+                    new StringAttribute("key", false, null), new StringAttribute("value", false, null)),
+            new ObjectAttribute("user", true, null, Set.of(
+                    new IntegerAttribute("id", false, null),
+                    new StringAttribute("username", true, null)))
+    );
+
+    @SneakyThrows
+    private static void assertMatches(String json, SchemaValidationType validationType) {
+        final var jsonNode = ResourceHelper.getObjectMapper().readTree(json);
+        final var expected = SchemaPayloadValidator.validate(jsonNode, validationType, USER_ATTRIBUTES);
+        final var validator = CompiledPayloadValidator.compile(validationType, USER_ATTRIBUTES);
+        Assertions.assertEquals(expected.isEmpty(), validator.valid(jsonNode), json);
+        Assertions.assertEquals(expected, validator.validate(jsonNode), json);
+    }
+
+    @Test
+    void testMatchesPayloadValidator() {
+        List.of("""
+                        {"name": "John", "age": 30, "status": "ACTIVE", "numbers": [1, 2], "attributes": {"a": "b"},
+                        "user": {"id": 1, "username": "john"}}
+                        """,
+                "{\"name\": \"John\"}",
+                "{\"age\": 30}",
+                "{\"name\": \"John\", \"age\": \"thirty\"}",
+                "{\"name\": \"John\", \"status\": \"DELETED\"}",
+                "{\"name\": \"John\", \"numbers\": [1, \"two\"]}",
+                "{\"name\": \"John\", \"attributes\": {\"a\": 100}}",
+                "{\"name\": \"John\", \"user\": {\"username\": \"john\"}}",
+                "{\"name\": \"John\", \"user\": {\"id\": 1, \"extra\": true}}",
+                "{\"name\": \"John\", \"extra\": true}"
+        ).forEach(json -> {
+            assertMatches(json, SchemaValidationType.STRICT);
+            assertMatches(json, SchemaValidationType.MATCHING);
+        });
+    }
+
+    @Test
+    @SneakyThrows
+    void testDecimalsForFloats() {
+        final var attributes = Set.<SchemaAttribute>of(
+                new FloatAttribute("ratio", false, null),
+                new DoubleAttribute("amount", false, null));
+        final var validator = CompiledPayloadValidator.compile(SchemaValidationType.STRICT, attributes);
+        final var mapper = ResourceHelper.getObjectMapper();
+        Assertions.assertTrue(validator.valid(mapper.readTree("{\"ratio\": 0.5, \"amount\": 10.25}")));
+        Assertions.assertTrue(validator.valid(mapper.readTree("{\"ratio\": 1, \"amount\": 10000000000}")));
+        Assertions.assertFalse(validator.valid(mapper.readTree("{\"ratio\": \"0.5\", \"amount\": 1}")));
+    }
+
+    @Test
+    @SneakyThrows
+    void testNulls() {
+        final var validator = CompiledPayloadValidator.compile(SchemaValidationType.STRICT, USER_ATTRIBUTES);
+        final var mapper = ResourceHelper.getObjectMapper();
+        Assertions.assertTrue(validator.valid(mapper.readTree("""
+                {"name": null, "age": null, "status": null, "numbers": [1, null], "attributes": {"a": null},
+                "user": null}
+                """)));
+        Assertions.assertTrue(validator.valid(mapper.readTree("{\"name\": \"John\", \"user\": {\"id\": 1, \"username\": null}}")));
+        Assertions.assertFalse(validator.valid(mapper.readTree("{\"name\": \"John\", \"user\": {\"id\": null}}")));
+        Assertions.assertTrue(validator.validate(mapper.readTree("{\"name\": null}")).isEmpty());
+    }
+
+    @SneakyThrows
+    @Test
+    void testStubs() {
+        List.of(NestedStub.class, TestParameterizedStub.class, TestObjectStub.class, TestRawCollectionStub.class)
+                .forEach(klass -> {
+                    final var schemaAttributes = SchemaBuilder.getSchemaAttributes(klass);
+                    final var validator = CompiledPayloadValidator.compile(SchemaValidationType.STRICT, schemaAttributes);
+                    final var resource = switch (klass.getSimpleName()) {
+                        case "NestedStub" -> "stubs/validNestedStub.json";
+                        case "TestParameterizedStub" -> "stubs/validParameterizedStub.json";
+                        case "TestObjectStub" -> "stubs/validObjectStub.json";
+                        default -> "stubs/validRawCollectionStub.json";
+                    };
+                    final var jsonNode = ResourceHelper.getObjectMapper()
+                            .valueToTree(readResource(resource, klass));
+                    Assertions.assertTrue(validator.valid(jsonNode), klass.getSimpleName());
+                });
+    }
+
+    @SneakyThrows
+    private static Object readResource(String resource, Class<?> klass) {
+        return ResourceHelper.getResource(resource, klass);
+    }
+}
@@ -18,17 +18,27 @@ package com.grookage.leia.http.processor;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.github.rholder.retry.*;
+import com.github.rholder.retry.Retryer;
 import com.google.common.base.Preconditions;
+import com.grookage.leia.http.processor.balancer.EndpointBalancer;
+import com.grookage.leia.http.processor.balancer.EndpointStats;
 import com.grookage.leia.http.processor.config.BackendType;
+import com.grookage.leia.http.processor.config.BalancerConfig;
 import com.grookage.leia.http.processor.config.HttpBackendConfig;
 import com.grookage.leia.http.processor.config.LeiaHttpEndPoint;
+import com.grookage.leia.http.processor.config.RetryConfig;
 import com.grookage.leia.http.processor.exception.LeiaHttpErrorCode;
 import com.grookage.leia.http.processor.request.LeiaHttpEntity;
+import com.grookage.leia.http.processor.response.ItemAckTracker;
+import com.grookage.leia.http.processor.response.LeiaHttpAck;
+import com.grookage.leia.http.processor.retry.BackendResponseException;
+import com.grookage.leia.http.processor.retry.RetryPolicy;
+import com.grookage.leia.http.processor.retry.RetryStats;
 import com.grookage.leia.http.processor.utils.HttpClientUtils;
 import com.grookage.leia.http.processor.utils.HttpRequestUtils;
 import com.grookage.leia.models.exception.LeiaException;
 import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.executor.Deadline;
 import com.grookage.leia.mux.executor.MessageExecutor;
 import com.leansoft.bigqueue.BigQueueImpl;
 import com.leansoft.bigqueue.IBigQueue;
@@ -37,22 +47,34 @@ import lombok.Getter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.hc.client5.http.HttpResponseException;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.fluent.Request;
+import org.apache.hc.core5.concurrent.FutureCallback;
 import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpStatus;
 import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.apache.hc.core5.http.message.BasicHeader;
-import org.apache.hc.core5.net.URIBuilder;
+import org.apache.hc.core5.util.Timeout;
 
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.attribute.PosixFilePermissions;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 
@@ -65,7 +87,9 @@ public abstract class HttpMessageExecutor<T> implements MessageExecutor {
     private final HttpBackendConfig backendConfig;
     private final Supplier<String> authSupplier;
     private final ObjectMapper mapper;
+    private final RetryPolicy retryPolicy;
     private final Retryer<String> retryer;
+    private final EndpointBalancer balancer;
     private QueuedSender queuedSender;
 
     protected HttpMessageExecutor(HttpBackendConfig backendConfig,
@@ -75,13 +99,13 @@ public abstract class HttpMessageExecutor<T> implements MessageExecutor {
         this.backendConfig = backendConfig;
         this.authSupplier = authSupplier;
         this.mapper = mapper;
-        this.retryer = RetryerBuilder.<String>newBuilder()
-                .retryIfExceptionOfType(HttpResponseException.class)
-                .withWaitStrategy(
-                        WaitStrategies.fixedWait(0, TimeUnit.MILLISECONDS))
-                .withStopStrategy(StopStrategies.stopAfterAttempt(backendConfig.getRetryCount()))
-                .withBlockStrategy(BlockStrategies.threadSleepStrategy())
-                .build();
+        this.retryPolicy = new RetryPolicy(backendConfig.getRetryCount(), null == backendConfig.getRetryConfig()
+                ? RetryConfig.builder().build()
+                : backendConfig.getRetryConfig());
+        this.retryer = retryPolicy.retryer(Deadline.none());
+        this.balancer = new EndpointBalancer(null == backendConfig.getBalancerConfig()
+                ? BalancerConfig.builder().build()
+                : backendConfig.getBalancerConfig());
         if (backendConfig.getBackendType() == BackendType.QUEUED) {
             this.queuedSender = new QueuedSender(backendConfig, mapper, messages -> {
                 executeRequest(messages);
@@ -94,58 +118,332 @@ public abstract class HttpMessageExecutor<T> implements MessageExecutor {
 
     public abstract Optional<LeiaHttpEndPoint> getEndPoint(HttpBackendConfig backendConfig);
 
-    @SneakyThrows
+    /*
+        All the instances behind the backend, to be balanced across. Resolved once per send, and the single endPoint of
+        getEndPoint unless overridden
+     */
+    public List<LeiaHttpEndPoint> getEndPoints(HttpBackendConfig backendConfig) {
+        return getEndPoint(backendConfig).map(List::of).orElse(List.of());
+    }
+
+    public Map<String, EndpointStats> getEndpointStats() {
+        return balancer.getStats();
+    }
+
+    public RetryStats getRetryStats() {
+        return retryPolicy.getStats();
+    }
+
     public void executeRequest(List<LeiaMessage> messages) {
+        executeRequest(messages, Deadline.none());
+    }
+
+    /*
+        With a bounded deadline, no attempt is started once it has expired, and every attempt is given what remains of
+        it as its connect and response timeouts. Failed attempts are retried as per the RetryPolicy of the backend, and
+        with itemAcks, only the messages that have failed are.
+     */
+    @SneakyThrows
+    public void executeRequest(List<LeiaMessage> messages, Deadline deadline) {
+        final var tracker = backendConfig.isItemAcks() ? new ItemAckTracker(backendConfig, messages) : null;
         try {
-            retryer.call(() -> {
-                final var leiaHttpEntity = HttpRequestUtils.toHttpEntity(messages, backendConfig);
-                final var requestData =  getRequestData(leiaHttpEntity);
-                final var endPoint = getEndPoint(backendConfig).orElse(null);
-                if (null == endPoint) {
-                    log.debug("No valid end point found for backendConfig {}", backendConfig);
-                    throw LeiaException.error(LeiaHttpErrorCode.INVALID_ENDPOINT);
+            final var endpoints = getBalancer();
+            final var body = null == tracker ? getBody(messages) : null;
+            final var headers = getHeaders();
+            retryPolicy.onSend();
+            getRetryer(deadline).call(() -> {
+                if (deadline.expired()) {
+                    throw new TimeoutException("Deadline expired before sending to the backend " + name);
                 }
-                final var httpUrl = new URIBuilder()
-                        .setScheme(endPoint.isSecure()
-                                ? "https"
-                                : "http")
-                        .setHost(endPoint.getHost())
-                        .setPort(endPoint.getPort() == 0
-                                ? endPoint.defaultPort()
-                                : endPoint.getPort())
-                        .setPath(endPoint.getUri())
-                        .build();
-                var request = Request.post(httpUrl)
-                        .body(new ByteArrayEntity(mapper.writeValueAsBytes(requestData), ContentType.APPLICATION_JSON))
-                        .addHeader("Authorization", authSupplier.get());
-                if (backendConfig.headersProvided()) {
-                    request = request.setHeaders(backendConfig.getHeaders()
-                            .entrySet().stream().map(each -> new BasicHeader(each.getKey(), each.getValue()))
-                            .toArray(BasicHeader[]::new));
+                final var payload = null == tracker ? body : getBody(tracker.getPending());
+                final var selection = endpoints.choose(); //Once the body is built, so that it's always released
+                var request = Request.post(selection.getUri())
+                        .body(new ByteArrayEntity(payload, ContentType.APPLICATION_JSON))
+                        .setHeaders(headers);
+                if (deadline.bounded()) {
+                    final var timeout = Timeout.ofMilliseconds(Math.max(1, deadline.remainingMs()));
+                    request = request.connectTimeout(timeout).responseTimeout(timeout);
                 }
-                final var response = HttpClientUtils.getExecutor().execute(request).handleResponse(httpResponse -> {
-                    final var code = httpResponse.getCode();
-                    if (code >= HttpStatus.SC_REDIRECTION) {
-                        throw new HttpResponseException(code, httpResponse.getReasonPhrase());
-                    }
-                    final var responseEntity = httpResponse.getEntity();
-                    return null == responseEntity ? null : EntityUtils.toString(responseEntity);
-                });
+                final String response;
+                try {
+                    response = HttpClientUtils.getExecutor(backendConfig).execute(request).handleResponse(httpResponse -> {
+                        final var code = httpResponse.getCode();
+                        if (code >= HttpStatus.SC_REDIRECTION) {
+                            throw new BackendResponseException(code, httpResponse.getReasonPhrase(),
+                                    RetryPolicy.retryAfterMs(httpResponse));
+                        }
+                        final var responseEntity = httpResponse.getEntity();
+                        return null == responseEntity ? null : EntityUtils.toString(responseEntity);
+                    });
+                } catch (Exception e) {
+                    selection.release(!endpointFailure(e));
+                    throw e;
+                }
+                selection.release(true);
                 log.debug("Call to backend with backendConfig {} was successful and returned response {}", backendConfig, response);
+                if (null != tracker) {
+                    acknowledge(tracker, response);
+                }
                 return response;
             });
         } catch (Exception e) {
             log.error("Sending to the backend {} has failed with exception {}", backendConfig, e.getMessage());
+            if (null != tracker) {
+                tracker.exhausted();
+                throw tracker.error(e);
+            }
             throw LeiaException.error(LeiaHttpErrorCode.EVENT_SEND_FAILED, e);
         }
+        if (null != tracker && tracker.hasFailed()) {
+            throw tracker.error(null);
+        }
+    }
+
+    /*
+        Fails the attempt on the status of the messages to be retried, when the backend has failed some of them with a
+        retryable status
+     */
+    private void acknowledge(ItemAckTracker tracker, String response) throws BackendResponseException {
+        LeiaHttpAck ack = null;
+        if (null != response && !response.isBlank()) {
+            try {
+                ack = mapper.readValue(response, LeiaHttpAck.class);
+            } catch (Exception e) {
+                log.warn("Couldn't read the acks of backend {}, taking every message as sent: {}", name, e.getMessage());
+            }
+        }
+        final var retryStatus = tracker.acknowledge(ack, retryPolicy::retryableStatus);
+        if (retryStatus > 0) {
+            throw new BackendResponseException(retryStatus, "Messages failed: " + tracker.getPending().size(), -1);
+        }
+    }
+
+    @SneakyThrows
+    private byte[] getBody(List<LeiaMessage> messages) {
+        return mapper.writeValueAsBytes(getRequestData(HttpRequestUtils.toHttpEntity(messages, backendConfig)));
+    }
+
+    private EndpointBalancer getBalancer() {
+        final var endPoints = getEndPoints(backendConfig);
+        if (null == endPoints || endPoints.isEmpty()) {
+            log.debug("No valid end point found for backendConfig {}", backendConfig);
+            throw LeiaException.error(LeiaHttpErrorCode.INVALID_ENDPOINT);
+        }
+        balancer.update(endPoints);
+        return balancer;
+    }
+
+    /*
+        Client errors are down to the request, and not held against the endpoint
+     */
+    private static boolean endpointFailure(Exception e) {
+        return !(e instanceof HttpResponseException responseException)
+                || responseException.getStatusCode() >= HttpStatus.SC_SERVER_ERROR;
+    }
+
+    /*
+        The configured headers of the backend when there are any, the Authorization header of the authSupplier otherwise
+     */
+    private Header[] getHeaders() {
+        if (backendConfig.headersProvided()) {
+            return backendConfig.getHeaders()
+                    .entrySet().stream().map(each -> new BasicHeader(each.getKey(), each.getValue()))
+                    .toArray(BasicHeader[]::new);
+        }
+        return new Header[]{new BasicHeader("Authorization", authSupplier.get())};
+    }
+
+    /*
+        Sends over the async client of the backend, without holding on to a thread while the request is in flight.
+        Failed attempts are retried as per the RetryPolicy of the backend, within the deadline, and completing the
+        returned future before the send does cancels the request in flight.
+     */
+    public CompletableFuture<Void> executeRequestAsync(List<LeiaMessage> messages, Deadline deadline) {
+        final var future = new CompletableFuture<Void>();
+        final var tracker = backendConfig.isItemAcks() ? new ItemAckTracker(backendConfig, messages) : null;
+        final EndpointBalancer endpoints;
+        final byte[] body;
+        final Header[] headers;
+        try {
+            endpoints = getBalancer();
+            body = null == tracker ? getBody(messages) : null;
+            headers = getHeaders();
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        retryPolicy.onSend();
+        attempt(endpoints, tracker, body, headers, 1, deadline, future);
+        return future;
+    }
+
+    private void attempt(EndpointBalancer endpoints,
+                         ItemAckTracker tracker,
+                         byte[] body,
+                         Header[] headers,
+                         int attemptNumber,
+                         Deadline deadline,
+                         CompletableFuture<Void> future) {
+        if (future.isDone()) {
+            return;
+        }
+        if (deadline.expired()) {
+            fail(tracker, future, new TimeoutException("Deadline expired before sending to the backend " + name));
+            return;
+        }
+        final byte[] payload;
+        try {
+            payload = null == tracker ? body : getBody(tracker.getPending());
+        } catch (Exception e) { //getBody throws the checked exceptions of the mapper as they are
+            fail(tracker, future, e);
+            return;
+        }
+        /*
+            The endpoint is chosen once the body is built, and abandoned when the request can't be started, so that
+            a send that never reaches it doesn't count as outstanding on it
+         */
+        final var selection = endpoints.choose();
+        final Future<SimpleHttpResponse> exchange;
+        try {
+            final var request = SimpleRequestBuilder.post(selection.getUri())
+                    .setBody(payload, ContentType.APPLICATION_JSON)
+                    .setHeaders(headers)
+                    .build();
+            if (deadline.bounded()) {
+                final var timeout = Timeout.ofMilliseconds(Math.max(1, deadline.remainingMs()));
+                request.setConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(timeout)
+                        .setResponseTimeout(timeout)
+                        .build());
+            }
+            exchange = HttpClientUtils.getAsyncClient(backendConfig).execute(request, new FutureCallback<>() {
+                /*
+                    Runs on an I/O thread of the client, where an exception would be lost and leave the future pending
+                 */
+                @Override
+                public void completed(SimpleHttpResponse response) {
+                    try {
+                        onResponse(response);
+                    } catch (Exception e) {
+                        fail(tracker, future, e);
+                    }
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    try {
+                        selection.release(false);
+                        retry(e);
+                    } catch (Exception failure) {
+                        fail(tracker, future, failure);
+                    }
+                }
+
+                @Override
+                public void cancelled() {
+                    selection.abandon();
+                    future.cancel(false);
+                }
+
+                private void onResponse(SimpleHttpResponse response) {
+                    final var code = response.getCode();
+                    selection.release(code < HttpStatus.SC_SERVER_ERROR);
+                    if (code < HttpStatus.SC_REDIRECTION) {
+                        log.debug("Call to backend with backendConfig {} was successful and returned response {}",
+                                backendConfig, response.getBodyText());
+                        if (null == tracker) {
+                            future.complete(null);
+                            return;
+                        }
+                        try {
+                            acknowledge(tracker, response.getBodyText());
+                        } catch (BackendResponseException e) {
+                            retry(e);
+                            return;
+                        }
+                        if (tracker.hasFailed()) {
+                            future.completeExceptionally(tracker.error(null));
+                        } else {
+                            future.complete(null);
+                        }
+                        return;
+                    }
+                    retry(new BackendResponseException(code, response.getReasonPhrase(), RetryPolicy.retryAfterMs(response)));
+                }
+
+                /*
+                    The next attempt is started off the I/O thread, on the retry scheduler, even when there's no backoff
+                 */
+                private void retry(Exception e) {
+                    if (!retryPolicy.retryable(e) || !retryPolicy.shouldRetry(attemptNumber, deadline)) {
+                        fail(tracker, future, e);
+                        return;
+                    }
+                    final var backoffMs = retryPolicy.backoffMs(attemptNumber, e, deadline);
+                    HttpClientUtils.getRetryScheduler().schedule(() -> {
+                        try {
+                            attempt(endpoints, tracker, body, headers, attemptNumber + 1, deadline, future);
+                        } catch (Exception failure) {
+                            fail(tracker, future, failure);
+                        }
+                    }, Math.max(0, backoffMs), TimeUnit.MILLISECONDS);
+                }
+            });
+        } catch (RuntimeException e) {
+            selection.abandon();
+            fail(tracker, future, e);
+            return;
+        }
+        future.whenComplete((ignored, error) -> {
+            if (null != error) {
+                exchange.cancel(true);
+            }
+        });
+    }
+
+    private void fail(ItemAckTracker tracker, CompletableFuture<Void> future, Exception e) {
+        log.error("Sending to the backend {} has failed with exception {}", backendConfig, e.getMessage());
+        if (null == tracker) {
+            future.completeExceptionally(LeiaException.error(LeiaHttpErrorCode.EVENT_SEND_FAILED, e));
+            return;
+        }
+        tracker.exhausted();
+        future.completeExceptionally(tracker.error(e));
+    }
+
+    private Retryer<String> getRetryer(Deadline deadline) {
+        if (!deadline.bounded()) {
+            return retryer;
+        }
+        return retryPolicy.retryer(deadline);
     }
 
     public void send(List<LeiaMessage> messages) {
+        send(messages, Deadline.none());
+    }
+
+    /*
+        Queued sends only enqueue the messages, and are flushed later without a deadline
+     */
+    @Override
+    public void send(List<LeiaMessage> messages, Deadline deadline) {
         final var backendType = backendConfig.getBackendType();
         backendType.apply(new BackendType.BackendTypeVisitor() {
             @Override
             public void sync() {
-                executeRequest(messages);
+                executeRequest(messages, deadline);
+            }
+
+            @Override
+            public void async() {
+                try {
+                    executeRequestAsync(messages, deadline).join();
+                } catch (CompletionException e) {
+                    if (e.getCause() instanceof RuntimeException runtimeException) {
+                        throw runtimeException;
+                    }
+                    throw e;
+                }
             }
 
             @Override
@@ -156,6 +454,17 @@ public abstract class HttpMessageExecutor<T> implements MessageExecutor {
         });
     }
 
+    /*
+        ASYNC backends complete the stage off the I/O threads of the async client, and leave the executor alone
+     */
+    @Override
+    public CompletionStage<Void> sendAsync(List<LeiaMessage> messages, Executor executor, Deadline deadline) {
+        if (backendConfig.getBackendType() == BackendType.ASYNC) {
+            return executeRequestAsync(messages, deadline);
+        }
+        return MessageExecutor.super.sendAsync(messages, executor, deadline);
+    }
+
     public static class QueuedSender {
         private final IBigQueue messageQueue;
         private final ObjectMapper mapper;
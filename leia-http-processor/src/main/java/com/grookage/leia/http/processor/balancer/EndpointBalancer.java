@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.grookage.leia.http.processor.balancer;
+
+import com.grookage.leia.http.processor.config.BalancerConfig;
+import com.grookage.leia.http.processor.config.LeiaHttpEndPoint;
+import com.grookage.leia.http.processor.exception.LeiaHttpErrorCode;
+import com.grookage.leia.models.exception.LeiaException;
+import lombok.Getter;
+import lombok.SneakyThrows;
+import org.apache.hc.core5.net.URIBuilder;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/*
+    Client side balancing across the endpoints of a backend, by the power of two choices: of two endpoints picked at
+    random, the one with the fewer requests outstanding (and then the fewer failures in a row, and the lower latency) is
+    sent to. Endpoints that fail consecutiveFailures times in a row are ejected for a while, and the URI of every
+    endpoint is built once. An endpoint is picked for every attempt of a send, so that a retry, with the failure held
+    against the endpoint that failed, tends to go to another one.
+ */
+public class EndpointBalancer {
+
+    private static final double AVERAGE_WEIGHT = 0.1;
+
+    private final BalancerConfig config;
+    private final LongSupplier nanoClock;
+    private volatile List<LeiaHttpEndPoint> resolved = List.of();
+    private volatile Endpoint[] endpoints = new Endpoint[0];
+
+    public EndpointBalancer(BalancerConfig config) {
+        this(config, System::nanoTime);
+    }
+
+    EndpointBalancer(BalancerConfig config, LongSupplier nanoClock) {
+        this.config = config;
+        this.nanoClock = nanoClock;
+    }
+
+    /*
+        Endpoints that are still around keep their outstanding requests and stats across updates
+     */
+    public void update(List<LeiaHttpEndPoint> endPoints) {
+        if (resolved.equals(endPoints)) {
+            return;
+        }
+        synchronized (this) {
+            if (resolved.equals(endPoints)) {
+                return;
+            }
+            final var existing = new HashMap<LeiaHttpEndPoint, Endpoint>();
+            for (final var endpoint : endpoints) {
+                existing.put(endpoint.endPoint, endpoint);
+            }
+            final var updated = new ArrayList<Endpoint>();
+            for (final var endPoint : endPoints) {
+                updated.add(existing.containsKey(endPoint) ? existing.get(endPoint) : new Endpoint(endPoint));
+            }
+            endpoints = updated.toArray(new Endpoint[0]);
+            resolved = List.copyOf(endPoints);
+        }
+    }
+
+    public Selection choose() {
+        final var current = endpoints;
+        if (current.length == 0) {
+            throw LeiaException.error(LeiaHttpErrorCode.INVALID_ENDPOINT);
+        }
+        if (current.length == 1) {
+            return current[0].acquire();
+        }
+        final var now = nanoClock.getAsLong();
+        final var random = ThreadLocalRandom.current();
+        final var first = random.nextInt(current.length);
+        final var second = (first + 1 + random.nextInt(current.length - 1)) % current.length;
+        final var a = current[first];
+        final var b = current[second];
+        final var aEjected = a.ejected(now);
+        final var bEjected = b.ejected(now);
+        if (aEjected && bEjected) {
+            return leastOutstanding(current, now).acquire();
+        }
+        if (aEjected || bEjected) {
+            return (aEjected ? b : a).acquire();
+        }
+        return (better(a, b) ? a : b).acquire();
+    }
+
+    private static boolean better(Endpoint a, Endpoint b) {
+        final var outstanding = Integer.compare(a.outstanding.get(), b.outstanding.get());
+        if (outstanding != 0) {
+            return outstanding < 0;
+        }
+        final var failing = Integer.compare(a.consecutiveFailures(), b.consecutiveFailures());
+        return failing != 0 ? failing < 0 : a.latencyMs() <= b.latencyMs();
+    }
+
+    /*
+        When every endpoint is ejected, they are all sent to rather than none
+     */
+    private static Endpoint leastOutstanding(Endpoint[] current, long now) {
+        Endpoint chosen = null;
+        Endpoint fallback = null;
+        for (final var endpoint : current) {
+            if (!endpoint.ejected(now) && (null == chosen || better(endpoint, chosen))) {
+                chosen = endpoint;
+            }
+            if (null == fallback || better(endpoint, fallback)) {
+                fallback = endpoint;
+            }
+        }
+        return null == chosen ? fallback : chosen;
+    }
+
+    private void record(Endpoint endpoint, boolean succeeded, long latencyNanos) {
+        final var now = nanoClock.getAsLong();
+        if (endpoint.record(succeeded, latencyNanos) >= config.getConsecutiveFailures()) {
+            eject(endpoint, now);
+        }
+    }
+
+    private synchronized void eject(Endpoint endpoint, long now) {
+        final var current = endpoints;
+        if (current.length < 2 || endpoint.ejected(now)) {
+            return;
+        }
+        var ejected = 0;
+        for (final var each : current) {
+            if (each.ejected(now)) {
+                ejected++;
+            }
+        }
+        if (ejected < Math.max(1, current.length * config.getMaxEjectionPercent() / 100)) {
+            endpoint.eject(now + TimeUnit.MILLISECONDS.toNanos(config.getEjectionMs()));
+        }
+    }
+
+    public Map<String, EndpointStats> getStats() {
+        final var stats = new TreeMap<String, EndpointStats>();
+        final var now = nanoClock.getAsLong();
+        for (final var endpoint : endpoints) {
+            stats.put(endpoint.uri.toString(), endpoint.getStats(now));
+        }
+        return stats;
+    }
+
+    @SneakyThrows
+    private static URI toUri(LeiaHttpEndPoint endPoint) {
+        return new URIBuilder()
+                .setScheme(endPoint.isSecure()
+                        ? "https"
+                        : "http")
+                .setHost(endPoint.getHost())
+                .setPort(endPoint.getPort() == 0
+                        ? endPoint.defaultPort()
+                        : endPoint.getPort())
+                .setPath(endPoint.getUri())
+                .build();
+    }
+
+    /*
+        An endpoint picked for a request, to be released exactly once when the request is done
+     */
+    public final class Selection {
+        private final Endpoint endpoint;
+        private final long startNanos;
+        @Getter
+        private final URI uri;
+
+        private Selection(Endpoint endpoint) {
+            this.endpoint = endpoint;
+            this.uri = endpoint.uri;
+            this.startNanos = nanoClock.getAsLong();
+        }
+
+        public void release(boolean succeeded) {
+            endpoint.outstanding.decrementAndGet();
+            record(endpoint, succeeded, nanoClock.getAsLong() - startNanos);
+        }
+
+        /*
+            For requests that were cancelled, and say nothing about the endpoint
+         */
+        public void abandon() {
+            endpoint.outstanding.decrementAndGet();
+        }
+    }
+
+    private final class Endpoint {
+        private final LeiaHttpEndPoint endPoint;
+        private final URI uri;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private long requests;
+        private long failures;
+        private int consecutiveFailures;
+        private double latencyMs;
+        private long ejectedUntilNanos;
+        private boolean ejected;
+
+        private Endpoint(LeiaHttpEndPoint endPoint) {
+            this.endPoint = endPoint;
+            this.uri = toUri(endPoint);
+        }
+
+        private Selection acquire() {
+            outstanding.incrementAndGet();
+            return new Selection(this);
+        }
+
+        /*
+            Returns the failures in a row, after this one
+         */
+        private synchronized int record(boolean succeeded, long latencyNanos) {
+            requests++;
+            final var latency = latencyNanos / 1_000_000.0;
+            latencyMs = 1 == requests ? latency : latencyMs + AVERAGE_WEIGHT * (latency - latencyMs);
+            if (succeeded) {
+                consecutiveFailures = 0;
+                return 0;
+            }
+            failures++;
+            return ++consecutiveFailures;
+        }
+
+        private synchronized int consecutiveFailures() {
+            return consecutiveFailures;
+        }
+
+        private synchronized double latencyMs() {
+            return latencyMs;
+        }
+
+        private synchronized boolean ejected(long now) {
+            return ejected && now - ejectedUntilNanos < 0;
+        }
+
+        /*
+            An endpoint back from ejection gets consecutiveFailures more requests before it can be ejected again
+         */
+        private synchronized void eject(long untilNanos) {
+            ejected = true;
+            ejectedUntilNanos = untilNanos;
+            consecutiveFailures = 0;
+        }
+
+        private synchronized EndpointStats getStats(long now) {
+            return EndpointStats.builder()
+                    .outstanding(outstanding.get())
+                    .requests(requests)
+                    .failures(failures)
+                    .latencyMs(latencyMs)
+                    .ejected(ejected(now))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.grookage.leia.http.processor.client;
+
+import com.grookage.leia.http.processor.config.HttpClientConfig;
+import com.grookage.leia.http.processor.utils.HttpClientUtils;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.fluent.Executor;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolStats;
+
+import java.io.Closeable;
+
+/*
+    The pooled clients of a single backend, so that a chatty backend only ever exhausts its own connections. The async
+    client is started on first use, so that only the ASYNC backends run an I/O reactor
+ */
+@Slf4j
+public class BackendHttpClient implements Closeable {
+
+    @Getter
+    private final String backendName;
+    @Getter
+    private final HttpClientConfig clientConfig;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    @Getter
+    private final Executor executor;
+    private PoolingAsyncClientConnectionManager asyncConnectionManager;
+    private CloseableHttpAsyncClient asyncClient;
+    private boolean closed;
+
+    public BackendHttpClient(String backendName, HttpClientConfig clientConfig) {
+        this.backendName = backendName;
+        this.clientConfig = clientConfig;
+        this.connectionManager = HttpClientUtils.getConnectionManager(clientConfig);
+        this.httpClient = HttpClientUtils.getCloseableClient(clientConfig, connectionManager);
+        this.executor = Executor.newInstance(httpClient);
+    }
+
+    public synchronized CloseableHttpAsyncClient getAsyncClient() {
+        if (closed) {
+            throw new IllegalStateException("The clients of the backend " + backendName + " have been closed");
+        }
+        if (null == asyncClient) {
+            asyncConnectionManager = HttpClientUtils.getAsyncConnectionManager(clientConfig);
+            asyncClient = HttpClientUtils.getCloseableAsyncClient(clientConfig, asyncConnectionManager);
+            asyncClient.start();
+        }
+        return asyncClient;
+    }
+
+    public HttpPoolStats getStats() {
+        final var stats = connectionManager.getTotalStats();
+        final var asyncStats = getAsyncStats();
+        return HttpPoolStats.builder()
+                .leased(stats.getLeased() + (null == asyncStats ? 0 : asyncStats.getLeased()))
+                .pending(stats.getPending() + (null == asyncStats ? 0 : asyncStats.getPending()))
+                .available(stats.getAvailable() + (null == asyncStats ? 0 : asyncStats.getAvailable()))
+                .max(stats.getMax() + (null == asyncStats ? 0 : asyncStats.getMax()))
+                .build();
+    }
+
+    private synchronized PoolStats getAsyncStats() {
+        return null == asyncConnectionManager ? null : asyncConnectionManager.getTotalStats();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        log.info("Closing the http clients of the backend {}", backendName);
+        httpClient.close(CloseMode.GRACEFUL);
+        if (null != asyncClient) {
+            asyncClient.close(CloseMode.GRACEFUL);
+        }
+    }
+}
@@ -28,6 +28,12 @@ public enum BackendType {
         public void apply(BackendTypeVisitor visitor) {
             visitor.queued();
         }
+    },
+
+    ASYNC {
+        public void apply(BackendTypeVisitor visitor) {
+            visitor.async();
+        }
     };
 
     public abstract void apply(BackendTypeVisitor var1);
@@ -36,5 +42,9 @@ public enum BackendType {
         void sync();
 
         void queued();
+
+        default void async() {
+            sync();
+        }
     }
 }
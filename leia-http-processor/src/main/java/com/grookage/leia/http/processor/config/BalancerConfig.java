@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.grookage.leia.http.processor.config;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+
+/*
+    An endpoint of a backend is ejected for ejectionMs once consecutiveFailures of its requests in a row have failed, with
+    no more than maxEjectionPercent of the endpoints ejected at a time (and at least one, when there are several).
+ */
+@Data
+@Builder
+@Jacksonized
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BalancerConfig {
+    @Min(1)
+    @Builder.Default
+    int consecutiveFailures = 5;
+    @Min(0)
+    @Builder.Default
+    long ejectionMs = 30_000;
+    @Min(0)
+    @Max(100)
+    @Builder.Default
+    int maxEjectionPercent = 50;
+}
@@ -51,6 +51,13 @@ public class HttpBackendConfig {
     int queueThreshold = 5;
     @Builder.Default
     Map<String, String> headers = new HashMap<>();
+    HttpPoolConfig poolConfig;
+    BalancerConfig balancerConfig;
+    RetryConfig retryConfig;
+    /*
+        The backend acknowledges every message of a batch in its response, as a LeiaHttpAck
+     */
+    boolean itemAcks;
 
     @JsonIgnore
     public boolean headersProvided() {
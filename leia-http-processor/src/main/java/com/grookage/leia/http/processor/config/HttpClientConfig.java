@@ -25,9 +25,10 @@ import lombok.extern.jackson.Jacksonized;
 import javax.validation.constraints.NotEmpty;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
 @Value
-@Builder
+@Builder(toBuilder = true)
 @Jacksonized
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class HttpClientConfig {
@@ -48,9 +49,21 @@ public class HttpClientConfig {
     long ttlMs = 60000;
     @Builder.Default
     long idleConnEvictMs = 60000;
+    /*
+        0 keeps idle connections for as long as the backend asks for, through its Keep-Alive header
+     */
+    @Builder.Default
+    long keepAliveMs = 0;
     @Builder.Default
     boolean failOnUnavailableBackend = true;
     long messageProcessingThresholdMs = 10_000L;
+    /*
+        For the async client of the ASYNC backends. ioThreads of 0 leaves it to the number of processors
+     */
+    @Builder.Default
+    int ioThreads = 0;
+    @Builder.Default
+    HttpVersion httpVersion = HttpVersion.NEGOTIATE;
     @NotEmpty
     List<HttpBackendConfig> backendConfigs;
 
@@ -61,4 +74,25 @@ public class HttpClientConfig {
                 .map(each -> each.getBackendName().toUpperCase(Locale.ROOT)).toList();
     }
 
+    /*
+        This config, with the pool settings overridden by the poolConfig of the backend
+     */
+    public HttpClientConfig forBackend(HttpBackendConfig backendConfig) {
+        final var poolConfig = backendConfig.getPoolConfig();
+        if (null == poolConfig) {
+            return this;
+        }
+        return toBuilder()
+                .maxConnPerRoute(Objects.requireNonNullElse(poolConfig.getMaxConnPerRoute(), maxConnPerRoute))
+                .maxConnTotal(Objects.requireNonNullElse(poolConfig.getMaxConnTotal(), maxConnTotal))
+                .operationTimeout(Objects.requireNonNullElse(poolConfig.getOperationTimeout(), operationTimeout))
+                .connectionTimeoutMs(Objects.requireNonNullElse(poolConfig.getConnectionTimeoutMs(), connectionTimeoutMs))
+                .validateAfterInactivityMs(Objects.requireNonNullElse(poolConfig.getValidateAfterInactivityMs(),
+                        validateAfterInactivityMs))
+                .ttlMs(Objects.requireNonNullElse(poolConfig.getTtlMs(), ttlMs))
+                .idleConnEvictMs(Objects.requireNonNullElse(poolConfig.getIdleConnEvictMs(), idleConnEvictMs))
+                .keepAliveMs(Objects.requireNonNullElse(poolConfig.getKeepAliveMs(), keepAliveMs))
+                .build();
+    }
+
 }
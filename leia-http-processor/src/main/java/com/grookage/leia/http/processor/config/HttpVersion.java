@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.grookage.leia.http.processor.config;
+
+/*
+    The protocol the async client speaks to the backends. NEGOTIATE multiplexes over HTTP/2 where the backend offers it
+    through ALPN, and falls back to HTTP/1.1 otherwise. HTTP_2 assumes it even over plain text connections (h2c).
+ */
+public enum HttpVersion {
+    NEGOTIATE,
+    HTTP_2,
+    HTTP_1
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.grookage.leia.http.processor.config;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+import java.util.Set;
+
+/*
+    Failed attempts are retried, up to the retryCount of the backend, only on the retryableStatuses and (with
+    retryOnIoErrors) on I/O errors, after an exponential backoff from initialBackoffMs up to maxBackoffMs, with full
+    jitter, or after the Retry-After of the response when there is one. Every send adds budgetRatio to a retry budget of
+    the backend, which also refills by minRetriesPerSecond, and is capped at maxBudget; a retry spends one from it, and
+    is not made once it runs out.
+ */
+@Data
+@Builder
+@Jacksonized
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RetryConfig {
+    @Min(0)
+    @Builder.Default
+    long initialBackoffMs = 100;
+    @Min(0)
+    @Builder.Default
+    long maxBackoffMs = 5_000;
+    @DecimalMin("1.0")
+    @Builder.Default
+    double multiplier = 2.0;
+    @Builder.Default
+    boolean jitter = true;
+    @Builder.Default
+    Set<Integer> retryableStatuses = Set.of(408, 429, 500, 502, 503, 504);
+    @Builder.Default
+    boolean retryOnIoErrors = true;
+    @Builder.Default
+    boolean honourRetryAfter = true;
+    @DecimalMin("0.0")
+    @Builder.Default
+    double budgetRatio = 0.2;
+    @DecimalMin("0.0")
+    @Builder.Default
+    double minRetriesPerSecond = 10;
+    @DecimalMin("1.0")
+    @Builder.Default
+    double maxBudget = 100;
+}
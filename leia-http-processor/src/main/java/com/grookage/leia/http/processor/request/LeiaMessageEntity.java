@@ -41,5 +41,9 @@ public class LeiaMessageEntity {
     @NotNull
     @Valid
     private LeiaMessage messageEnvelope;
+    /*
+        For the backend to acknowledge the entity by, with itemAcks
+     */
+    private String itemId;
 
 }
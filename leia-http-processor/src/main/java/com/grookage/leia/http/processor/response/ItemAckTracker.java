@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.grookage.leia.http.processor.response;
+
+import com.grookage.leia.http.processor.config.HttpBackendConfig;
+import com.grookage.leia.http.processor.exception.LeiaHttpErrorCode;
+import com.grookage.leia.http.processor.utils.HttpRequestUtils;
+import com.grookage.leia.models.exception.LeiaException;
+import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.executor.SendResult;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.core5.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/*
+    The messages of a send to a backend with itemAcks, across its attempts. Every attempt sends only the messages that are
+    still pending, and the ones the backend fails with a retryable status are kept pending for the next one, while the
+    rest of the failures are final. Entities missing from the acks of a response are kept pending as well, rather than
+    taken to have been sent.
+ */
+@Slf4j
+public class ItemAckTracker {
+
+    private static final int UNACKNOWLEDGED = -1;
+
+    private final HttpBackendConfig backendConfig;
+    private final int size;
+    private final List<LeiaMessage> failed = new ArrayList<>();
+    private List<LeiaMessage> pending;
+
+    public ItemAckTracker(HttpBackendConfig backendConfig, List<LeiaMessage> messages) {
+        this.backendConfig = backendConfig;
+        this.size = messages.size();
+        this.pending = messages;
+    }
+
+    public synchronized List<LeiaMessage> getPending() {
+        return pending;
+    }
+
+    /*
+        Reads the acks of a successful response to the pending messages. Returns the status to retry the ones still
+        pending on, and 0 when there are none left
+     */
+    public synchronized int acknowledge(LeiaHttpAck ack, IntPredicate retryable) {
+        if (null == ack || null == ack.getItems() || ack.getItems().isEmpty()) {
+            pending = List.of();
+            return 0;
+        }
+        final var sent = pending;
+        final var statuses = new int[sent.size()];
+        Arrays.fill(statuses, UNACKNOWLEDGED);
+        final var signatures = new String[sent.size()];
+        final var itemIds = new String[sent.size()];
+        final var byItemId = new HashMap<String, List<Integer>>();
+        for (var i = 0; i < sent.size(); i++) {
+            signatures[i] = HttpRequestUtils.getMessageSignature(sent.get(i), backendConfig.getHasher());
+            itemIds[i] = HttpRequestUtils.getItemId(sent.get(i), signatures[i]);
+            byItemId.computeIfAbsent(itemIds[i], key -> new ArrayList<>()).add(i);
+        }
+        for (final var item : ack.getItems()) {
+            if (null == item.getIndex() && byItemId.containsKey(item.getItemId())) {
+                byItemId.get(item.getItemId()).forEach(i -> statuses[i] = item.getStatus());
+            } else if (null != item.getIndex() && item.getIndex() >= 0 && item.getIndex() < sent.size()
+                    && (null == item.getItemId() || item.getItemId().equals(itemIds[item.getIndex()]))
+                    && (null == item.getSignature() || item.getSignature().equals(signatures[item.getIndex()]))) {
+                statuses[item.getIndex()] = item.getStatus();
+            } else {
+                log.warn("Ignoring an ack of backend {} that doesn't match the entities sent: {}",
+                        backendConfig.getBackendName(), item);
+            }
+        }
+        final var retries = new ArrayList<LeiaMessage>();
+        var retryStatus = 0;
+        for (var i = 0; i < sent.size(); i++) {
+            if (statuses[i] == UNACKNOWLEDGED) {
+                retries.add(sent.get(i));
+                retryStatus = 0 == retryStatus ? HttpStatus.SC_SERVICE_UNAVAILABLE : retryStatus;
+                continue;
+            }
+            if (statuses[i] < HttpStatus.SC_REDIRECTION) {
+                continue;
+            }
+            if (retryable.test(statuses[i])) {
+                retries.add(sent.get(i));
+                retryStatus = statuses[i];
+            } else {
+                failed.add(sent.get(i));
+            }
+        }
+        pending = retries;
+        return retryStatus;
+    }
+
+    /*
+        No more attempts are to be made, and the messages still pending have failed
+     */
+    public synchronized void exhausted() {
+        failed.addAll(pending);
+        pending = List.of();
+    }
+
+    public synchronized boolean hasFailed() {
+        return !failed.isEmpty();
+    }
+
+    /*
+        A send where every message has failed fails as it would without itemAcks
+     */
+    public synchronized LeiaException error(Throwable cause) {
+        if (failed.size() >= size) {
+            return LeiaException.error(LeiaHttpErrorCode.EVENT_SEND_FAILED, cause);
+        }
+        return SendResult.partiallyFailed(failed);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.grookage.leia.http.processor.retry;
+
+import com.grookage.leia.http.processor.config.RetryConfig;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/*
+    A token bucket of retries, filled by the live traffic (budgetRatio per send) and by time (minRetriesPerSecond), so
+    that retries stay a fraction of the sends even when every send fails.
+ */
+public class RetryBudget {
+
+    private final RetryConfig config;
+    private final LongSupplier nanoClock;
+    private double balance;
+    private long refilledAtNanos;
+    private long retries;
+    private long exhausted;
+
+    public RetryBudget(RetryConfig config) {
+        this(config, System::nanoTime);
+    }
+
+    RetryBudget(RetryConfig config, LongSupplier nanoClock) {
+        this.config = config;
+        this.nanoClock = nanoClock;
+        this.balance = Math.min(config.getMaxBudget(), config.getMinRetriesPerSecond());
+        this.refilledAtNanos = nanoClock.getAsLong();
+    }
+
+    public synchronized void deposit() {
+        refill();
+        balance = Math.min(config.getMaxBudget(), balance + config.getBudgetRatio());
+    }
+
+    public synchronized boolean tryWithdraw() {
+        refill();
+        if (balance < 1) {
+            exhausted++;
+            return false;
+        }
+        balance--;
+        retries++;
+        return true;
+    }
+
+    private void refill() {
+        final var now = nanoClock.getAsLong();
+        final var elapsedSeconds = (now - refilledAtNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        refilledAtNanos = now;
+        balance = Math.min(config.getMaxBudget(), balance + elapsedSeconds * config.getMinRetriesPerSecond());
+    }
+
+    public synchronized RetryStats getStats() {
+        refill();
+        return RetryStats.builder()
+                .retries(retries)
+                .budgetExhausted(exhausted)
+                .budget(balance)
+                .build();
+    }
+}
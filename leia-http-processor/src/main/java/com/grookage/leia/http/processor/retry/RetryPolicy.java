@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.grookage.leia.http.processor.retry;
+
+import com.github.rholder.retry.Attempt;
+import com.github.rholder.retry.BlockStrategies;
+import com.github.rholder.retry.Retryer;
+import com.github.rholder.retry.RetryerBuilder;
+import com.github.rholder.retry.StopStrategy;
+import com.github.rholder.retry.WaitStrategy;
+import com.grookage.leia.http.processor.config.RetryConfig;
+import com.grookage.leia.mux.executor.Deadline;
+import lombok.Getter;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.apache.hc.client5.http.HttpHostConnectException;
+import org.apache.hc.client5.http.HttpResponseException;
+import org.apache.hc.client5.http.utils.DateUtils;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpResponse;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+    When, and after how long, a failed attempt of a send to a backend is retried, as per its RetryConfig
+ */
+public class RetryPolicy {
+
+    private final int maxAttempts;
+    @Getter
+    private final RetryConfig config;
+    private final RetryBudget budget;
+
+    public RetryPolicy(int maxAttempts, RetryConfig config) {
+        this.maxAttempts = maxAttempts;
+        this.config = config;
+        this.budget = new RetryBudget(config);
+    }
+
+    /*
+        Called once for every send, before its first attempt
+     */
+    public void onSend() {
+        budget.deposit();
+    }
+
+    /*
+        A request that never made it to the endpoint can always be retried, as can the retryable statuses. Other I/O
+        errors are retried only with retryOnIoErrors, as the backend may have got the request
+     */
+    public boolean retryable(Throwable e) {
+        if (e instanceof HttpHostConnectException || e instanceof ConnectTimeoutException) {
+            return true;
+        }
+        if (e instanceof HttpResponseException responseException) {
+            return retryableStatus(responseException.getStatusCode());
+        }
+        return e instanceof IOException && config.isRetryOnIoErrors();
+    }
+
+    public boolean retryableStatus(int status) {
+        return config.getRetryableStatuses().contains(status);
+    }
+
+    /*
+        Spends from the retry budget, when the attempts and the deadline allow for another one
+     */
+    public boolean shouldRetry(long attemptNumber, Deadline deadline) {
+        return attemptNumber < maxAttempts && !deadline.expired() && budget.tryWithdraw();
+    }
+
+    /*
+        The Retry-After of the response when there is one, and an exponential backoff otherwise, within the deadline
+     */
+    public long backoffMs(long attemptNumber, Throwable e, Deadline deadline) {
+        var backoff = -1L;
+        if (config.isHonourRetryAfter() && e instanceof BackendResponseException responseException) {
+            backoff = Math.min(config.getMaxBackoffMs(), responseException.getRetryAfterMs());
+        }
+        if (backoff < 0) {
+            final var exponential = Math.min(config.getMaxBackoffMs(),
+                    config.getInitialBackoffMs() * Math.pow(config.getMultiplier(), attemptNumber - 1.0));
+            backoff = config.isJitter()
+                    ? (long) (ThreadLocalRandom.current().nextDouble() * exponential)
+                    : (long) exponential;
+        }
+        return deadline.bounded() ? Math.max(0, Math.min(backoff, deadline.remainingMs())) : backoff;
+    }
+
+    public RetryStats getStats() {
+        return budget.getStats();
+    }
+
+    public <V> Retryer<V> retryer(Deadline deadline) {
+        return RetryerBuilder.<V>newBuilder()
+                .retryIfException(this::retryable)
+                .withWaitStrategy(new WaitStrategy() {
+                    @Override
+                    public long computeSleepTime(Attempt failedAttempt) {
+                        return backoffMs(failedAttempt.getAttemptNumber(), failedAttempt.getExceptionCause(), deadline);
+                    }
+                })
+                .withStopStrategy(new StopStrategy() {
+                    @Override
+                    public boolean shouldStop(Attempt failedAttempt) {
+                        return !shouldRetry(failedAttempt.getAttemptNumber(), deadline);
+                    }
+                })
+                .withBlockStrategy(BlockStrategies.threadSleepStrategy())
+                .build();
+    }
+
+    /*
+        Retry-After is either a number of seconds or an HTTP date
+     */
+    public static long retryAfterMs(HttpResponse response) {
+        final var header = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+        if (null == header || null == header.getValue()) {
+            return -1;
+        }
+        final var value = header.getValue().trim();
+        try {
+            return Math.max(0, Long.parseLong(value) * 1000);
+        } catch (NumberFormatException e) {
+            final var date = DateUtils.parseStandardDate(value);
+            return null == date ? -1 : Math.max(0, date.toEpochMilli() - Instant.now().toEpochMilli());
+        }
+    }
+}
@@ -1,57 +1,215 @@
 package com.grookage.leia.http.processor.utils;
 
 import com.google.common.base.Preconditions;
+import com.grookage.leia.http.processor.client.BackendHttpClient;
+import com.grookage.leia.http.processor.client.HttpPoolStats;
+import com.grookage.leia.http.processor.config.HttpBackendConfig;
 import com.grookage.leia.http.processor.config.HttpClientConfig;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.ConnectionKeepAliveStrategy;
 import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.fluent.Executor;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
 import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOReactorConfig;
 import org.apache.hc.core5.util.TimeValue;
 
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @UtilityClass
 @Slf4j
 public class HttpClientUtils {
+    static HttpClientConfig clientConfig;
+    static final Map<String, BackendHttpClient> backendClients = new ConcurrentHashMap<>();
+    static CloseableHttpClient sharedClient;
     static Executor executor;
+    static ScheduledExecutorService retryScheduler;
 
-    public static void initialize(final HttpClientConfig httpClientConfig) {
-        executor = Executor.newInstance(getCloseableClient(httpClientConfig));
+    public static synchronized void initialize(final HttpClientConfig httpClientConfig) {
+        shutdown();
+        clientConfig = httpClientConfig;
     }
 
-    public Executor getExecutor() {
-        Preconditions.checkNotNull(executor, "Executor seems to not have been initialized, please call initialize first");
+    /*
+        A client shared by every backend, built on first use and closed on shutdown / re-initialize. Deprecated, since
+        backends are sent to on clients of their own through getExecutor(backendConfig).
+     */
+    @Deprecated
+    public static synchronized Executor getExecutor() {
+        Preconditions.checkNotNull(clientConfig, "Executor seems to not have been initialized, please call initialize first");
+        if (null == executor) {
+            sharedClient = getCloseableClient(clientConfig);
+            executor = Executor.newInstance(sharedClient);
+        }
         return executor;
     }
 
+    public static Executor getExecutor(final HttpBackendConfig backendConfig) {
+        return getBackendClient(backendConfig).getExecutor();
+    }
+
+    public static CloseableHttpAsyncClient getAsyncClient(final HttpBackendConfig backendConfig) {
+        return getBackendClient(backendConfig).getAsyncClient();
+    }
+
+    /*
+        The clients of a backend are built on its first send, with the pool settings of the HttpClientConfig overridden
+        by the poolConfig of the backend. They're built under the same lock as shutdown, so that a client built while
+        shutting down is never left open.
+     */
+    public static BackendHttpClient getBackendClient(final HttpBackendConfig backendConfig) {
+        final var backendName = backendConfig.getBackendName().toUpperCase(Locale.ROOT);
+        final var existing = backendClients.get(backendName);
+        if (null != existing) {
+            return existing;
+        }
+        synchronized (HttpClientUtils.class) {
+            final var config = clientConfig;
+            Preconditions.checkNotNull(config, "Executor seems to not have been initialized, please call initialize first");
+            return backendClients.computeIfAbsent(backendName,
+                    key -> new BackendHttpClient(key, config.forBackend(backendConfig)));
+        }
+    }
+
+    /*
+        Where the retries of async sends wait out their backoff, and are started from, rather than on the common pool or
+        the I/O threads of the clients. Shut down along with the clients, after running the retries already scheduled.
+     */
+    public static synchronized ScheduledExecutorService getRetryScheduler() {
+        if (null == retryScheduler) {
+            retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final var thread = new Thread(runnable, "leia-http-retries");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return retryScheduler;
+    }
+
+    /*
+        Connections leased, pending and available per backend, over its sync and async pools
+     */
+    public static Map<String, HttpPoolStats> getPoolStats() {
+        return backendClients.entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> entry.getValue().getStats()));
+    }
+
+    public static synchronized void shutdown() {
+        backendClients.values().forEach(BackendHttpClient::close);
+        backendClients.clear();
+        if (null != retryScheduler) {
+            retryScheduler.shutdown();
+            retryScheduler = null;
+        }
+        if (null != sharedClient) {
+            sharedClient.close(CloseMode.GRACEFUL);
+            sharedClient = null;
+            executor = null;
+        }
+    }
+
     public static CloseableHttpClient getCloseableClient(final HttpClientConfig clientConfig) {
+        return getCloseableClient(clientConfig, getConnectionManager(clientConfig));
+    }
+
+    public static PoolingHttpClientConnectionManager getConnectionManager(final HttpClientConfig clientConfig) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .useSystemProperties()
+                .setMaxConnPerRoute(clientConfig.getMaxConnPerRoute())
+                .setMaxConnTotal(clientConfig.getMaxConnTotal())
+                .setDefaultSocketConfig(SocketConfig.custom()
+                        .setTcpNoDelay(true)
+                        .setSoTimeout(clientConfig.getOperationTimeout(), TimeUnit.MILLISECONDS)
+                        .build())
+                .setDefaultConnectionConfig(getConnectionConfig(clientConfig))
+                .build();
+    }
+
+    public static CloseableHttpClient getCloseableClient(final HttpClientConfig clientConfig,
+                                                         final PoolingHttpClientConnectionManager connectionManager) {
         return HttpClientBuilder.create()
-                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
-                        .useSystemProperties()
-                        .setMaxConnPerRoute(clientConfig.getMaxConnPerRoute())
-                        .setMaxConnTotal(clientConfig.getMaxConnTotal())
-                        .setDefaultSocketConfig(SocketConfig.custom()
-                                .setTcpNoDelay(true)
-                                .setSoTimeout(clientConfig.getOperationTimeout(), TimeUnit.MILLISECONDS)
-                                .build())
-                        .setDefaultConnectionConfig(ConnectionConfig.custom()
-                                .setConnectTimeout(clientConfig.getConnectionTimeoutMs(), TimeUnit.MILLISECONDS)
-                                .setSocketTimeout(clientConfig.getOperationTimeout(), TimeUnit.MILLISECONDS)
-                                .setValidateAfterInactivity(TimeValue.ofMilliseconds(clientConfig.getValidateAfterInactivityMs()))
-                                .setTimeToLive(clientConfig.getTtlMs(), TimeUnit.MILLISECONDS)
-                                .build())
+                .setConnectionManager(connectionManager)
+                .useSystemProperties()
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(clientConfig.getIdleConnEvictMs()))
+                .setKeepAliveStrategy(getKeepAliveStrategy(clientConfig))
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(clientConfig.getOperationTimeout(), TimeUnit.MILLISECONDS)
+                        .build())
+                .build();
+    }
+
+    public static PoolingAsyncClientConnectionManager getAsyncConnectionManager(final HttpClientConfig clientConfig) {
+        return PoolingAsyncClientConnectionManagerBuilder.create()
+                .useSystemProperties()
+                .setMaxConnPerRoute(clientConfig.getMaxConnPerRoute())
+                .setMaxConnTotal(clientConfig.getMaxConnTotal())
+                .setDefaultConnectionConfig(getConnectionConfig(clientConfig))
+                .build();
+    }
+
+    public static CloseableHttpAsyncClient getCloseableAsyncClient(final HttpClientConfig clientConfig,
+                                                                   final PoolingAsyncClientConnectionManager connectionManager) {
+        return HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setVersionPolicy(switch (clientConfig.getHttpVersion()) {
+                    case HTTP_2 -> HttpVersionPolicy.FORCE_HTTP_2;
+                    case HTTP_1 -> HttpVersionPolicy.FORCE_HTTP_1;
+                    case NEGOTIATE -> HttpVersionPolicy.NEGOTIATE;
+                })
+                .setIOReactorConfig(IOReactorConfig.custom()
+                        .setIoThreadCount(clientConfig.getIoThreads() > 0
+                                ? clientConfig.getIoThreads()
+                                : Runtime.getRuntime().availableProcessors())
+                        .setTcpNoDelay(true)
+                        .setSoTimeout(clientConfig.getOperationTimeout(), TimeUnit.MILLISECONDS)
                         .build())
                 .useSystemProperties()
                 .evictExpiredConnections()
                 .evictIdleConnections(TimeValue.ofMilliseconds(clientConfig.getIdleConnEvictMs()))
+                .setKeepAliveStrategy(getKeepAliveStrategy(clientConfig))
                 .setDefaultRequestConfig(RequestConfig.custom()
                         .setResponseTimeout(clientConfig.getOperationTimeout(), TimeUnit.MILLISECONDS)
                         .build())
                 .build();
     }
+
+    private static ConnectionConfig getConnectionConfig(final HttpClientConfig clientConfig) {
+        return ConnectionConfig.custom()
+                .setConnectTimeout(clientConfig.getConnectionTimeoutMs(), TimeUnit.MILLISECONDS)
+                .setSocketTimeout(clientConfig.getOperationTimeout(), TimeUnit.MILLISECONDS)
+                .setValidateAfterInactivity(TimeValue.ofMilliseconds(clientConfig.getValidateAfterInactivityMs()))
+                .setTimeToLive(clientConfig.getTtlMs(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /*
+        A keepAliveMs caps how long an idle connection is kept, over the Keep-Alive the backend asks for
+     */
+    private static ConnectionKeepAliveStrategy getKeepAliveStrategy(final HttpClientConfig clientConfig) {
+        if (clientConfig.getKeepAliveMs() <= 0) {
+            return DefaultConnectionKeepAliveStrategy.INSTANCE;
+        }
+        final var keepAlive = TimeValue.ofMilliseconds(clientConfig.getKeepAliveMs());
+        return (response, context) -> keepAlive.min(
+                DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context));
+    }
 }
@@ -37,13 +37,26 @@ public class HttpRequestUtils {
                         StandardCharsets.UTF_8).toString();
     }
 
+    /*
+        Identifies the entity of a message in the acks of the backend, as the signature is shared by every message of a
+        schema. Messages with the same content in a batch share it too, and are acknowledged together.
+     */
+    public static String getItemId(LeiaMessage message, String signature) {
+        return Hashing.murmur3_128()
+                .hashString(Joiner.on(".").useForNull("").join(signature, message.getMessage()), StandardCharsets.UTF_8)
+                .toString();
+    }
+
     public static LeiaHttpEntity toHttpEntity(final List<LeiaMessage> messages, final HttpBackendConfig backendConfig) {
         return new LeiaHttpEntity(
                 messages.stream()
-                        .map(each ->
-                                new LeiaMessageEntity(getMessageSignature(each, backendConfig.getHasher()),
-                                        backendConfig.getBackendName(),
-                                        each))
+                        .map(each -> {
+                            final var signature = getMessageSignature(each, backendConfig.getHasher());
+                            return new LeiaMessageEntity(signature,
+                                    backendConfig.getBackendName(),
+                                    each,
+                                    getItemId(each, signature));
+                        })
                         .toList());
     }
 }
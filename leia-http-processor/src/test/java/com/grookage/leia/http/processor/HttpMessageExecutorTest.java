@@ -19,20 +19,31 @@ package com.grookage.leia.http.processor;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
 import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import com.grookage.leia.http.processor.config.BackendType;
 import com.grookage.leia.http.processor.config.HttpBackendConfig;
 import com.grookage.leia.http.processor.config.HttpClientConfig;
 import com.grookage.leia.http.processor.config.LeiaHttpEndPoint;
+import com.grookage.leia.http.processor.config.RetryConfig;
 import com.grookage.leia.http.processor.request.LeiaHttpEntity;
+import com.grookage.leia.http.processor.response.LeiaHttpAck;
+import com.grookage.leia.http.processor.response.LeiaItemAck;
 import com.grookage.leia.http.processor.utils.HttpClientUtils;
 import com.grookage.leia.http.processor.utils.HttpRequestUtils;
 import com.grookage.leia.models.ResourceHelper;
+import com.grookage.leia.models.exception.LeiaException;
 import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.executor.Deadline;
+import com.grookage.leia.mux.executor.SendResult;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.net.ServerSocket;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 
@@ -76,5 +87,226 @@ class HttpMessageExecutorTest {
             }
         };
         testableExecutor.send(messages);
+        final var poolStats = HttpClientUtils.getPoolStats().get("BACKEND1");
+        Assertions.assertNotNull(poolStats);
+        Assertions.assertEquals(0, poolStats.getLeased());
+        Assertions.assertEquals(clientConfig.getMaxConnTotal(), poolStats.getMax());
+    }
+
+    @Test
+    @SneakyThrows
+    void testAsyncMessageSending(WireMockRuntimeInfo wireMockRuntimeInfo) {
+        final var clientConfig = ResourceHelper.getResource("httpClientConfig.json", HttpClientConfig.class);
+        HttpClientUtils.initialize(clientConfig);
+        final var backend = clientConfig.getBackendConfigs().stream().findFirst().orElse(null);
+        Assertions.assertNotNull(backend);
+        final var port = wireMockRuntimeInfo.getHttpPort();
+        backend.setPort(port);
+        backend.setUri("/ingest");
+        backend.setBackendType(BackendType.ASYNC);
+        final var messages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+        });
+        final var entityMessages = HttpRequestUtils.toHttpEntity(messages, backend);
+        stubFor(post(urlEqualTo("/ingest"))
+                .withRequestBody(binaryEqualTo(ResourceHelper.getObjectMapper().writeValueAsBytes(entityMessages)))
+                .willReturn(aResponse()
+                        .withStatus(200)));
+        final var testableExecutor = new HttpMessageExecutor<>(backend, () -> "Bearer 1234", ResourceHelper.getObjectMapper()) {
+            @Override
+            public Object getRequestData(LeiaHttpEntity leiaHttpEntity) {
+                return leiaHttpEntity;
+            }
+
+            @Override
+            public Optional<LeiaHttpEndPoint> getEndPoint(HttpBackendConfig backendConfig) {
+                return Optional.of(LeiaHttpEndPoint.builder()
+                        .host("127.0.0.1")
+                        .port(port)
+                        .secure(backendConfig.isSecure())
+                        .uri(backendConfig.getUri())
+                        .build());
+            }
+        };
+        testableExecutor.sendAsync(messages, Runnable::run, Deadline.after(5_000))
+                .toCompletableFuture()
+                .get(5, TimeUnit.SECONDS);
+        testableExecutor.send(messages);
+        verify(2, postRequestedFor(urlEqualTo("/ingest")));
+
+        stubFor(post(urlEqualTo("/ingest"))
+                .willReturn(aResponse()
+                        .withStatus(500)));
+        final var future = testableExecutor.sendAsync(messages, Runnable::run, Deadline.none())
+                .toCompletableFuture();
+        final var exception = Assertions.assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(LeiaException.class, exception.getCause());
+        verify(2 + backend.getRetryCount(), postRequestedFor(urlEqualTo("/ingest")));
+        Assertions.assertThrows(LeiaException.class, () -> testableExecutor.send(messages));
+        verify(2 + 2 * backend.getRetryCount(), postRequestedFor(urlEqualTo("/ingest")));
+
+        stubFor(post(urlEqualTo("/ingest"))
+                .willReturn(aResponse()
+                        .withStatus(400)));
+        Assertions.assertThrows(ExecutionException.class, () -> testableExecutor.sendAsync(messages, Runnable::run,
+                Deadline.none()).toCompletableFuture().get(5, TimeUnit.SECONDS));
+        verify(3 + 2 * backend.getRetryCount(), postRequestedFor(urlEqualTo("/ingest")));
+        Assertions.assertEquals(2L * (backend.getRetryCount() - 1), testableExecutor.getRetryStats().getRetries());
+    }
+
+    @Test
+    @SneakyThrows
+    void testMultipleEndpoints(WireMockRuntimeInfo wireMockRuntimeInfo) {
+        final var clientConfig = ResourceHelper.getResource("httpClientConfig.json", HttpClientConfig.class);
+        HttpClientUtils.initialize(clientConfig);
+        final var backend = clientConfig.getBackendConfigs().stream().findFirst().orElseThrow();
+        backend.setUri("/ingest");
+        final int deadPort;
+        try (final var socket = new ServerSocket(0)) {
+            deadPort = socket.getLocalPort();
+        }
+        final var messages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+        });
+        stubFor(post(urlEqualTo("/ingest"))
+                .willReturn(aResponse()
+                        .withStatus(200)));
+        final var testableExecutor = new HttpMessageExecutor<>(backend, () -> "Bearer 1234", ResourceHelper.getObjectMapper()) {
+            @Override
+            public Object getRequestData(LeiaHttpEntity leiaHttpEntity) {
+                return leiaHttpEntity;
+            }
+
+            @Override
+            public Optional<LeiaHttpEndPoint> getEndPoint(HttpBackendConfig backendConfig) {
+                return Optional.empty();
+            }
+
+            @Override
+            public List<LeiaHttpEndPoint> getEndPoints(HttpBackendConfig backendConfig) {
+                return List.of(LeiaHttpEndPoint.builder()
+                                .host("127.0.0.1")
+                                .port(wireMockRuntimeInfo.getHttpPort())
+                                .uri(backendConfig.getUri())
+                                .build(),
+                        LeiaHttpEndPoint.builder()
+                                .host("127.0.0.1")
+                                .port(deadPort)
+                                .uri(backendConfig.getUri())
+                                .build());
+            }
+        };
+        for (var i = 0; i < 10; i++) {
+            testableExecutor.send(messages);
+        }
+        verify(10, postRequestedFor(urlEqualTo("/ingest")));
+        final var stats = testableExecutor.getEndpointStats();
+        Assertions.assertEquals(2, stats.size());
+        final var live = stats.get("http://127.0.0.1:" + wireMockRuntimeInfo.getHttpPort() + "/ingest");
+        Assertions.assertEquals(10, live.getRequests());
+        Assertions.assertEquals(0, live.getFailures());
+        final var dead = stats.get("http://127.0.0.1:" + deadPort + "/ingest");
+        Assertions.assertEquals(dead.getRequests(), dead.getFailures());
+        Assertions.assertTrue(dead.getFailures() <= 1);
+    }
+
+    @Test
+    @SneakyThrows
+    void testUnserializableBody(WireMockRuntimeInfo wireMockRuntimeInfo) {
+        final var clientConfig = ResourceHelper.getResource("httpClientConfig.json", HttpClientConfig.class);
+        HttpClientUtils.initialize(clientConfig);
+        final var backend = clientConfig.getBackendConfigs().stream().findFirst().orElseThrow();
+        final var port = wireMockRuntimeInfo.getHttpPort();
+        backend.setPort(port);
+        backend.setUri("/ingest");
+        backend.setItemAcks(true);
+        final var messages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+        });
+        final var testableExecutor = new HttpMessageExecutor<>(backend, () -> "Bearer 1234", ResourceHelper.getObjectMapper()) {
+            @Override
+            public Object getRequestData(LeiaHttpEntity leiaHttpEntity) {
+                throw new IllegalStateException("Can't be serialized");
+            }
+
+            @Override
+            public Optional<LeiaHttpEndPoint> getEndPoint(HttpBackendConfig backendConfig) {
+                return Optional.of(LeiaHttpEndPoint.builder()
+                        .host("127.0.0.1")
+                        .port(port)
+                        .uri(backendConfig.getUri())
+                        .build());
+            }
+        };
+        Assertions.assertThrows(RuntimeException.class, () -> testableExecutor.send(messages));
+        backend.setBackendType(BackendType.ASYNC);
+        final var future = testableExecutor.sendAsync(messages, Runnable::run, Deadline.none()).toCompletableFuture();
+        Assertions.assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(testableExecutor.getEndpointStats().values().stream()
+                .allMatch(stats -> 0 == stats.getOutstanding()));
+        verify(0, postRequestedFor(urlEqualTo("/ingest")));
+    }
+
+    @Test
+    @SneakyThrows
+    void testItemAcks(WireMockRuntimeInfo wireMockRuntimeInfo) {
+        final var clientConfig = ResourceHelper.getResource("httpClientConfig.json", HttpClientConfig.class);
+        HttpClientUtils.initialize(clientConfig);
+        final var backend = clientConfig.getBackendConfigs().stream().findFirst().orElseThrow();
+        final var port = wireMockRuntimeInfo.getHttpPort();
+        backend.setPort(port);
+        backend.setUri("/ingest");
+        backend.setItemAcks(true);
+        backend.setRetryConfig(RetryConfig.builder().initialBackoffMs(0).build());
+        final var message = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+        }).get(0);
+        final var messages = IntStream.range(0, 3)
+                .mapToObj(i -> ResourceHelper.getObjectMapper().convertValue(message, LeiaMessage.class))
+                .toList();
+        final var mapper = ResourceHelper.getObjectMapper();
+        stubFor(post(urlEqualTo("/ingest"))
+                .withRequestBody(binaryEqualTo(mapper.writeValueAsBytes(HttpRequestUtils.toHttpEntity(messages, backend))))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withBody(mapper.writeValueAsString(LeiaHttpAck.builder()
+                                .items(List.of(LeiaItemAck.builder().index(0).status(200).build(),
+                                        LeiaItemAck.builder().index(1).status(503).build(),
+                                        LeiaItemAck.builder().index(2).status(400).error("Invalid").build()))
+                                .build()))));
+        stubFor(post(urlEqualTo("/ingest"))
+                .withRequestBody(binaryEqualTo(mapper.writeValueAsBytes(HttpRequestUtils.toHttpEntity(
+                        List.of(messages.get(1)), backend))))
+                .willReturn(aResponse()
+                        .withStatus(200)));
+        final var testableExecutor = new HttpMessageExecutor<>(backend, () -> "Bearer 1234", mapper) {
+            @Override
+            public Object getRequestData(LeiaHttpEntity leiaHttpEntity) {
+                return leiaHttpEntity;
+            }
+
+            @Override
+            public Optional<LeiaHttpEndPoint> getEndPoint(HttpBackendConfig backendConfig) {
+                return Optional.of(LeiaHttpEndPoint.builder()
+                        .host("127.0.0.1")
+                        .port(port)
+                        .uri(backendConfig.getUri())
+                        .build());
+            }
+        };
+        final var exception = Assertions.assertThrows(LeiaException.class, () -> testableExecutor.send(messages));
+        final var result = SendResult.builder()
+                .messages(messages)
+                .error(exception)
+                .build();
+        Assertions.assertEquals(1, result.getFailedMessages().size());
+        Assertions.assertSame(messages.get(2), result.getFailedMessages().get(0));
+        verify(2, postRequestedFor(urlEqualTo("/ingest")));
+
+        backend.setBackendType(BackendType.ASYNC);
+        final var future = testableExecutor.sendAsync(messages, Runnable::run, Deadline.none()).toCompletableFuture();
+        final var asyncException = Assertions.assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of(messages.get(2)), SendResult.builder()
+                .messages(messages)
+                .error(asyncException.getCause())
+                .build()
+                .getFailedMessages());
+        verify(4, postRequestedFor(urlEqualTo("/ingest")));
     }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.grookage.leia.http.processor.balancer;
+
+import com.grookage.leia.http.processor.config.BalancerConfig;
+import com.grookage.leia.http.processor.config.LeiaHttpEndPoint;
+import com.grookage.leia.models.exception.LeiaException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+class EndpointBalancerTest {
+
+    private static LeiaHttpEndPoint endPoint(int port) {
+        return LeiaHttpEndPoint.builder()
+                .host("127.0.0.1")
+                .port(port)
+                .uri("/ingest")
+                .build();
+    }
+
+    @Test
+    void testNoEndpoints() {
+        final var balancer = new EndpointBalancer(BalancerConfig.builder().build());
+        Assertions.assertThrows(LeiaException.class, balancer::choose);
+    }
+
+    @Test
+    void testLeastOutstanding() {
+        final var balancer = new EndpointBalancer(BalancerConfig.builder().build());
+        balancer.update(List.of(endPoint(8081), endPoint(8082)));
+        final var busy = balancer.choose();
+        IntStream.range(0, 10).forEach(i -> {
+            final var selection = balancer.choose();
+            Assertions.assertNotEquals(busy.getUri(), selection.getUri());
+            selection.release(true);
+        });
+        busy.release(true);
+        final var stats = balancer.getStats();
+        Assertions.assertEquals(2, stats.size());
+        Assertions.assertEquals(11, stats.values().stream().mapToLong(EndpointStats::getRequests).sum());
+        Assertions.assertTrue(stats.values().stream().allMatch(each -> each.getOutstanding() == 0));
+        Assertions.assertEquals("http://127.0.0.1:8081/ingest", stats.keySet().iterator().next());
+    }
+
+    @Test
+    void testOutlierEjection() {
+        final var clock = new AtomicLong();
+        final var balancer = new EndpointBalancer(BalancerConfig.builder()
+                .consecutiveFailures(2)
+                .ejectionMs(1000)
+                .maxEjectionPercent(50)
+                .build(), clock::get);
+        final var endPoints = List.of(endPoint(8081), endPoint(8082), endPoint(8083), endPoint(8084));
+        balancer.update(endPoints);
+        final var failing = new ArrayList<String>();
+        for (var i = 0; i < 100; i++) {
+            final var selection = balancer.choose();
+            final var port = selection.getUri().getPort();
+            selection.release(port != 8083 && port != 8084);
+        }
+        balancer.getStats().forEach((uri, stats) -> {
+            if (stats.isEjected()) {
+                failing.add(uri);
+            }
+        });
+        Assertions.assertEquals(List.of("http://127.0.0.1:8083/ingest", "http://127.0.0.1:8084/ingest"), failing);
+        for (var i = 0; i < 20; i++) {
+            final var selection = balancer.choose();
+            Assertions.assertTrue(selection.getUri().getPort() <= 8082);
+            selection.release(true);
+        }
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        Assertions.assertTrue(balancer.getStats().values().stream().noneMatch(EndpointStats::isEjected));
+    }
+
+    @Test
+    void testEjectionLimit() {
+        final var balancer = new EndpointBalancer(BalancerConfig.builder()
+                .consecutiveFailures(1)
+                .maxEjectionPercent(0)
+                .build());
+        balancer.update(List.of(endPoint(8081), endPoint(8082)));
+        for (var i = 0; i < 10; i++) {
+            balancer.choose().release(false);
+        }
+        Assertions.assertEquals(1, balancer.getStats().values().stream().filter(EndpointStats::isEjected).count());
+        final var selection = balancer.choose();
+        selection.release(false);
+        Assertions.assertEquals(1, balancer.getStats().values().stream().filter(EndpointStats::isEjected).count());
+    }
+
+    @Test
+    void testUpdateKeepsEndpoints() {
+        final var balancer = new EndpointBalancer(BalancerConfig.builder().build());
+        balancer.update(List.of(endPoint(8081)));
+        balancer.choose().release(true);
+        balancer.update(List.of(endPoint(8081), endPoint(8082)));
+        final var stats = balancer.getStats();
+        Assertions.assertEquals(1, stats.get("http://127.0.0.1:8081/ingest").getRequests());
+        Assertions.assertEquals(0, stats.get("http://127.0.0.1:8082/ingest").getRequests());
+        balancer.update(List.of(endPoint(8082)));
+        Assertions.assertEquals(1, balancer.getStats().size());
+    }
+}
@@ -36,5 +36,23 @@ class HttpClientConfigTest {
         Assertions.assertEquals("127.0.0.1", backend.getHost());
         Assertions.assertEquals(8080, backend.getPort());
         Assertions.assertSame(backend.getBackendType(), BackendType.SYNC);
+        Assertions.assertSame(clientConfig, clientConfig.forBackend(backend));
+    }
+
+    @Test
+    @SneakyThrows
+    void testBackendPoolOverrides() {
+        final var clientConfig = ResourceHelper.getResource("httpClientConfig.json", HttpClientConfig.class);
+        final var backend = clientConfig.getBackendConfigs().stream().findFirst().orElseThrow();
+        backend.setPoolConfig(HttpPoolConfig.builder()
+                .maxConnPerRoute(50)
+                .keepAliveMs(5000L)
+                .build());
+        final var backendConfig = clientConfig.forBackend(backend);
+        Assertions.assertEquals(50, backendConfig.getMaxConnPerRoute());
+        Assertions.assertEquals(5000L, backendConfig.getKeepAliveMs());
+        Assertions.assertEquals(clientConfig.getMaxConnTotal(), backendConfig.getMaxConnTotal());
+        Assertions.assertEquals(clientConfig.getTtlMs(), backendConfig.getTtlMs());
+        Assertions.assertEquals(10, clientConfig.getMaxConnPerRoute());
     }
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.http.processor.response;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.grookage.leia.http.processor.config.HttpBackendConfig;
+import com.grookage.leia.http.processor.utils.HttpRequestUtils;
+import com.grookage.leia.models.ResourceHelper;
+import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.executor.SendResult;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+class ItemAckTrackerTest {
+
+    private static final HttpBackendConfig BACKEND_CONFIG = HttpBackendConfig.builder()
+            .backendName("backend1")
+            .host("127.0.0.1")
+            .hasher("@1234$")
+            .itemAcks(true)
+            .build();
+
+    @SneakyThrows
+    private static List<LeiaMessage> messages(int count) {
+        final var message = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+        }).get(0);
+        return IntStream.range(0, count)
+                .mapToObj(i -> {
+                    final var each = ResourceHelper.getObjectMapper().convertValue(message, LeiaMessage.class);
+                    each.setMessage(ResourceHelper.getObjectMapper().valueToTree(List.of(i)));
+                    return each;
+                })
+                .toList();
+    }
+
+    private static String itemId(LeiaMessage message) {
+        return HttpRequestUtils.getItemId(message, HttpRequestUtils.getMessageSignature(message, "@1234$"));
+    }
+
+    @Test
+    void testAcksByItemId() {
+        final var messages = messages(3);
+        final var tracker = new ItemAckTracker(BACKEND_CONFIG, messages);
+        final var retryStatus = tracker.acknowledge(LeiaHttpAck.builder()
+                .items(List.of(LeiaItemAck.builder().itemId(itemId(messages.get(0))).status(200).build(),
+                        LeiaItemAck.builder().itemId(itemId(messages.get(1))).status(503).build(),
+                        LeiaItemAck.builder().itemId(itemId(messages.get(2))).status(400).build()))
+                .build(), status -> status == 503);
+        Assertions.assertEquals(503, retryStatus);
+        Assertions.assertEquals(List.of(messages.get(1)), tracker.getPending());
+        Assertions.assertEquals(List.of(messages.get(2)), SendResult.builder()
+                .messages(messages)
+                .error(tracker.error(null))
+                .build()
+                .getFailedMessages());
+    }
+
+    @Test
+    void testSignatureOnlyAndMissingAcks() {
+        final var messages = messages(3);
+        final var tracker = new ItemAckTracker(BACKEND_CONFIG, messages);
+        final var retryStatus = tracker.acknowledge(LeiaHttpAck.builder()
+                .items(List.of(LeiaItemAck.builder().index(0).status(200).build(),
+                        LeiaItemAck.builder()
+                                .signature(HttpRequestUtils.getMessageSignature(messages.get(1), "@1234$"))
+                                .status(400)
+                                .build()))
+                .build(), status -> status == 503);
+        Assertions.assertTrue(retryStatus > 0);
+        Assertions.assertEquals(messages.subList(1, 3), tracker.getPending());
+        Assertions.assertFalse(tracker.hasFailed());
+        tracker.exhausted();
+        Assertions.assertTrue(tracker.hasFailed());
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.grookage.leia.http.processor.retry;
+
+import com.grookage.leia.http.processor.config.RetryConfig;
+import com.grookage.leia.mux.executor.Deadline;
+import org.apache.hc.client5.http.HttpHostConnectException;
+import org.apache.hc.client5.http.HttpResponseException;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class RetryPolicyTest {
+
+    @Test
+    void testRetryable() {
+        final var policy = new RetryPolicy(3, RetryConfig.builder().retryOnIoErrors(false).build());
+        Assertions.assertTrue(policy.retryable(new HttpResponseException(503, "Unavailable")));
+        Assertions.assertTrue(policy.retryable(new HttpResponseException(429, "Too Many Requests")));
+        Assertions.assertFalse(policy.retryable(new HttpResponseException(400, "Bad Request")));
+        Assertions.assertFalse(policy.retryable(new HttpResponseException(501, "Not Implemented")));
+        Assertions.assertTrue(policy.retryable(new HttpHostConnectException("refused")));
+        Assertions.assertFalse(policy.retryable(new IOException("reset")));
+        Assertions.assertFalse(policy.retryable(new IllegalStateException()));
+        Assertions.assertTrue(new RetryPolicy(3, RetryConfig.builder().build()).retryable(new IOException("reset")));
+    }
+
+    @Test
+    void testBackoff() {
+        final var policy = new RetryPolicy(10, RetryConfig.builder()
+                .initialBackoffMs(100)
+                .maxBackoffMs(1000)
+                .jitter(false)
+                .build());
+        final var error = new HttpResponseException(503, "Unavailable");
+        Assertions.assertEquals(100, policy.backoffMs(1, error, Deadline.none()));
+        Assertions.assertEquals(400, policy.backoffMs(3, error, Deadline.none()));
+        Assertions.assertEquals(1000, policy.backoffMs(8, error, Deadline.none()));
+        Assertions.assertTrue(policy.backoffMs(8, error, Deadline.after(50)) <= 50);
+        Assertions.assertEquals(300, policy.backoffMs(1, new BackendResponseException(503, "Unavailable", 300),
+                Deadline.none()));
+        Assertions.assertEquals(1000, policy.backoffMs(1, new BackendResponseException(503, "Unavailable", 60_000),
+                Deadline.none()));
+
+        final var jittered = new RetryPolicy(10, RetryConfig.builder().initialBackoffMs(100).build());
+        for (var i = 0; i < 20; i++) {
+            final var backoff = jittered.backoffMs(2, error, Deadline.none());
+            Assertions.assertTrue(backoff >= 0 && backoff <= 200);
+        }
+    }
+
+    @Test
+    void testRetryAfter() {
+        final var response = new BasicHttpResponse(503);
+        Assertions.assertEquals(-1, RetryPolicy.retryAfterMs(response));
+        response.setHeader(HttpHeaders.RETRY_AFTER, "2");
+        Assertions.assertEquals(2000, RetryPolicy.retryAfterMs(response));
+        response.setHeader(HttpHeaders.RETRY_AFTER, "Wed, 21 Oct 2015 07:28:00 GMT");
+        Assertions.assertEquals(0, RetryPolicy.retryAfterMs(response));
+        response.setHeader(HttpHeaders.RETRY_AFTER, "soon");
+        Assertions.assertEquals(-1, RetryPolicy.retryAfterMs(response));
+    }
+
+    @Test
+    void testRetryBudget() {
+        final var clock = new AtomicLong();
+        final var budget = new RetryBudget(RetryConfig.builder()
+                .budgetRatio(0.5)
+                .minRetriesPerSecond(1)
+                .build(), clock::get);
+        Assertions.assertTrue(budget.tryWithdraw());
+        Assertions.assertFalse(budget.tryWithdraw());
+        budget.deposit();
+        Assertions.assertFalse(budget.tryWithdraw());
+        budget.deposit();
+        Assertions.assertTrue(budget.tryWithdraw());
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        Assertions.assertTrue(budget.tryWithdraw());
+        Assertions.assertTrue(budget.tryWithdraw());
+        Assertions.assertFalse(budget.tryWithdraw());
+        final var stats = budget.getStats();
+        Assertions.assertEquals(4, stats.getRetries());
+        Assertions.assertEquals(3, stats.getBudgetExhausted());
+    }
+
+    @Test
+    void testAttemptsAndDeadline() {
+        final var policy = new RetryPolicy(2, RetryConfig.builder().build());
+        Assertions.assertTrue(policy.shouldRetry(1, Deadline.none()));
+        Assertions.assertFalse(policy.shouldRetry(2, Deadline.none()));
+        Assertions.assertFalse(policy.shouldRetry(1, Deadline.after(0)));
+    }
+}
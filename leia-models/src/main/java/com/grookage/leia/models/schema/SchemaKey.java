@@ -20,46 +20,72 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.google.common.base.Joiner;
 import com.grookage.leia.models.SchemaConstants;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.jackson.Jacksonized;
 
 import javax.validation.constraints.NotBlank;
 import java.util.Locale;
 
-@Builder
-@AllArgsConstructor
-@Data
-@NoArgsConstructor
+/*
+    SchemaKey is immutable. The referenceId and the hash are computed once when the key is built (or deserialized),
+    so map lookups keyed on it don't rebuild strings. Keys are equal on referenceId alone, which leaves out the type.
+ */
+@Getter
+@ToString
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class SchemaKey {
+
+    private static final Joiner KEY_JOINER = Joiner.on(SchemaConstants.KEY_DELIMITER).useForNull("null");
+
     @NotBlank
-    private String orgId;
+    private final String orgId;
     @NotBlank
-    private String namespace;
+    private final String namespace;
     @NotBlank
-    private String tenantId;
+    private final String tenantId;
     @NotBlank
-    private String schemaName;
+    private final String schemaName;
     @NotBlank
-    private String version;
+    private final String version;
     @NotBlank
-    private String type;
-
+    private final String type;
+    @ToString.Exclude
+    @JsonIgnore
+    private final String referenceId;
+    @ToString.Exclude
     @JsonIgnore
-    public String getReferenceId() {
-        return Joiner.on(SchemaConstants.KEY_DELIMITER).join(orgId,
+    @Getter(AccessLevel.NONE)
+    private final int hash;
+
+    @Builder
+    @Jacksonized
+    private SchemaKey(String orgId,
+                      String namespace,
+                      String tenantId,
+                      String schemaName,
+                      String version,
+                      String type) {
+        this.orgId = orgId;
+        this.namespace = namespace;
+        this.tenantId = tenantId;
+        this.schemaName = schemaName;
+        this.version = version;
+        this.type = type;
+        this.referenceId = KEY_JOINER.join(orgId,
                 namespace,
                 tenantId,
                 schemaName,
                 version
         ).toUpperCase(Locale.ROOT);
+        this.hash = referenceId.hashCode();
     }
 
     @Override
     public int hashCode() {
-        return this.getReferenceId().hashCode();
+        return hash;
     }
 
     @Override
@@ -71,7 +97,7 @@ public class SchemaKey {
             return false;
         }
         final var thatKey = (SchemaKey) obj;
-        return (thatKey.getReferenceId().equals(this.getReferenceId()));
+        return thatKey.hash == this.hash && thatKey.referenceId.equals(this.referenceId);
     }
 
 }
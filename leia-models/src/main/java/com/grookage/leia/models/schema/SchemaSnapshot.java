@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.models.schema;
+
+import lombok.Getter;
+
+import java.util.*;
+
+/*
+    An immutable, indexed view over a list of schemas, so that lookups by schemaKey, schemaName and namespace
+    don't have to scan the entire list. Built once per refreshed list and never mutated after.
+ */
+@Getter
+public class SchemaSnapshot {
+
+    private static final SchemaSnapshot EMPTY = new SchemaSnapshot(List.of());
+
+    private final List<SchemaDetails> schemas;
+    private final Map<String, SchemaDetails> referenceIndex;
+    private final Map<String, List<SchemaDetails>> schemaNameIndex;
+    private final Map<String, List<SchemaDetails>> namespaceIndex;
+
+    private SchemaSnapshot(List<SchemaDetails> schemas) {
+        final var references = new HashMap<String, SchemaDetails>();
+        final var schemaNames = new HashMap<String, List<SchemaDetails>>();
+        final var namespaces = new HashMap<String, List<SchemaDetails>>();
+        schemas.forEach(schemaDetails -> {
+            final var schemaKey = schemaDetails.getSchemaKey();
+            references.putIfAbsent(schemaKey.getReferenceId(), schemaDetails);
+            schemaNames.computeIfAbsent(schemaKey.getSchemaName(), k -> new ArrayList<>()).add(schemaDetails);
+            namespaces.computeIfAbsent(schemaKey.getNamespace(), k -> new ArrayList<>()).add(schemaDetails);
+        });
+        this.schemas = schemas;
+        this.referenceIndex = Collections.unmodifiableMap(references);
+        this.schemaNameIndex = freeze(schemaNames);
+        this.namespaceIndex = freeze(namespaces);
+    }
+
+    private static Map<String, List<SchemaDetails>> freeze(Map<String, List<SchemaDetails>> index) {
+        index.replaceAll((key, value) -> Collections.unmodifiableList(value));
+        return Collections.unmodifiableMap(index);
+    }
+
+    public static SchemaSnapshot empty() {
+        return EMPTY;
+    }
+
+    public static SchemaSnapshot of(List<SchemaDetails> schemas) {
+        return null == schemas || schemas.isEmpty() ? EMPTY : new SchemaSnapshot(schemas);
+    }
+
+    public Optional<SchemaDetails> getSchemaDetails(SchemaKey schemaKey) {
+        return Optional.ofNullable(referenceIndex.get(schemaKey.getReferenceId()));
+    }
+
+    public List<SchemaDetails> getSchemaDetails(Set<SchemaKey> schemaKeys) {
+        return schemaKeys.stream()
+                .map(each -> referenceIndex.get(each.getReferenceId()))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+    }
+
+    public Optional<SchemaDetails> getSchemaDetails(String schemaName, String version) {
+        return getSchemaDetailsByName(schemaName).stream()
+                .filter(each -> each.getSchemaKey().getVersion().equalsIgnoreCase(version))
+                .findFirst();
+    }
+
+    public List<SchemaDetails> getSchemaDetailsByName(String schemaName) {
+        return schemaNameIndex.getOrDefault(schemaName, List.of());
+    }
+
+    public List<SchemaDetails> getSchemaDetailsByNamespace(String namespace) {
+        return namespaceIndex.getOrDefault(namespace, List.of());
+    }
+}
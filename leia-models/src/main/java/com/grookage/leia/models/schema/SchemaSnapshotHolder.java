@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.models.schema;
+
+import java.util.List;
+
+/*
+    Holds the latest SchemaSnapshot for a refreshed list of schemas. Refreshers hand out a new list instance on every
+    successful refresh, so an identity check against the list the current snapshot was built from is enough to detect
+    new data. The rebuilt snapshot is published with a single volatile write; readers never see a partial index.
+ */
+public class SchemaSnapshotHolder {
+
+    private volatile Entry current = new Entry(null, SchemaSnapshot.empty());
+
+    public SchemaSnapshot get(List<SchemaDetails> schemas) {
+        final var entry = current;
+        if (entry.source == schemas) {
+            return entry.snapshot;
+        }
+        synchronized (this) {
+            if (current.source != schemas) {
+                current = new Entry(schemas, SchemaSnapshot.of(schemas));
+            }
+            return current.snapshot;
+        }
+    }
+
+    private record Entry(List<SchemaDetails> source, SchemaSnapshot snapshot) {
+    }
+}
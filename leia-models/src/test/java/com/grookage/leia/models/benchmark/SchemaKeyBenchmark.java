@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.models.benchmark;
+
+import com.google.common.base.Joiner;
+import com.grookage.leia.models.SchemaConstants;
+import com.grookage.leia.models.schema.SchemaKey;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Per-lookup cost of a SchemaKey keyed map, against the earlier key that rebuilt its referenceId on every
+    hashCode and equals. Not run as part of the test suite; run the main method from the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SchemaKeyBenchmark {
+
+    private static final int SCHEMAS = 1_000;
+
+    private final Map<LegacySchemaKey, Integer> legacyRegistry = new HashMap<>();
+    private final Map<SchemaKey, Integer> registry = new HashMap<>();
+    private LegacySchemaKey legacyKey;
+    private SchemaKey schemaKey;
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(SchemaKeyBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < SCHEMAS; i++) {
+            legacyRegistry.put(new LegacySchemaKey("testOrg", "testNamespace", "tenantId", "schema" + i, "V1"), i);
+            registry.put(SchemaKey.builder()
+                    .orgId("testOrg")
+                    .namespace("testNamespace")
+                    .tenantId("tenantId")
+                    .schemaName("schema" + i)
+                    .version("V1")
+                    .type("default")
+                    .build(), i);
+        }
+        legacyKey = new LegacySchemaKey("testOrg", "testNamespace", "tenantId", "schema" + SCHEMAS / 2, "V1");
+        schemaKey = SchemaKey.builder()
+                .orgId("testOrg")
+                .namespace("testNamespace")
+                .tenantId("tenantId")
+                .schemaName("schema" + SCHEMAS / 2)
+                .version("V1")
+                .type("default")
+                .build();
+    }
+
+    @Benchmark
+    public Integer legacyLookup() {
+        return legacyRegistry.get(legacyKey);
+    }
+
+    @Benchmark
+    public Integer cachedLookup() {
+        return registry.get(schemaKey);
+    }
+
+    @Benchmark
+    public String legacyReferenceId() {
+        return legacyKey.getReferenceId();
+    }
+
+    @Benchmark
+    public String cachedReferenceId() {
+        return schemaKey.getReferenceId();
+    }
+
+    private record LegacySchemaKey(String orgId, String namespace, String tenantId, String schemaName,
+                                   String version) {
+
+        String getReferenceId() {
+            return Joiner.on(SchemaConstants.KEY_DELIMITER).join(orgId,
+                    namespace,
+                    tenantId,
+                    schemaName,
+                    version
+            ).toUpperCase(Locale.ROOT);
+        }
+
+        @Override
+        public int hashCode() {
+            return getReferenceId().hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || obj.getClass() != this.getClass()) {
+                return false;
+            }
+            return ((LegacySchemaKey) obj).getReferenceId().equals(this.getReferenceId());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.models.schema;
+
+import com.grookage.leia.models.ResourceHelper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SchemaKeyTest {
+
+    @Test
+    @SneakyThrows
+    void testSchemaKeyIdentity() {
+        final var schemaKey = ResourceHelper.getResource("schema/schemaKey.json", SchemaKey.class);
+        Assertions.assertNotNull(schemaKey);
+        final var builtKey = SchemaKey.builder()
+                .orgId(schemaKey.getOrgId())
+                .namespace(schemaKey.getNamespace())
+                .tenantId(schemaKey.getTenantId())
+                .schemaName(schemaKey.getSchemaName())
+                .version(schemaKey.getVersion())
+                .type(schemaKey.getType())
+                .build();
+        Assertions.assertEquals(schemaKey, builtKey);
+        Assertions.assertEquals(schemaKey.getReferenceId(), builtKey.getReferenceId());
+
+        final var otherTypeKey = SchemaKey.builder()
+                .orgId(schemaKey.getOrgId())
+                .namespace(schemaKey.getNamespace())
+                .tenantId(schemaKey.getTenantId())
+                .schemaName(schemaKey.getSchemaName())
+                .version(schemaKey.getVersion().toLowerCase())
+                .type("otherType")
+                .build();
+        Assertions.assertEquals(schemaKey, otherTypeKey);
+        Assertions.assertEquals(schemaKey.hashCode(), otherTypeKey.hashCode());
+        Assertions.assertEquals("otherType", otherTypeKey.getType());
+        Assertions.assertEquals(schemaKey.getVersion().toLowerCase(), otherTypeKey.getVersion());
+
+        final var serialized = ResourceHelper.getObjectMapper().writeValueAsString(schemaKey);
+        Assertions.assertFalse(serialized.contains("referenceId"));
+        Assertions.assertFalse(serialized.contains("hash"));
+    }
+}
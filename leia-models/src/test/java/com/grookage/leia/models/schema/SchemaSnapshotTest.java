@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.models.schema;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.grookage.leia.models.ResourceHelper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+class SchemaSnapshotTest {
+
+    private static SchemaKey schemaKey(String version) {
+        return SchemaKey.builder()
+                .namespace("testNamespace")
+                .schemaName("testSchema")
+                .version(version)
+                .orgId("testOrg")
+                .tenantId("tenantId")
+                .type("default")
+                .build();
+    }
+
+    @Test
+    @SneakyThrows
+    void testSchemaSnapshot() {
+        final var allSchemas = ResourceHelper.getResource("schema/allSchemas.json",
+                new TypeReference<List<SchemaDetails>>() {
+                });
+        final var snapshot = SchemaSnapshot.of(allSchemas);
+        final var matchingSchema = snapshot.getSchemaDetails(schemaKey("v1234")).orElse(null);
+        Assertions.assertNotNull(matchingSchema);
+        Assertions.assertEquals("V1234", matchingSchema.getSchemaKey().getVersion());
+        Assertions.assertTrue(snapshot.getSchemaDetails(schemaKey("V1")).isEmpty());
+        Assertions.assertEquals(2, snapshot.getSchemaDetails(Set.of(schemaKey("V123"), schemaKey("V12345"),
+                schemaKey("V1"))).size());
+        Assertions.assertEquals(3, snapshot.getSchemaDetailsByName("testSchema").size());
+        Assertions.assertEquals(3, snapshot.getSchemaDetailsByNamespace("testNamespace").size());
+        Assertions.assertTrue(snapshot.getSchemaDetailsByNamespace("otherNamespace").isEmpty());
+        Assertions.assertTrue(snapshot.getSchemaDetails("testSchema", "v123").isPresent());
+        Assertions.assertTrue(SchemaSnapshot.of(null).getSchemaDetails(schemaKey("V1234")).isEmpty());
+    }
+
+    @Test
+    @SneakyThrows
+    void testSchemaSnapshotHolder() {
+        final var allSchemas = ResourceHelper.getResource("schema/allSchemas.json",
+                new TypeReference<List<SchemaDetails>>() {
+                });
+        final var holder = new SchemaSnapshotHolder();
+        final var snapshot = holder.get(allSchemas);
+        Assertions.assertSame(snapshot, holder.get(allSchemas));
+        final var refreshedSchemas = new ArrayList<>(allSchemas.subList(0, 1));
+        final var refreshedSnapshot = holder.get(refreshedSchemas);
+        Assertions.assertNotSame(snapshot, refreshedSnapshot);
+        Assertions.assertEquals(1, refreshedSnapshot.getSchemas().size());
+        Assertions.assertTrue(refreshedSnapshot.getSchemaDetails(schemaKey("V123")).isEmpty());
+    }
+}
@@ -21,38 +21,90 @@ import com.google.common.base.Preconditions;
 import com.grookage.leia.models.exception.LeiaException;
 import com.grookage.leia.models.mux.LeiaMessage;
 import com.grookage.leia.mux.exception.LeiaProcessorErrorCode;
+import com.grookage.leia.mux.executor.Deadline;
 import com.grookage.leia.mux.executor.MessageExecutor;
 import com.grookage.leia.mux.executor.MessageExecutorFactory;
+import com.grookage.leia.mux.executor.SendResult;
+import com.grookage.leia.mux.pipeline.BackendPipeline;
+import com.grookage.leia.mux.resolver.BackendChain;
 import com.grookage.leia.mux.resolver.BackendNameResolver;
+import com.grookage.leia.mux.resolver.BackendRoute;
+import com.grookage.leia.mux.resolver.RoutingTable;
+import com.grookage.leia.mux.tenancy.FairScheduler;
+import com.grookage.leia.mux.tenancy.TenancyConfig;
+import com.grookage.leia.mux.tenancy.TenantResolver;
+import com.grookage.leia.mux.tenancy.TenantStats;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
-
+/*
+    Routes every message to its backends, and sends the messages of every backend through the backendPipeline, which
+    bounds, limits, breaks and orders the sends to it as per its own configuration.
+    When the backendNameResolver routes statically, the backends of a message and their fallbacks are resolved once per
+    schemaKey and tags into the routingTable, which holds up to maxRoutes of them. Their executors are looked up from
+    the executorFactory once per call.
+    With a tenancyConfig, the messages of every tenant (as per the tenantResolver, the tenant of the schemaKey by
+    default) are sent through a FairScheduler, within the quotas of the tenant and in weighted fair order across tenants.
+    A backend can have fallbacks, from the backendNameResolver or failoverBackends otherwise. Messages are then sent to
+    the first healthy one of the backend and its fallbacks, and are sent to the next one only when the send fails, all
+    within processingThresholdMs.
+ */
 @Data
 @Slf4j
 public class DefaultMessageProcessor implements MessageProcessor {
 
+    private static final int DEFAULT_MAX_ROUTES = 10_000;
+    private static final long COMPLETION_GRACE_MS = 1_000;
+
     private final String name;
     private final long processingThresholdMs;
     private final BackendNameResolver backendNameResolver;
     private final MessageExecutorFactory executorFactory;
+    private final BackendPipeline backendPipeline;
+    private final TenantResolver tenantResolver;
+    private final Map<String, List<String>> failoverBackends;
+    private final RoutingTable routingTable;
+    @Getter(AccessLevel.NONE)
+    private final FairScheduler fairScheduler;
 
-    @Builder
     protected DefaultMessageProcessor(String name,
                                       long processingThresholdMs,
                                       BackendNameResolver backendNameResolver,
                                       MessageExecutorFactory executorFactory) {
+        this(name, processingThresholdMs, backendNameResolver, executorFactory, null, null, null, null, 0);
+    }
+
+    @Builder
+    protected DefaultMessageProcessor(String name,
+                                      long processingThresholdMs,
+                                      BackendNameResolver backendNameResolver,
+                                      MessageExecutorFactory executorFactory,
+                                      BackendPipeline backendPipeline,
+                                      TenancyConfig tenancyConfig,
+                                      TenantResolver tenantResolver,
+                                      Map<String, List<String>> failoverBackends,
+                                      int maxRoutes) {
         Preconditions.checkNotNull(backendNameResolver, "Backend Resolver can't be null");
         Preconditions.checkNotNull(executorFactory, "Executor Factory can't be null");
         this.name = name;
         this.processingThresholdMs = processingThresholdMs;
         this.backendNameResolver = backendNameResolver;
         this.executorFactory = executorFactory;
+        this.backendPipeline = null == backendPipeline ? BackendPipeline.builder().name(name).build() : backendPipeline;
+        this.tenantResolver = null == tenantResolver ? TenantResolver.bySchemaKey() : tenantResolver;
+        this.fairScheduler = null == tenancyConfig ? null : new FairScheduler(tenancyConfig);
+        this.failoverBackends = null == failoverBackends ? Map.of() : Map.copyOf(failoverBackends);
+        this.routingTable = new RoutingTable(maxRoutes <= 0 ? DEFAULT_MAX_ROUTES : maxRoutes);
     }
 
     protected boolean validBackends(Set<String> backends) {
@@ -63,39 +115,87 @@ public class DefaultMessageProcessor implements MessageProcessor {
         return null != executor;
     }
 
-    private Map<MessageExecutor, List<LeiaMessage>> getExecutorMapping(List<LeiaMessage> messages) {
-        final var executorMapping = new HashMap<MessageExecutor, List<LeiaMessage>>();
-        messages.forEach(message -> {
-            final var backends = backendNameResolver.getEligibleBackends(message);
-            if (!validBackends(backends)) {
-                log.error("No backends found for message with schemaKey {} and tags {}", message.getSchemaKey(), message.getTags());
-                throw LeiaException.error(LeiaProcessorErrorCode.BACKENDS_NOT_FOUND);
-            }
-            backends.forEach(backend -> {
-                final var executor = executorFactory.getExecutor(backend).orElse(null);
-                if (!validExecutor(executor)) {
-                    log.error("No executor found for backend name {}", backend);
-                    throw LeiaException.error(LeiaProcessorErrorCode.EXECUTOR_NOT_FOUND);
-                }
-                executorMapping.computeIfAbsent(executor, k -> new ArrayList<>()).add(message);
-            });
-        });
+    private List<BackendChain> resolveChains(LeiaMessage message) {
+        final var backends = backendNameResolver.getEligibleBackends(message);
+        if (!validBackends(backends)) {
+            log.error("No backends found for message with schemaKey {} and tags {}", message.getSchemaKey(), message.getTags());
+            throw LeiaException.error(LeiaProcessorErrorCode.BACKENDS_NOT_FOUND);
+        }
+        return backends.stream()
+                .map(backend -> new BackendChain(backend, resolveFallbacks(message, backend)))
+                .toList();
+    }
+
+    private List<String> resolveFallbacks(LeiaMessage message, String backend) {
+        final var fallbacks = backendNameResolver.getFallbacks(message, backend);
+        return (fallbacks.isEmpty() ? failoverBackends.getOrDefault(backend, List.of()) : fallbacks).stream()
+                .filter(fallback -> !fallback.equals(backend))
+                .toList();
+    }
+
+    private List<BackendChain> getChains(LeiaMessage message) {
+        return backendNameResolver.staticRouting()
+                ? routingTable.getRoutes(message, this::resolveChains)
+                : resolveChains(message);
+    }
+
+    /*
+        Fallbacks without an executor are left out, since the backend they stand in for can still be sent to. They're
+        looked up again on the next send, so that a fallback is used as soon as it has an executor.
+     */
+    private BackendRoute resolveRoute(BackendChain chain) {
+        final var executor = executorFactory.getExecutor(chain.backend()).orElse(null);
+        if (!validExecutor(executor)) {
+            log.error("No executor found for backend name {}", chain.backend());
+            throw LeiaException.error(LeiaProcessorErrorCode.EXECUTOR_NOT_FOUND);
+        }
+        final var fallbacks = chain.fallbacks().stream()
+                .map(fallback -> {
+                    final var fallbackExecutor = executorFactory.getExecutor(fallback).orElse(null);
+                    if (!validExecutor(fallbackExecutor)) {
+                        log.warn("No executor found for fallback {} of backend {}, leaving it out", fallback,
+                                chain.backend());
+                        return null;
+                    }
+                    return new BackendRoute(fallback, fallbackExecutor);
+                })
+                .filter(Objects::nonNull)
+                .toList();
+        return new BackendRoute(chain.backend(), executor, fallbacks);
+    }
+
+    /*
+        The executors of every backend are looked up once per call. An executor that more than one backend resolves to
+        is sent to once, on the bulkhead of the first of them, per set of fallbacks, so that every message fails over
+        to the fallbacks of its own route
+     */
+    private Map<DispatchKey, Dispatch> getExecutorMapping(List<LeiaMessage> messages) {
+        final var routes = new HashMap<BackendChain, BackendRoute>();
+        final var executorMapping = new HashMap<DispatchKey, Dispatch>();
+        messages.forEach(message -> getChains(message).forEach(chain -> {
+            final var route = routes.computeIfAbsent(chain, this::resolveRoute);
+            executorMapping.computeIfAbsent(new DispatchKey(route.executor(), route.fallbacks()),
+                            k -> new Dispatch(route.backend(), new ArrayList<>(), route.fallbacks()))
+                    .messages().add(message);
+        }));
         return executorMapping;
     }
 
+    /*
+        The stage times out its own sends, queued or not, once processingThresholdMs has passed, so it's waited on for
+        a little longer than that, for them to be reported as failed rather than still be in flight
+     */
     public void processMessages(List<LeiaMessage> messages) {
-        final var executorMapping = getExecutorMapping(messages);
-        if (executorMapping.isEmpty()) {
-            log.debug("Haven't found any eligible executors with the set of messages {}", messages);
-            return;
-        }
-        final var futures = CompletableFuture.allOf(
-                executorMapping.entrySet().stream()
-                        .map(each -> CompletableFuture.runAsync(
-                                () -> each.getKey().send(each.getValue())))
-                        .toArray(CompletableFuture[]::new));
+        final var futures = processMessagesAsync(messages).toCompletableFuture();
+        final List<SendResult> results;
         try {
-            futures.get(getProcessingThresholdMs(), TimeUnit.MILLISECONDS);
+            results = futures.get(getProcessingThresholdMs() + COMPLETION_GRACE_MS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof LeiaException leiaException) {
+                throw leiaException; //Backends that couldn't be resolved
+            }
+            log.error("There is an exception while trying to process messages", e);
+            throw new IllegalStateException("There is an exception while trying to process messages", e);
         } catch (InterruptedException e) {
             log.error("Couldn't perform the message processor execution. It exceeded the process duration specified : {}",
                     getProcessingThresholdMs(), e);
@@ -105,6 +205,135 @@ public class DefaultMessageProcessor implements MessageProcessor {
             log.error("There is an exception while trying to process messages", e);
             throw new IllegalStateException("There is an exception while trying to process messages", e);
         }
+        results.stream()
+                .filter(result -> !result.succeeded())
+                .findFirst()
+                .ifPresent(result -> {
+                    log.error("There is an exception while trying to process messages on backend {}", result.getBackend(),
+                            result.getError());
+                    throw new IllegalStateException("There is an exception while trying to process messages",
+                            result.getError());
+                });
+    }
+
+    /*
+        Resolves the backends and submits the sends on the calling thread, and never throws. The stage fails when a
+        backend can't be resolved, and completes with the SendResults of the backendPipeline otherwise.
+        With tenancy, the sends of a tenant with too many batches waiting are reported as failed with TENANT_THROTTLED,
+        and the sends of a batch that wait longer than processingThresholdMs for their turn with a TimeoutException.
+        The time a batch waits for its turn counts towards the processingThresholdMs of its sends.
+     */
+    @Override
+    public CompletionStage<List<SendResult>> processMessagesAsync(List<LeiaMessage> messages) {
+        try {
+            return dispatch(messages);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private CompletableFuture<List<SendResult>> dispatch(List<LeiaMessage> messages) {
+        final var deadline = Deadline.after(getProcessingThresholdMs());
+        if (null == fairScheduler) {
+            final var executorMapping = getExecutorMapping(messages);
+            if (executorMapping.isEmpty()) {
+                log.debug("Haven't found any eligible executors with the set of messages {}", messages);
+                return CompletableFuture.completedFuture(List.of());
+            }
+            return sendAll(executorMapping, deadline);
+        }
+        final var tenantMessages = new LinkedHashMap<String, List<LeiaMessage>>();
+        messages.forEach(message -> tenantMessages.computeIfAbsent(tenantResolver.getTenant(message),
+                key -> new ArrayList<>()).add(message));
+        final var futures = new ArrayList<CompletableFuture<List<SendResult>>>();
+        tenantMessages.forEach((tenant, each) -> {
+            final var executorMapping = getExecutorMapping(each);
+            if (!executorMapping.isEmpty()) {
+                futures.add(fairScheduler.submit(tenant, each.size(), deadline.remainingMs(),
+                                () -> sendAll(executorMapping, deadline))
+                        .exceptionally(error -> failed(executorMapping, error)));
+            }
+        });
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> futures.stream()
+                        .flatMap(future -> future.join().stream())
+                        .toList());
+    }
+
+    private CompletableFuture<List<SendResult>> sendAll(Map<DispatchKey, Dispatch> executorMapping, Deadline deadline) {
+        final var futures = executorMapping.entrySet().stream()
+                .map(each -> send(each.getKey().executor(), each.getValue(), deadline))
+                .toList();
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    private List<SendResult> failed(Map<DispatchKey, Dispatch> executorMapping, Throwable error) {
+        final var cause = error instanceof CompletionException ? error.getCause() : error;
+        return executorMapping.values().stream()
+                .map(dispatch -> SendResult.builder()
+                        .backend(dispatch.backend())
+                        .messages(dispatch.messages())
+                        .error(cause)
+                        .build())
+                .toList();
+    }
+
+    private CompletableFuture<SendResult> send(MessageExecutor executor, Dispatch dispatch, Deadline deadline) {
+        if (dispatch.fallbacks().isEmpty()) {
+            return backendPipeline.send(dispatch.backend(), executor, dispatch.messages(), deadline);
+        }
+        final var routes = new ArrayDeque<BackendRoute>();
+        routes.add(new BackendRoute(dispatch.backend(), executor));
+        routes.addAll(dispatch.fallbacks());
+        return failover(routes, new ArrayList<>(), dispatch.messages(), deadline);
+    }
+
+    /*
+        Sends to the next healthy route, and the messages that fail on to the one after, while there's time left. The
+        health of a route is only checked once it's next, so that the probe of a degraded one isn't used up by a send
+        that never reaches it. The unhealthy routes are tried last, in order.
+     */
+    private CompletableFuture<SendResult> failover(Deque<BackendRoute> routes,
+                                                   List<BackendRoute> unhealthy,
+                                                   List<LeiaMessage> messages,
+                                                   Deadline deadline) {
+        var route = routes.poll();
+        while (null != route && !backendPipeline.healthy(route.backend())) {
+            unhealthy.add(route);
+            route = routes.poll();
+        }
+        if (null == route) {
+            route = unhealthy.remove(0);
+        }
+        final var backend = route.backend();
+        final var sent = backendPipeline.send(backend, route.executor(), messages, deadline);
+        if (routes.isEmpty() && unhealthy.isEmpty()) {
+            return sent;
+        }
+        return sent.thenCompose(result -> {
+            final var failedMessages = result.getFailedMessages();
+            if (failedMessages.isEmpty() || deadline.expired()) {
+                return CompletableFuture.completedFuture(result);
+            }
+            log.warn("Sending {} messages to backend {} has failed, failing over to its next fallback",
+                    failedMessages.size(), backend);
+            return failover(routes, unhealthy, failedMessages, deadline);
+        });
+    }
+
+    /*
+        Queued, in flight and throttled batches and the latencies per tenant, when sending with tenancy
+     */
+    public Map<String, TenantStats> getTenantStats() {
+        return null == fairScheduler ? Map.of() : fairScheduler.getStats();
+    }
+
+    public void shutdown() {
+        backendPipeline.shutdown();
+        if (null != fairScheduler) {
+            fairScheduler.shutdown();
+        }
     }
 
     @Override
@@ -123,6 +352,10 @@ public class DefaultMessageProcessor implements MessageProcessor {
         final var thatKey = (DefaultMessageProcessor) obj;
         return (thatKey.getName().equalsIgnoreCase(this.getName()));
     }
-}
 
+    private record DispatchKey(MessageExecutor executor, List<BackendRoute> fallbacks) {
+    }
 
+    private record Dispatch(String backend, List<LeiaMessage> messages, List<BackendRoute> fallbacks) {
+    }
+}
@@ -17,12 +17,20 @@
 package com.grookage.leia.mux;
 
 import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.executor.SendResult;
 
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 public interface MessageProcessor {
 
     String getName();
 
     void processMessages(List<LeiaMessage> messages);
+
+    /*
+        Processes the messages without blocking the caller on the backends, completing with a SendResult per backend
+        sent to, with the outcome and latency of the send
+     */
+    CompletionStage<List<SendResult>> processMessagesAsync(List<LeiaMessage> messages);
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.batching;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import javax.validation.constraints.Min;
+
+/*
+    When a batch of messages accumulated for a backend is sent: once it holds maxBatchSize messages, once the next
+    message would take it over maxBatchBytes, or lingerMs after its first message, whichever comes first.
+    maxBatchBytes of 0 doesn't bound batches by size, and lingerMs of 0 sends every call as it comes.
+ */
+@Data
+@Builder
+@Jacksonized
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BatchingConfig {
+    @Min(1)
+    @Builder.Default
+    int maxBatchSize = 500;
+    @Min(0)
+    @Builder.Default
+    long maxBatchBytes = 1024 * 1024;
+    @Min(0)
+    @Builder.Default
+    long lingerMs = 5;
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.batching;
+
+import com.grookage.leia.mux.bulkhead.Bulkhead;
+import com.grookage.leia.mux.bulkhead.BulkheadConfig;
+import com.grookage.leia.mux.executor.MessageExecutor;
+import com.grookage.leia.mux.executor.MessageExecutorFactory;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+/*
+    Opts the executors of a factory into batching. Every executor of the delegate is wrapped once, so that backends
+    resolving to the same executor accumulate into the same batches, and are sent to once. The blocking sends of every
+    executor run on the executor given, or on one bulkhead shared by all of them, shut down on close.
+ */
+public class BatchingExecutorFactory implements MessageExecutorFactory {
+
+    private final MessageExecutorFactory delegate;
+    private final BatchingConfig config;
+    private final Executor executor;
+    private final Bulkhead bulkhead;
+    private final Map<MessageExecutor, BatchingMessageExecutor> executors =
+            Collections.synchronizedMap(new IdentityHashMap<>());
+
+    public BatchingExecutorFactory(MessageExecutorFactory delegate, BatchingConfig config) {
+        this(delegate, config, null);
+    }
+
+    public BatchingExecutorFactory(MessageExecutorFactory delegate, BatchingConfig config, Executor executor) {
+        this.delegate = delegate;
+        this.config = config;
+        this.bulkhead = null == executor ? new Bulkhead("leia-batching", BulkheadConfig.builder().build()) : null;
+        this.executor = null == executor ? this.bulkhead : executor;
+    }
+
+    @Override
+    public Optional<MessageExecutor> getExecutor(String backendName) {
+        return delegate.getExecutor(backendName)
+                .map(executor -> executors.computeIfAbsent(executor, key -> BatchingMessageExecutor.builder()
+                        .name("leia-batching-" + backendName)
+                        .delegate(key)
+                        .config(config)
+                        .executor(this.executor)
+                        .build()));
+    }
+
+    public void close() {
+        synchronized (executors) {
+            executors.values().forEach(BatchingMessageExecutor::close);
+        }
+        if (null != bulkhead) {
+            bulkhead.shutdown();
+        }
+    }
+}
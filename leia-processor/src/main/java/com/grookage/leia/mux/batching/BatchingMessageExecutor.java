@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.batching;
+
+import com.google.common.base.Preconditions;
+import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.bulkhead.Bulkhead;
+import com.grookage.leia.mux.bulkhead.BulkheadConfig;
+import com.grookage.leia.mux.executor.Deadline;
+import com.grookage.leia.mux.executor.MessageExecutor;
+import com.grookage.leia.mux.executor.SendResult;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
+
+/*
+    Accumulates the messages sent to a backend across calls, and sends them to the delegate in batches as per the
+    BatchingConfig, the way a Kafka producer does. The stage of a call completes once every batch its messages went into
+    has been sent, so callers can still await delivery, and fails only for its own messages that couldn't be sent, with
+    SendResult.partiallyFailed when some of them were. A batch is sent on the executor of the call that started it,
+    the bulkhead of the backend when sent through the DefaultMessageProcessor. Lingering batches are timed by one
+    scheduler shared by every instance, and handed off to a shared flushing pool once due, so that a batch sent on the
+    calling thread (as a CALLER_RUNS bulkhead does when full) doesn't hold up the lingers of others. The executor of an
+    instance, a bulkhead of its own if not given, only runs the blocking send. Calls made once closed are rejected.
+    The size of a message is estimated by the sizer, its JSON length by default, and only when maxBatchBytes is set.
+ */
+@Slf4j
+public class BatchingMessageExecutor implements MessageExecutor, AutoCloseable {
+
+    private static final ScheduledExecutorService LINGER = Executors.newSingleThreadScheduledExecutor(
+            threadFactory("leia-batching-linger"));
+    private static final ExecutorService FLUSHER = Executors.newCachedThreadPool(threadFactory("leia-batching-flush"));
+
+    @Getter
+    private final String name;
+    private final MessageExecutor delegate;
+    private final BatchingConfig config;
+    private final ToLongFunction<LeiaMessage> sizer;
+    private final Executor executor;
+    private final Bulkhead bulkhead;
+    private final Object lock = new Object();
+    private Batch pending;
+    private boolean closed;
+
+    @Builder
+    public BatchingMessageExecutor(String name,
+                                   MessageExecutor delegate,
+                                   BatchingConfig config,
+                                   ToLongFunction<LeiaMessage> sizer,
+                                   Executor executor) {
+        Preconditions.checkNotNull(delegate, "Delegate executor can't be null");
+        this.name = null == name ? "leia-batching" : name;
+        this.delegate = delegate;
+        this.config = null == config ? BatchingConfig.builder().build() : config;
+        this.sizer = null == sizer ? BatchingMessageExecutor::estimateSize : sizer;
+        this.bulkhead = null == executor ? new Bulkhead(this.name, BulkheadConfig.builder().build()) : null;
+        this.executor = null == executor ? this.bulkhead : executor;
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        final var threads = new AtomicInteger();
+        return runnable -> {
+            final var thread = new Thread(runnable, name + "-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static long estimateSize(LeiaMessage message) {
+        return null == message.getMessage() ? 0 : message.getMessage().toString().length();
+    }
+
+    /*
+        Blocks until the batches of the messages are sent, sending them on the executor of this instance
+     */
+    @Override
+    public void send(List<LeiaMessage> messages) {
+        try {
+            sendAsync(messages, executor, Deadline.none()).toCompletableFuture().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    /*
+        A batch is sent to the delegate with the earliest deadline of the calls in it
+     */
+    @Override
+    public CompletionStage<Void> sendAsync(List<LeiaMessage> messages, Executor executor, Deadline deadline) {
+        if (null == messages || messages.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        final var full = new ArrayList<Batch>();
+        final var parts = new ArrayList<Part>();
+        /*
+            Flushed in a finally, so that batches already cut are sent even if starting the next one fails
+         */
+        try {
+            synchronized (lock) {
+                if (closed) {
+                    return CompletableFuture.failedFuture(new RejectedExecutionException(name + " is closed"));
+                }
+                for (final var message : messages) {
+                    final var size = config.getMaxBatchBytes() > 0 ? sizer.applyAsLong(message) : 0;
+                    if (null != pending && !pending.fits(size)) {
+                        full.add(cut());
+                    }
+                    if (null == pending) {
+                        pending = start(executor);
+                    }
+                    pending.add(message, size, deadline);
+                    if (parts.isEmpty() || parts.get(parts.size() - 1).batch != pending) {
+                        parts.add(new Part(pending));
+                    }
+                    parts.get(parts.size() - 1).messages.add(message);
+                    if (pending.messages.size() >= config.getMaxBatchSize()) {
+                        full.add(cut());
+                    }
+                }
+                if (config.getLingerMs() <= 0 && null != pending) {
+                    full.add(cut());
+                }
+            }
+        } finally {
+            full.forEach(this::flush);
+        }
+        /*
+            A new stage, so that a caller timing out its stage doesn't fail the batch for every other caller in it
+         */
+        return CompletableFuture.allOf(parts.stream().map(part -> part.batch.future).toArray(CompletableFuture[]::new))
+                .handle((ignored, error) -> {
+                    final var failure = SendResult.combine(parts.stream().map(Part::getResult).toList());
+                    if (null != failure) {
+                        throw new CompletionException(failure);
+                    }
+                    return null;
+                });
+    }
+
+    /*
+        Sends whatever has been accumulated so far, without waiting for the batch to fill up or linger
+     */
+    public void flush() {
+        final Batch batch;
+        synchronized (lock) {
+            batch = null == pending ? null : cut();
+        }
+        if (null != batch) {
+            flush(batch);
+        }
+    }
+
+    /*
+        Sends what has been accumulated, and shuts down the bulkhead when it was created by this instance
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+        }
+        flush();
+        if (null != bulkhead) {
+            bulkhead.shutdown();
+        }
+    }
+
+    private Batch start(Executor executor) {
+        final var batch = new Batch(executor);
+        if (config.getLingerMs() > 0) {
+            batch.linger = LINGER.schedule(() -> linger(batch), config.getLingerMs(), TimeUnit.MILLISECONDS);
+        }
+        return batch;
+    }
+
+    private void linger(Batch batch) {
+        synchronized (lock) {
+            if (pending != batch) {
+                return;
+            }
+            cut();
+        }
+        FLUSHER.execute(() -> flush(batch));
+    }
+
+    private Batch cut() {
+        final var batch = pending;
+        pending = null;
+        if (null != batch.linger) {
+            batch.linger.cancel(false);
+        }
+        return batch;
+    }
+
+    private void flush(Batch batch) {
+        try {
+            delegate.sendAsync(List.copyOf(batch.messages), batch.executor, batch.deadline)
+                    .whenComplete((ignored, error) -> batch.future.complete(
+                            error instanceof CompletionException && null != error.getCause() ? error.getCause() : error));
+        } catch (Exception e) {
+            log.error("Couldn't send a batch of {} messages on {}", batch.messages.size(), name, e);
+            batch.future.complete(e);
+        }
+    }
+
+    /*
+        The messages of a call that went into a batch
+     */
+    private record Part(Batch batch, List<LeiaMessage> messages) {
+
+        private Part(Batch batch) {
+            this(batch, new ArrayList<>());
+        }
+
+        private SendResult getResult() {
+            return SendResult.builder()
+                    .messages(messages)
+                    .error(batch.future.join())
+                    .build();
+        }
+    }
+
+    private class Batch {
+        private final Executor executor;
+        private final List<LeiaMessage> messages = new ArrayList<>();
+        /*
+            Completes with the error the batch failed with, null once sent
+         */
+        private final CompletableFuture<Throwable> future = new CompletableFuture<>();
+        private long bytes;
+        private Deadline deadline = Deadline.none();
+        private ScheduledFuture<?> linger;
+
+        private Batch(Executor executor) {
+            this.executor = executor;
+        }
+
+        private boolean fits(long size) {
+            return messages.isEmpty() || config.getMaxBatchBytes() <= 0 || bytes + size <= config.getMaxBatchBytes();
+        }
+
+        private void add(LeiaMessage message, long size, Deadline deadline) {
+            messages.add(message);
+            bytes += size;
+            this.deadline = this.deadline.min(deadline);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.breaker;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/*
+    A count based circuit breaker. The outcomes of the last windowSize sends are kept in a ring, along with running
+    counts of the failed and slow ones, so that recording an outcome and checking the rates is constant time.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    @Getter
+    private final String name;
+    private final CircuitBreakerConfig config;
+    private final LongSupplier nanoClock;
+    private final byte[] outcomes;
+    private final long slowCallNanos;
+    private final LongAdder notPermitted = new LongAdder();
+    private CircuitState state = CircuitState.CLOSED;
+    private int next;
+    private int calls;
+    private int failures;
+    private int slowCalls;
+    private long openedAtNanos;
+    private int halfOpenPermits;
+
+    public CircuitBreaker(String name, CircuitBreakerConfig config) {
+        this(name, config, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, CircuitBreakerConfig config, LongSupplier nanoClock) {
+        this.name = name;
+        this.config = config;
+        this.nanoClock = nanoClock;
+        this.outcomes = new byte[config.getWindowSize()];
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(config.getSlowCallDurationMs());
+    }
+
+    /*
+        Whether a send may go through. An open breaker turns half open once openDurationMs has passed, and lets
+        halfOpenCalls sends through to probe the backend.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == CircuitState.OPEN
+                && nanoClock.getAsLong() - openedAtNanos >= TimeUnit.MILLISECONDS.toNanos(config.getOpenDurationMs())) {
+            transition(CircuitState.HALF_OPEN);
+        }
+        if (state == CircuitState.CLOSED) {
+            return true;
+        }
+        if (state == CircuitState.HALF_OPEN && halfOpenPermits > 0) {
+            halfOpenPermits--;
+            return true;
+        }
+        notPermitted.increment();
+        return false;
+    }
+
+    /*
+        Hands back a permit that didn't lead to a send, like a send rejected before it started
+     */
+    public synchronized void release() {
+        if (state == CircuitState.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    public synchronized void onResult(long durationNanos, boolean failed) {
+        if (state == CircuitState.OPEN) {
+            return;
+        }
+        final var outcome = (byte) ((failed ? FAILED : 0) | (durationNanos >= slowCallNanos ? SLOW : 0));
+        if (calls == outcomes.length) {
+            final var evicted = outcomes[next];
+            failures -= evicted & FAILED;
+            slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            calls++;
+        }
+        outcomes[next] = outcome;
+        next = (next + 1) % outcomes.length;
+        failures += outcome & FAILED;
+        slowCalls += (outcome & SLOW) >> 1;
+        if (state == CircuitState.HALF_OPEN) {
+            if (calls >= Math.min(config.getHalfOpenCalls(), outcomes.length)) {
+                transition(tripped() ? CircuitState.OPEN : CircuitState.CLOSED);
+            }
+            return;
+        }
+        if (calls >= config.getMinimumCalls() && tripped()) {
+            transition(CircuitState.OPEN);
+        }
+    }
+
+    private boolean tripped() {
+        return failures * 100 >= config.getFailureRateThreshold() * calls
+                || slowCalls * 100 >= config.getSlowCallRateThreshold() * calls;
+    }
+
+    private void transition(CircuitState to) {
+        log.info("Circuit breaker of {} moving from {} to {} with {} failed and {} slow out of {} calls", name, state,
+                to, failures, slowCalls, calls);
+        state = to;
+        next = 0;
+        calls = 0;
+        failures = 0;
+        slowCalls = 0;
+        if (to == CircuitState.OPEN) {
+            openedAtNanos = nanoClock.getAsLong();
+        }
+        halfOpenPermits = to == CircuitState.HALF_OPEN ? config.getHalfOpenCalls() : 0;
+    }
+
+    public synchronized CircuitState getState() {
+        return state;
+    }
+
+    public synchronized CircuitBreakerStats getStats() {
+        return CircuitBreakerStats.builder()
+                .state(state)
+                .calls(calls)
+                .failureRate(0 == calls ? 0 : failures * 100.0 / calls)
+                .slowCallRate(0 == calls ? 0 : slowCalls * 100.0 / calls)
+                .notPermitted(notPermitted.sum())
+                .build();
+    }
+}
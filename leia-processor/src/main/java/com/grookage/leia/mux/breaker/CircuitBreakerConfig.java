@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.breaker;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+
+/*
+    The breaker of a backend opens once, over the last windowSize sends (and at least minimumCalls of them), the
+    percentage of failed sends reaches failureRateThreshold, or the percentage of sends slower than slowCallDurationMs
+    reaches slowCallRateThreshold. It stays open for openDurationMs, then lets halfOpenCalls sends through and closes
+    or opens again on their outcome.
+ */
+@Data
+@Builder
+@Jacksonized
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CircuitBreakerConfig {
+    @Min(1)
+    @Builder.Default
+    int windowSize = 100;
+    @Min(1)
+    @Builder.Default
+    int minimumCalls = 20;
+    @Min(1)
+    @Max(100)
+    @Builder.Default
+    int failureRateThreshold = 50;
+    @Min(1)
+    @Max(100)
+    @Builder.Default
+    int slowCallRateThreshold = 100;
+    @Min(1)
+    @Builder.Default
+    long slowCallDurationMs = 5_000;
+    @Min(1)
+    @Builder.Default
+    long openDurationMs = 30_000;
+    @Min(1)
+    @Builder.Default
+    int halfOpenCalls = 5;
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.breaker;
+
+import com.grookage.leia.models.exception.LeiaException;
+import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.exception.LeiaProcessorErrorCode;
+import com.grookage.leia.mux.executor.Deadline;
+import com.grookage.leia.mux.executor.MessageExecutor;
+import com.grookage.leia.mux.executor.SendResult;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/*
+    Sends to a delegate through a CircuitBreaker. While the breaker is open, sends go to the fallback, like a QUEUED
+    executor of the same backend, or fail fast with BACKEND_UNAVAILABLE when there's none. A send rejected before it
+    started doesn't count against the backend, while one that times out does.
+ */
+@Slf4j
+public class CircuitBreakingMessageExecutor implements MessageExecutor {
+
+    @Getter
+    private final MessageExecutor delegate;
+    private final MessageExecutor fallback;
+    @Getter
+    private final CircuitBreaker circuitBreaker;
+
+    public CircuitBreakingMessageExecutor(String name,
+                                          MessageExecutor delegate,
+                                          MessageExecutor fallback,
+                                          CircuitBreakerConfig config) {
+        this.delegate = delegate;
+        this.fallback = fallback;
+        this.circuitBreaker = new CircuitBreaker(name, config);
+    }
+
+    @Override
+    public void send(List<LeiaMessage> messages) {
+        send(messages, Deadline.none());
+    }
+
+    @Override
+    public void send(List<LeiaMessage> messages, Deadline deadline) {
+        if (!circuitBreaker.tryAcquire()) {
+            if (null == fallback) {
+                throw unavailable(messages);
+            }
+            logFallback(messages);
+            fallback.send(messages, deadline);
+            return;
+        }
+        final var startTime = System.nanoTime();
+        try {
+            delegate.send(messages, deadline);
+        } catch (RuntimeException | Error e) {
+            onResult(startTime, e);
+            throw e;
+        }
+        onResult(startTime, null);
+    }
+
+    /*
+        The outcome is taken off the returned stage, so that a caller timing it out records a failed send, and cancels
+        the send of the delegate. Sends that fail fast, or that the delegate fails to start, fail the stage.
+     */
+    @Override
+    public CompletionStage<Void> sendAsync(List<LeiaMessage> messages, Executor executor, Deadline deadline) {
+        if (!circuitBreaker.tryAcquire()) {
+            if (null == fallback) {
+                return CompletableFuture.failedFuture(unavailable(messages));
+            }
+            logFallback(messages);
+            return fallback.sendAsync(messages, executor, deadline);
+        }
+        final var startTime = System.nanoTime();
+        final CompletableFuture<Void> sent;
+        try {
+            sent = delegate.sendAsync(messages, executor, deadline).toCompletableFuture();
+        } catch (RuntimeException e) {
+            circuitBreaker.release();
+            return CompletableFuture.failedFuture(e);
+        }
+        final var future = new CompletableFuture<Void>();
+        future.whenComplete((ignored, error) -> {
+            onResult(startTime, error);
+            if (null != error) {
+                sent.cancel(true);
+            }
+        });
+        sent.whenComplete((ignored, error) -> {
+            if (null == error) {
+                future.complete(null);
+            } else {
+                future.completeExceptionally(error);
+            }
+        });
+        return future;
+    }
+
+    /*
+        A send the delegate rejected before it started, like a limiter does once its queue is full, releases its permit
+        without counting as a call, so that load shedding doesn't open the breaker
+     */
+    private void onResult(long startTime, Throwable error) {
+        if (null != error && SendResult.rejected(error)) {
+            circuitBreaker.release();
+            return;
+        }
+        circuitBreaker.onResult(System.nanoTime() - startTime, null != error);
+    }
+
+    private LeiaException unavailable(List<LeiaMessage> messages) {
+        log.error("The circuit breaker of {} is open, failing {} messages", circuitBreaker.getName(), messages.size());
+        return LeiaException.error(LeiaProcessorErrorCode.BACKEND_UNAVAILABLE);
+    }
+
+    private void logFallback(List<LeiaMessage> messages) {
+        log.debug("The circuit breaker of {} is open, sending {} messages to the fallback", circuitBreaker.getName(),
+                messages.size());
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.grookage.leia.mux.bulkhead;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    A bounded pool dedicated to a single backend, so that a slow backend can only ever tie up its own threads.
+    Idle threads are let go after a minute, and all of them are daemons.
+ */
+@Slf4j
+public class Bulkhead implements Executor {
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    @Getter
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejected = new LongAdder();
+
+    public Bulkhead(String name, BulkheadConfig config) {
+        this.name = name;
+        final BlockingQueue<Runnable> queue = config.getQueueSize() == 0
+                ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(config.getQueueSize());
+        this.executor = new ThreadPoolExecutor(config.getThreads(), config.getThreads(), KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS, queue, threadFactory(name, config.isVirtualThreads()),
+                rejectionHandler(config.getRejectionPolicy()));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    private RejectedExecutionHandler rejectionHandler(RejectionPolicy rejectionPolicy) {
+        final RejectedExecutionHandler handler = rejectionPolicy == RejectionPolicy.ABORT
+                ? new ThreadPoolExecutor.AbortPolicy() : new ThreadPoolExecutor.CallerRunsPolicy();
+        return (runnable, pool) -> {
+            rejected.increment();
+            if (pool.isShutdown()) {
+                //CallerRunsPolicy drops the send once shut down, which would never complete it
+                throw new RejectedExecutionException("Bulkhead " + name + " has been shut down");
+            }
+            handler.rejectedExecution(runnable, pool);
+        };
+    }
+
+    /*
+        Virtual thread factories are looked up reflectively, since the library is built for Java 17
+     */
+    private static ThreadFactory threadFactory(String name, boolean virtualThreads) {
+        if (virtualThreads) {
+            try {
+                final var builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                final var builderKlass = Class.forName("java.lang.Thread$Builder");
+                final var named = builderKlass.getMethod("name", String.class, long.class).invoke(builder, name + "-", 0L);
+                return (ThreadFactory) builderKlass.getMethod("factory").invoke(named);
+            } catch (ReflectiveOperationException e) {
+                log.debug("Virtual threads aren't available on this runtime, using platform threads for {}", name);
+            }
+        }
+        final var count = new AtomicInteger();
+        return runnable -> {
+            final var thread = new Thread(runnable, name + "-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(command);
+    }
+
+    public BulkheadStats getStats() {
+        return BulkheadStats.builder()
+                .active(executor.getActiveCount())
+                .queued(executor.getQueue().size())
+                .rejected(rejected.sum())
+                .build();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.bulkhead;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/*
+    The bounds of the pool a backend is sent to. At most threads sends run at once, up to queueSize more wait for a
+    thread, and the rest are rejected as per the rejectionPolicy. With virtualThreads, the threads of the pool are
+    virtual where the runtime supports them (Java 21+), so that blocking sends don't hold on to platform threads.
+ */
+@Data
+@Builder
+@Jacksonized
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BulkheadConfig {
+    @Min(1)
+    @Builder.Default
+    int threads = 16;
+    @Min(0)
+    @Builder.Default
+    int queueSize = 1024;
+    @NotNull
+    @Builder.Default
+    RejectionPolicy rejectionPolicy = RejectionPolicy.ABORT;
+    boolean virtualThreads;
+}
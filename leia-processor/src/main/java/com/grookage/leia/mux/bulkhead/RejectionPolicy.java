@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.bulkhead;
+
+public enum RejectionPolicy {
+
+    /*
+        Fails the send with BACKEND_REJECTED
+     */
+    ABORT,
+
+    /*
+        Runs the send on the thread processing the messages, slowing the producer down to the pace of the backend.
+        Once the bulkhead is shut down, sends are failed with BACKEND_REJECTED as with ABORT.
+     */
+    CALLER_RUNS
+}
@@ -24,7 +24,15 @@ public enum LeiaProcessorErrorCode implements LeiaErrorCode {
 
     BACKENDS_NOT_FOUND(500),
 
-    EXECUTOR_NOT_FOUND(500);
+    EXECUTOR_NOT_FOUND(500),
+
+    BACKEND_REJECTED(429),
+
+    BACKEND_UNAVAILABLE(503),
+
+    TENANT_THROTTLED(429),
+
+    PARTIAL_SEND_FAILED(500);
 
     final int status;
 
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.executor;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+@UtilityClass
+public class CancellableSends {
+
+    /*
+        Runs a blocking send on the executor, as a stage that owns the send. Completing the stage before the send does,
+        as the processor does with a TimeoutException once the deadline passes, cancels the send: a send still queued on
+        the executor never runs, and a running one is interrupted.
+     */
+    public static CompletableFuture<Void> submit(Runnable send, Executor executor) {
+        final var future = new CompletableFuture<Void>();
+        final var task = new FutureTask<Void>(send, null) {
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    future.cancel(false);
+                    return;
+                }
+                try {
+                    get();
+                    future.complete(null);
+                } catch (ExecutionException e) {
+                    future.completeExceptionally(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    future.completeExceptionally(e);
+                }
+            }
+        };
+        future.whenComplete((ignored, error) -> {
+            if (null != error) {
+                task.cancel(true);
+            }
+        });
+        executor.execute(task);
+        return future;
+    }
+}
@@ -19,8 +19,30 @@ package com.grookage.leia.mux.executor;
 import com.grookage.leia.models.mux.LeiaMessage;
 
 import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
 public interface MessageExecutor {
 
     void send(List<LeiaMessage> messages);
+
+    /*
+        Sends within the deadline given. Executors that can bound their I/O and retries by it override this one.
+     */
+    default void send(List<LeiaMessage> messages, Deadline deadline) {
+        send(messages);
+    }
+
+    default CompletionStage<Void> sendAsync(List<LeiaMessage> messages, Executor executor) {
+        return sendAsync(messages, executor, Deadline.none());
+    }
+
+    /*
+        Sends without blocking the caller. Executors that only implement the blocking send are run on the executor given,
+        the bulkhead of the backend, and are interrupted when the stage is completed before them, as it is once the
+        deadline passes. Executors with a non-blocking transport can complete the stage themselves.
+     */
+    default CompletionStage<Void> sendAsync(List<LeiaMessage> messages, Executor executor, Deadline deadline) {
+        return CancellableSends.submit(() -> send(messages, deadline), executor);
+    }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.grookage.leia.mux.executor;
+
+import com.grookage.leia.models.exception.LeiaException;
+import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.exception.LeiaProcessorErrorCode;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/*
+    The outcome of sending a batch of messages to a backend. error is null when the send succeeded, and latencyMs is
+    the time from the send being submitted to it completing, including any time it spent queued on the bulkhead.
+ */
+@Value
+@Builder
+public class SendResult {
+    String backend;
+    @Builder.Default
+    List<LeiaMessage> messages = List.of();
+    Throwable error;
+    long latencyMs;
+
+    public static final String FAILED_MESSAGES = "failedMessages";
+
+    public boolean succeeded() {
+        return null == error;
+    }
+
+    /*
+        All the messages of a failed send, unless the executor has failed it with partiallyFailed, in which case only
+        the messages of this send that are among the ones it failed
+     */
+    public List<LeiaMessage> getFailedMessages() {
+        if (succeeded()) {
+            return List.of();
+        }
+        if (error instanceof LeiaException leiaException && null != leiaException.getContext()
+                && leiaException.getContext().get(FAILED_MESSAGES) instanceof List<?> failedMessages) {
+            final var failed = Collections.newSetFromMap(new IdentityHashMap<>());
+            failed.addAll(failedMessages);
+            return messages.stream().filter(failed::contains).toList();
+        }
+        return messages;
+    }
+
+    /*
+        Whether a send failed before it started, rejected by a bulkhead or limiter or failed fast by an open circuit
+        breaker, which says nothing of the health of the backend
+     */
+    public static boolean rejected(Throwable error) {
+        var cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && null != cause.getCause()) {
+            cause = cause.getCause();
+        }
+        return cause instanceof RejectedExecutionException
+                || cause instanceof LeiaException leiaException
+                && (LeiaProcessorErrorCode.BACKEND_REJECTED.name().equals(leiaException.getCode())
+                || LeiaProcessorErrorCode.BACKEND_UNAVAILABLE.name().equals(leiaException.getCode()));
+    }
+
+    /*
+        The error of a send made of the sends of parts of its messages, null when none of them failed. When every
+        message failed with the same error, that error, and partiallyFailed over the messages that failed otherwise
+     */
+    public static Throwable combine(List<SendResult> parts) {
+        final var failed = new ArrayList<LeiaMessage>();
+        final var errors = Collections.newSetFromMap(new IdentityHashMap<Throwable, Boolean>());
+        var total = 0;
+        for (final var part : parts) {
+            total += part.getMessages().size();
+            final var failedMessages = part.getFailedMessages();
+            if (!failedMessages.isEmpty()) {
+                failed.addAll(failedMessages);
+                errors.add(part.getError());
+            }
+        }
+        if (failed.isEmpty()) {
+            return null;
+        }
+        if (failed.size() == total && errors.size() == 1) {
+            return errors.iterator().next();
+        }
+        return partiallyFailed(failed);
+    }
+
+    /*
+        For executors that know which of the messages they were given have failed, when the rest have been sent
+     */
+    public static LeiaException partiallyFailed(List<LeiaMessage> failedMessages) {
+        return LeiaException.builder()
+                .errorCode(LeiaProcessorErrorCode.PARTIAL_SEND_FAILED)
+                .context(Map.of(FAILED_MESSAGES, List.copyOf(failedMessages)))
+                .build();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.failover;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/*
+    The success rate and latency of the sends to every backend, as exponentially weighted moving averages, and whether
+    the backend is healthy enough to be sent to ahead of its fallbacks. A degraded backend is probed once every
+    cooldownMs, and a probe that succeeds within maxLatencyMs restores it.
+ */
+public class BackendHealth {
+
+    private static final double AVERAGE_WEIGHT = 0.1;
+
+    private final FailoverConfig config;
+    private final LongSupplier nanoClock;
+    private final Map<String, Health> backends = new ConcurrentHashMap<>();
+
+    public BackendHealth(FailoverConfig config) {
+        this(config, System::nanoTime);
+    }
+
+    BackendHealth(FailoverConfig config, LongSupplier nanoClock) {
+        this.config = config;
+        this.nanoClock = nanoClock;
+    }
+
+    public void record(String backend, boolean succeeded, long latencyMs) {
+        backends.computeIfAbsent(backend, key -> new Health()).record(succeeded, latencyMs, nanoClock.getAsLong());
+    }
+
+    /*
+        Whether to send to the backend ahead of its fallbacks. While the backend is degraded, this is true once per
+        cooldownMs, for the send that probes it.
+     */
+    public boolean healthy(String backend) {
+        final var health = backends.get(backend);
+        return null == health || health.tryAcquire(nanoClock.getAsLong());
+    }
+
+    public Map<String, BackendHealthStats> getStats() {
+        final var stats = new TreeMap<String, BackendHealthStats>();
+        backends.forEach((backend, health) -> stats.put(backend, health.getStats()));
+        return stats;
+    }
+
+    private final class Health {
+        private long samples;
+        private double successRate = 1;
+        private double latencyMs;
+        private long probeAtNanos;
+
+        private synchronized void record(boolean succeeded, long latency, long now) {
+            final var wasDegraded = degraded();
+            samples++;
+            final var success = succeeded ? 1 : 0;
+            successRate = 1 == samples ? success : successRate + AVERAGE_WEIGHT * (success - successRate);
+            latencyMs = 1 == samples ? latency : latencyMs + AVERAGE_WEIGHT * (latency - latencyMs);
+            if (wasDegraded && succeeded && (config.getMaxLatencyMs() <= 0 || latency <= config.getMaxLatencyMs())) {
+                successRate = 1; //The failures that degraded the backend are cleared by a send that made it
+                latencyMs = latency;
+            } else if (!wasDegraded && degraded()) {
+                probeAtNanos = now + TimeUnit.MILLISECONDS.toNanos(config.getCooldownMs());
+            }
+        }
+
+        private boolean degraded() {
+            return samples >= config.getMinSamples() && (successRate < config.getMinSuccessRate()
+                    || (config.getMaxLatencyMs() > 0 && latencyMs > config.getMaxLatencyMs()));
+        }
+
+        private synchronized boolean tryAcquire(long now) {
+            if (!degraded()) {
+                return true;
+            }
+            if (now - probeAtNanos < 0) {
+                return false;
+            }
+            probeAtNanos = now + TimeUnit.MILLISECONDS.toNanos(config.getCooldownMs());
+            return true;
+        }
+
+        private synchronized BackendHealthStats getStats() {
+            return BackendHealthStats.builder()
+                    .samples(samples)
+                    .successRate(successRate)
+                    .latencyMs(latencyMs)
+                    .healthy(!degraded())
+                    .build();
+        }
+    }
+}
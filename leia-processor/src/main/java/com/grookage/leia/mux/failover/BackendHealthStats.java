@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.failover;
+
+import lombok.Builder;
+import lombok.Value;
+
+/*
+    successRate and latencyMs are moving averages over the recent sends to a backend
+ */
+@Value
+@Builder
+public class BackendHealthStats {
+    long samples;
+    double successRate;
+    double latencyMs;
+    boolean healthy;
+}
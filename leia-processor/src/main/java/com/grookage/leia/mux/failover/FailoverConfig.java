@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.failover;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+
+/*
+    A backend is unhealthy once at least minSamples of its sends have been seen and its success rate falls below
+    minSuccessRate, or its latency goes above maxLatencyMs (0 to not look at latencies). Routes with fallbacks skip an
+    unhealthy backend, but for one probe every cooldownMs from the time it went unhealthy, by the first send it's next
+    in line for. A probe that succeeds restores the backend.
+ */
+@Data
+@Builder
+@Jacksonized
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class FailoverConfig {
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    @Builder.Default
+    double minSuccessRate = 0.5;
+    @Min(1)
+    @Builder.Default
+    int minSamples = 10;
+    @Min(0)
+    long maxLatencyMs;
+    @Min(0)
+    @Builder.Default
+    long cooldownMs = 30_000;
+}
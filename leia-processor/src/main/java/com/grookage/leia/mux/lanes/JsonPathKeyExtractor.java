@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.lanes;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.grookage.leia.models.mux.LeiaMessage;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.Option;
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
+
+/*
+    Reads the key off the message at a JsonPath, compiled once. Text values are keys as they are, other values by
+    their JSON, and missing or null values leave the message without a key.
+ */
+public class JsonPathKeyExtractor implements KeyExtractor {
+
+    private static final Configuration CONFIGURATION = Configuration.builder()
+            .jsonProvider(new JacksonJsonNodeJsonProvider())
+            .options(Option.SUPPRESS_EXCEPTIONS)
+            .build();
+
+    private final JsonPath keyPath;
+
+    public JsonPathKeyExtractor(String keyPath) {
+        this.keyPath = JsonPath.compile(keyPath);
+    }
+
+    @Override
+    public String getKey(LeiaMessage message) {
+        if (null == message.getMessage()) {
+            return null;
+        }
+        final JsonNode key = keyPath.read(message.getMessage(), CONFIGURATION);
+        if (null == key || key.isNull() || key.isMissingNode()) {
+            return null;
+        }
+        return key.isTextual() ? key.textValue() : key.toString();
+    }
+}
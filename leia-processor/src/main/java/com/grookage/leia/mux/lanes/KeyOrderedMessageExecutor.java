@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.lanes;
+
+import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.executor.Deadline;
+import com.grookage.leia.mux.executor.MessageExecutor;
+import com.grookage.leia.mux.executor.SendResult;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+    Sends the messages of a key in order, over a fixed number of serial lanes. Messages are hashed onto a lane by their
+    key, and a send on a lane starts once the send before it on the lane has completed, whether it succeeded or not.
+    Sends on different lanes, and messages without a key, go out in parallel. A send that is timed out while in flight
+    is cancelled, and the lane moves on only once it has stopped: once the tasks it runs on the executor (as blocking
+    sends do) have returned, and once its stage is cancelled otherwise. A blocking send that ignores interrupts holds up
+    its lane until it returns.
+    A lane failing doesn't stop the others: the stage of a send fails once every lane is done, with the error of the
+    lanes when all of them failed on it, and with SendResult.partiallyFailed over the messages of the lanes that failed
+    otherwise. Timing out the stage cancels every lane of the send.
+ */
+public class KeyOrderedMessageExecutor implements MessageExecutor {
+
+    @Getter
+    private final MessageExecutor delegate;
+    private final KeyExtractor keyExtractor;
+    private final Lane[] lanes;
+
+    public KeyOrderedMessageExecutor(MessageExecutor delegate, KeyExtractor keyExtractor, int lanes) {
+        this.delegate = delegate;
+        this.keyExtractor = keyExtractor;
+        this.lanes = new Lane[lanes];
+        for (var i = 0; i < lanes; i++) {
+            this.lanes[i] = new Lane();
+        }
+    }
+
+    @Override
+    public void send(List<LeiaMessage> messages) {
+        send(messages, Deadline.none());
+    }
+
+    /*
+        Blocking sends are run by whichever thread frees up their lane
+     */
+    @Override
+    public void send(List<LeiaMessage> messages, Deadline deadline) {
+        try {
+            sendAsync(messages, Runnable::run, deadline).toCompletableFuture().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletionStage<Void> sendAsync(List<LeiaMessage> messages, Executor executor, Deadline deadline) {
+        final var partitions = partition(messages);
+        final var sends = new ArrayList<CompletableFuture<Void>>();
+        final var sent = new ArrayList<List<LeiaMessage>>();
+        for (var i = 0; i < lanes.length; i++) {
+            if (null != partitions[i]) {
+                sends.add(lanes[i].enqueue(partitions[i], executor, deadline));
+                sent.add(partitions[i]);
+            }
+        }
+        if (null != partitions[lanes.length]) {
+            sends.add(delegate.sendAsync(partitions[lanes.length], executor, deadline).toCompletableFuture());
+            sent.add(partitions[lanes.length]);
+        }
+        if (sends.size() == 1) {
+            return sends.get(0);
+        }
+        final var future = new CompletableFuture<Void>();
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).whenComplete((ignored, error) -> {
+            final var results = new ArrayList<SendResult>();
+            for (var i = 0; i < sends.size(); i++) {
+                results.add(SendResult.builder()
+                        .messages(sent.get(i))
+                        .error(sends.get(i).handle((done, failure) -> unwrap(failure)).join())
+                        .build());
+            }
+            final var failure = SendResult.combine(results);
+            if (null == failure) {
+                future.complete(null);
+            } else {
+                future.completeExceptionally(failure);
+            }
+        });
+        future.whenComplete((ignored, error) -> {
+            if (null != error) {
+                sends.forEach(send -> send.cancel(true)); //Only still running when the caller has timed the send out
+            }
+        });
+        return future;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && null != error.getCause() ? error.getCause() : error;
+    }
+
+    /*
+        The messages of every lane in the order they were given, with the ones without a key last
+     */
+    @SuppressWarnings("unchecked")
+    private List<LeiaMessage>[] partition(List<LeiaMessage> messages) {
+        final List<LeiaMessage>[] partitions = new List[lanes.length + 1];
+        for (final var message : messages) {
+            final var key = keyExtractor.getKey(message);
+            final var index = null == key ? lanes.length : Math.floorMod(key.hashCode(), lanes.length);
+            if (null == partitions[index]) {
+                partitions[index] = new ArrayList<>();
+            }
+            partitions[index].add(message);
+        }
+        return partitions;
+    }
+
+    public LaneStats getStats() {
+        var queued = 0;
+        var maxDepth = 0;
+        var hottestLane = 0;
+        for (var i = 0; i < lanes.length; i++) {
+            final var depth = lanes[i].depth.get();
+            queued += depth;
+            if (depth > maxDepth) {
+                maxDepth = depth;
+                hottestLane = i;
+            }
+        }
+        return LaneStats.builder()
+                .lanes(lanes.length)
+                .queued(queued)
+                .maxDepth(maxDepth)
+                .hottestLane(hottestLane)
+                .build();
+    }
+
+    private final class Lane {
+        private final AtomicInteger depth = new AtomicInteger();
+        private CompletableFuture<?> tail = CompletableFuture.completedFuture(null);
+
+        /*
+            The stage returned completes only once the send has left the lane, so that the stats of a lane are up to
+            date by the time its callers see their sends complete
+         */
+        private CompletableFuture<Void> enqueue(List<LeiaMessage> messages, Executor executor, Deadline deadline) {
+            final var future = new CompletableFuture<Void>();
+            final var stage = new CompletableFuture<Void>();
+            depth.incrementAndGet();
+            future.whenComplete((ignored, error) -> {
+                depth.decrementAndGet();
+                if (null == error) {
+                    stage.complete(null);
+                } else {
+                    stage.completeExceptionally(error);
+                }
+            });
+            stage.whenComplete((ignored, error) -> {
+                if (null != error) {
+                    future.completeExceptionally(error);
+                }
+            });
+            final var stopped = new CompletableFuture<Void>();
+            final CompletableFuture<?> previous;
+            synchronized (this) {
+                previous = tail;
+                tail = stopped;
+            }
+            previous.whenComplete((ignored, error) -> start(messages, executor, deadline, future, stopped));
+            return stage;
+        }
+
+        private void start(List<LeiaMessage> messages, Executor executor, Deadline deadline,
+                           CompletableFuture<Void> future, CompletableFuture<Void> stopped) {
+            if (future.isDone()) {
+                stopped.complete(null);
+                return;
+            }
+            if (deadline.expired()) {
+                future.completeExceptionally(new TimeoutException("Deadline expired waiting on the lane"));
+                stopped.complete(null);
+                return;
+            }
+            final var tracked = new TrackedExecutor(executor, stopped);
+            final CompletableFuture<Void> sent;
+            try {
+                sent = delegate.sendAsync(messages, tracked, deadline).toCompletableFuture();
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+                tracked.done();
+                return;
+            }
+            sent.whenComplete((ignored, error) -> {
+                tracked.done();
+                if (null == error) {
+                    future.complete(null);
+                } else {
+                    future.completeExceptionally(error);
+                }
+            });
+            future.whenComplete((ignored, error) -> {
+                if (null != error) {
+                    sent.cancel(true);
+                }
+            });
+        }
+    }
+
+    /*
+        Completes stopped once the stage of a send is done, and every task the send has run on the executor has returned
+     */
+    private static final class TrackedExecutor implements Executor {
+        private final Executor executor;
+        private final CompletableFuture<Void> stopped;
+        private final AtomicInteger running = new AtomicInteger(1);
+
+        private TrackedExecutor(Executor executor, CompletableFuture<Void> stopped) {
+            this.executor = executor;
+            this.stopped = stopped;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            running.incrementAndGet();
+            try {
+                executor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        done();
+                    }
+                });
+            } catch (RuntimeException e) {
+                done();
+                throw e;
+            }
+        }
+
+        private void done() {
+            if (running.decrementAndGet() == 0) {
+                stopped.complete(null);
+            }
+        }
+    }
+}
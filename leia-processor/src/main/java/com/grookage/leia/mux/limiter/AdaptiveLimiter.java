@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.limiter;
+
+/*
+    A TCP Vegas style concurrency limit, driven by the latency of sends. The shortest latency seen is taken as the no
+    load latency of the backend, and limit * (1 - minRtt / rtt) as the number of sends queued at it. The limit is raised
+    by one while that is below alpha and the limit is in use, lowered by one when it's above beta, and cut by the
+    backoffRatio when a send fails.
+ */
+public class AdaptiveLimiter {
+
+    private final LimiterConfig config;
+    private int limit;
+    private int inFlight;
+    private long minRttNanos;
+    private int samples;
+
+    public AdaptiveLimiter(LimiterConfig config) {
+        this.config = config;
+        this.limit = Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), config.getInitialLimit()));
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /*
+        Releases a send acquired through tryAcquire, with the latency it took and whether it failed
+     */
+    public synchronized void release(long rttNanos, boolean dropped) {
+        final var utilized = inFlight * 2 >= limit;
+        inFlight--;
+        if (dropped) {
+            limit = Math.max(config.getMinLimit(), (int) (limit * config.getBackoffRatio()));
+            return;
+        }
+        if (rttNanos <= 0) {
+            return;
+        }
+        if (++samples >= config.getProbeInterval()) {
+            samples = 0;
+            minRttNanos = 0;
+        }
+        if (0 == minRttNanos || rttNanos < minRttNanos) {
+            minRttNanos = rttNanos;
+        }
+        final var queued = limit * (1 - (double) minRttNanos / rttNanos);
+        if (queued < config.getAlpha() && utilized) {
+            limit = Math.min(config.getMaxLimit(), limit + 1);
+        } else if (queued > config.getBeta()) {
+            limit = Math.max(config.getMinLimit(), limit - 1);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.limiter;
+
+import com.grookage.leia.models.exception.LeiaException;
+import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.exception.LeiaProcessorErrorCode;
+import com.grookage.leia.mux.executor.Deadline;
+import com.grookage.leia.mux.executor.MessageExecutor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    Holds the sends to a delegate within the limit of an AdaptiveLimiter. Sends over the limit wait in a queue of up to
+    queueSize, and are started as the sends in flight complete. Queued sends that are past their deadline are failed
+    with a TimeoutException and make room for new ones, rather than being started late. The rest are rejected with
+    BACKEND_REJECTED, through the stage of an async send. Blocking sends are never queued.
+ */
+@Slf4j
+public class LimitedMessageExecutor implements MessageExecutor {
+
+    @Getter
+    private final String name;
+    @Getter
+    private final MessageExecutor delegate;
+    private final AdaptiveLimiter limiter;
+    private final int queueSize;
+    private final Queue<Pending> pending = new ArrayDeque<>();
+    private final LongAdder rejected = new LongAdder();
+
+    public LimitedMessageExecutor(String name, MessageExecutor delegate, LimiterConfig config) {
+        this.name = name;
+        this.delegate = delegate;
+        this.limiter = new AdaptiveLimiter(config);
+        this.queueSize = config.getQueueSize();
+    }
+
+    @Override
+    public void send(List<LeiaMessage> messages) {
+        send(messages, Deadline.none());
+    }
+
+    @Override
+    public void send(List<LeiaMessage> messages, Deadline deadline) {
+        if (!limiter.tryAcquire()) {
+            throw reject(messages);
+        }
+        final var startTime = System.nanoTime();
+        var dropped = true;
+        try {
+            delegate.send(messages, deadline);
+            dropped = false;
+        } finally {
+            limiter.release(System.nanoTime() - startTime, dropped);
+            drain();
+        }
+    }
+
+    /*
+        The returned stage is owned by the caller: completing it before the send does cancels the send, whether it's
+        waiting in the queue or in flight. Whether the send starts, waits or is rejected is decided under the lock of
+        the queue, so that a send queued just as a permit is released is started by the drain of that release.
+     */
+    @Override
+    public CompletionStage<Void> sendAsync(List<LeiaMessage> messages, Executor executor, Deadline deadline) {
+        final var send = new Pending(messages, executor, deadline, new CompletableFuture<>());
+        final boolean acquired;
+        final boolean queued;
+        final List<Pending> expired;
+        synchronized (pending) {
+            expired = pending.size() < queueSize ? List.of() : prune();
+            acquired = pending.isEmpty() && limiter.tryAcquire();
+            queued = !acquired && pending.size() < queueSize;
+            if (queued) {
+                pending.add(send);
+            }
+        }
+        expire(expired);
+        if (acquired) {
+            dispatch(send);
+        } else if (queued) {
+            drain();
+        } else {
+            send.future().completeExceptionally(reject(messages));
+        }
+        return send.future();
+    }
+
+    private LeiaException reject(List<LeiaMessage> messages) {
+        rejected.increment();
+        log.error("The concurrency limit of {} is reached, rejecting {} messages", name, messages.size());
+        return LeiaException.error(LeiaProcessorErrorCode.BACKEND_REJECTED);
+    }
+
+    /*
+        A send that the delegate fails to start fails its stage
+     */
+    private void dispatch(Pending send) {
+        final var startTime = System.nanoTime();
+        final CompletableFuture<Void> sent;
+        try {
+            sent = delegate.sendAsync(send.messages(), send.executor(), send.deadline()).toCompletableFuture();
+        } catch (RuntimeException e) {
+            limiter.release(0, false);
+            send.future().completeExceptionally(e);
+            drain();
+            return;
+        }
+        sent.whenComplete((ignored, error) -> {
+            limiter.release(System.nanoTime() - startTime, null != error);
+            if (null == error) {
+                send.future().complete(null);
+            } else {
+                send.future().completeExceptionally(error);
+            }
+            drain();
+        });
+        send.future().whenComplete((ignored, error) -> {
+            if (null != error) {
+                sent.cancel(true);
+            }
+        });
+    }
+
+    /*
+        Starts the queued sends that fit in the limit, after pruning the ones that are cancelled or past their deadline
+     */
+    private void drain() {
+        while (true) {
+            final Pending next;
+            final List<Pending> expired;
+            synchronized (pending) {
+                expired = prune();
+                next = !pending.isEmpty() && limiter.tryAcquire() ? pending.poll() : null;
+            }
+            expire(expired);
+            if (null == next) {
+                return;
+            }
+            if (next.future().isDone()) {
+                limiter.release(0, false);
+            } else {
+                dispatch(next);
+            }
+        }
+    }
+
+    /*
+        Called under the lock of the queue. The sends past their deadline are failed by expire, outside of it.
+     */
+    private List<Pending> prune() {
+        List<Pending> expired = null;
+        final var iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            final var next = iterator.next();
+            if (next.future().isDone()) {
+                iterator.remove();
+            } else if (next.deadline().expired()) {
+                iterator.remove();
+                if (null == expired) {
+                    expired = new ArrayList<>();
+                }
+                expired.add(next);
+            }
+        }
+        return null == expired ? List.of() : expired;
+    }
+
+    private void expire(List<Pending> expired) {
+        expired.forEach(each -> each.future().completeExceptionally(
+                new TimeoutException("Deadline expired waiting on the limit of " + name)));
+    }
+
+    public LimiterStats getStats() {
+        final int queued;
+        synchronized (pending) {
+            queued = pending.size();
+        }
+        return LimiterStats.builder()
+                .limit(limiter.getLimit())
+                .inFlight(limiter.getInFlight())
+                .queued(queued)
+                .rejected(rejected.sum())
+                .build();
+    }
+
+    private record Pending(List<LeiaMessage> messages, Executor executor, Deadline deadline,
+                           CompletableFuture<Void> future) {
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.limiter;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+
+/*
+    The bounds of the concurrency limit of a backend, which starts at initialLimit and moves between minLimit and
+    maxLimit. The limit grows while fewer than alpha sends are estimated to be queued at the backend, shrinks once more
+    than beta are, and is cut by backoffRatio on a failed send. The no load latency is re-learnt every probeInterval
+    sends. Up to queueSize sends wait for the limit, and the rest are rejected.
+ */
+@Data
+@Builder
+@Jacksonized
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class LimiterConfig {
+    @Min(1)
+    @Builder.Default
+    int initialLimit = 20;
+    @Min(1)
+    @Builder.Default
+    int minLimit = 1;
+    @Min(1)
+    @Builder.Default
+    int maxLimit = 200;
+    @Min(0)
+    @Builder.Default
+    int alpha = 3;
+    @Min(0)
+    @Builder.Default
+    int beta = 6;
+    @DecimalMin("0.1")
+    @DecimalMax("1.0")
+    @Builder.Default
+    double backoffRatio = 0.9;
+    @Min(1)
+    @Builder.Default
+    int probeInterval = 1000;
+    @Min(0)
+    @Builder.Default
+    int queueSize = 0;
+}
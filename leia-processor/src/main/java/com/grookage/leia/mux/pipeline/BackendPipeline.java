@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.pipeline;
+
+import com.google.common.base.Preconditions;
+import com.grookage.leia.models.exception.LeiaException;
+import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.breaker.CircuitBreakerConfig;
+import com.grookage.leia.mux.breaker.CircuitBreakerStats;
+import com.grookage.leia.mux.breaker.CircuitBreakingMessageExecutor;
+import com.grookage.leia.mux.breaker.CircuitState;
+import com.grookage.leia.mux.bulkhead.Bulkhead;
+import com.grookage.leia.mux.bulkhead.BulkheadConfig;
+import com.grookage.leia.mux.bulkhead.BulkheadStats;
+import com.grookage.leia.mux.exception.LeiaProcessorErrorCode;
+import com.grookage.leia.mux.executor.Deadline;
+import com.grookage.leia.mux.executor.MessageExecutor;
+import com.grookage.leia.mux.executor.MessageExecutorFactory;
+import com.grookage.leia.mux.executor.SendResult;
+import com.grookage.leia.mux.failover.BackendHealth;
+import com.grookage.leia.mux.failover.BackendHealthStats;
+import com.grookage.leia.mux.failover.FailoverConfig;
+import com.grookage.leia.mux.lanes.JsonPathKeyExtractor;
+import com.grookage.leia.mux.lanes.KeyExtractor;
+import com.grookage.leia.mux.lanes.KeyOrderedMessageExecutor;
+import com.grookage.leia.mux.lanes.LaneConfig;
+import com.grookage.leia.mux.lanes.LaneStats;
+import com.grookage.leia.mux.limiter.LimitedMessageExecutor;
+import com.grookage.leia.mux.limiter.LimiterConfig;
+import com.grookage.leia.mux.limiter.LimiterStats;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Everything a send to a single backend goes through, on its way from the processor to the executor of the backend.
+    Every backend is sent to on a Bulkhead of its own, bounded as per its entry in backendBulkheads or the
+    bulkheadConfig otherwise, within its entry in backendTimeoutsMs. On top of that, and in the order the send goes
+    through them, a backend can have serial lanes per key (laneConfig), a circuit breaker (backendCircuitBreakers or
+    circuitBreakerConfig, with the fallbackExecutorFactory) and an adaptive concurrency limit (backendLimiters or
+    limiterConfig). The outcome of every send is recorded in the BackendHealth of the backend.
+    The wrappers of a backend are built on its first send, and again only if the executor of the backend changes.
+ */
+@Slf4j
+public class BackendPipeline {
+
+    @Getter
+    private final String name;
+    private final BulkheadConfig bulkheadConfig;
+    private final Map<String, BulkheadConfig> backendBulkheads;
+    private final Map<String, Long> backendTimeoutsMs;
+    private final LimiterConfig limiterConfig;
+    private final Map<String, LimiterConfig> backendLimiters;
+    private final CircuitBreakerConfig circuitBreakerConfig;
+    private final Map<String, CircuitBreakerConfig> backendCircuitBreakers;
+    private final MessageExecutorFactory fallbackExecutorFactory;
+    private final LaneConfig laneConfig;
+    private final KeyExtractor keyExtractor;
+    private final BackendHealth backendHealth;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final Map<String, LimitedMessageExecutor> limiters = new ConcurrentHashMap<>();
+    private final Map<String, CircuitBreakingMessageExecutor> circuitBreakers = new ConcurrentHashMap<>();
+    private final Map<String, KeyOrderedMessageExecutor> lanes = new ConcurrentHashMap<>();
+
+    @Builder
+    public BackendPipeline(String name,
+                           BulkheadConfig bulkheadConfig,
+                           Map<String, BulkheadConfig> backendBulkheads,
+                           Map<String, Long> backendTimeoutsMs,
+                           LimiterConfig limiterConfig,
+                           Map<String, LimiterConfig> backendLimiters,
+                           CircuitBreakerConfig circuitBreakerConfig,
+                           Map<String, CircuitBreakerConfig> backendCircuitBreakers,
+                           MessageExecutorFactory fallbackExecutorFactory,
+                           LaneConfig laneConfig,
+                           KeyExtractor keyExtractor,
+                           FailoverConfig failoverConfig) {
+        Preconditions.checkArgument(null == laneConfig || null != keyExtractor || null != laneConfig.getKeyPath(),
+                "Lanes need a keyExtractor or a keyPath");
+        this.name = null == name ? "pipeline" : name;
+        this.bulkheadConfig = null == bulkheadConfig ? BulkheadConfig.builder().build() : bulkheadConfig;
+        this.backendBulkheads = null == backendBulkheads ? Map.of() : Map.copyOf(backendBulkheads);
+        this.backendTimeoutsMs = null == backendTimeoutsMs ? Map.of() : Map.copyOf(backendTimeoutsMs);
+        this.limiterConfig = limiterConfig;
+        this.backendLimiters = null == backendLimiters ? Map.of() : Map.copyOf(backendLimiters);
+        this.circuitBreakerConfig = circuitBreakerConfig;
+        this.backendCircuitBreakers = null == backendCircuitBreakers ? Map.of() : Map.copyOf(backendCircuitBreakers);
+        this.fallbackExecutorFactory = fallbackExecutorFactory;
+        this.laneConfig = laneConfig;
+        this.keyExtractor = null != keyExtractor || null == laneConfig
+                ? keyExtractor : new JsonPathKeyExtractor(laneConfig.getKeyPath());
+        this.backendHealth = new BackendHealth(null == failoverConfig ? FailoverConfig.builder().build() : failoverConfig);
+    }
+
+    /*
+        Sends the messages to the backend by the deadline of the backend, or the limit when that comes first, and never
+        throws. A send that fails to start, as when its bulkhead, limiter or open circuit breaker rejects it, is
+        reported as failed in its SendResult, as is one that doesn't complete by its deadline with a TimeoutException.
+     */
+    public CompletableFuture<SendResult> send(String backend,
+                                              MessageExecutor executor,
+                                              List<LeiaMessage> messages,
+                                              Deadline limit) {
+        final var startTime = System.nanoTime();
+        final var deadline = getDeadline(backend).min(limit);
+        final CompletionStage<Void> sent;
+        try {
+            sent = getOrdered(backend, getCircuitBroken(backend, getLimited(backend, executor)))
+                    .sendAsync(messages, getBulkhead(backend), deadline);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(rejected(backend, messages, e));
+        } catch (RuntimeException e) {
+            log.error("Couldn't start sending {} messages to backend {}", messages.size(), backend, e);
+            return CompletableFuture.completedFuture(SendResult.builder()
+                    .backend(backend)
+                    .messages(messages)
+                    .error(e)
+                    .build());
+        }
+        return sent.toCompletableFuture()
+                .orTimeout(deadline.remainingMs(), TimeUnit.MILLISECONDS)
+                .handle((ignored, error) -> {
+                    final var cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (cause instanceof RejectedExecutionException rejection) {
+                        return rejected(backend, messages, rejection); //Rejected off a lane, after it was queued
+                    }
+                    final var latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+                    if (!SendResult.rejected(cause)) {
+                        backendHealth.record(backend, null == error, latencyMs); //Rejections say nothing of its health
+                    }
+                    return SendResult.builder()
+                            .backend(backend)
+                            .messages(messages)
+                            .error(cause)
+                            .latencyMs(latencyMs)
+                            .build();
+                });
+    }
+
+    /*
+        Whether to send to the backend ahead of its fallbacks, as per its BackendHealth and its circuit breaker. To be
+        checked only right before sending to the backend, since a degraded backend is only healthy for the send that
+        probes it.
+     */
+    public boolean healthy(String backend) {
+        final var circuitBreaker = circuitBreakers.get(backend);
+        return (null == circuitBreaker || circuitBreaker.getCircuitBreaker().getState() != CircuitState.OPEN)
+                && backendHealth.healthy(backend);
+    }
+
+    private Deadline getDeadline(String backend) {
+        final var timeoutMs = backendTimeoutsMs.get(backend);
+        return null == timeoutMs ? Deadline.none() : Deadline.after(timeoutMs);
+    }
+
+    /*
+        A full bulkhead says nothing about the health of the backend, so it isn't recorded
+     */
+    private SendResult rejected(String backend, List<LeiaMessage> messages, RejectedExecutionException e) {
+        log.error("The bulkhead of backend {} is full, rejecting {} messages", backend, messages.size());
+        return SendResult.builder()
+                .backend(backend)
+                .messages(messages)
+                .error(LeiaException.error(LeiaProcessorErrorCode.BACKEND_REJECTED, e))
+                .build();
+    }
+
+    private Bulkhead getBulkhead(String backend) {
+        return bulkheads.computeIfAbsent(backend, key -> new Bulkhead("leia-" + name + "-" + key,
+                backendBulkheads.getOrDefault(key, bulkheadConfig)));
+    }
+
+    /*
+        The executor of a backend is wrapped once, and again only if the executorFactory hands out a different one
+     */
+    private MessageExecutor getLimited(String backend, MessageExecutor executor) {
+        final var config = backendLimiters.getOrDefault(backend, limiterConfig);
+        if (null == config) {
+            return executor;
+        }
+        final var existing = limiters.get(backend);
+        if (null != existing && existing.getDelegate() == executor) {
+            return existing;
+        }
+        return limiters.compute(backend, (key, limited) -> null != limited && limited.getDelegate() == executor
+                ? limited : new LimitedMessageExecutor(key, executor, config));
+    }
+
+    private MessageExecutor getCircuitBroken(String backend, MessageExecutor executor) {
+        final var config = backendCircuitBreakers.getOrDefault(backend, circuitBreakerConfig);
+        if (null == config) {
+            return executor;
+        }
+        final var existing = circuitBreakers.get(backend);
+        if (null != existing && existing.getDelegate() == executor) {
+            return existing;
+        }
+        return circuitBreakers.compute(backend, (key, broken) -> null != broken && broken.getDelegate() == executor
+                ? broken : new CircuitBreakingMessageExecutor(key, executor, getFallback(key), config));
+    }
+
+    private MessageExecutor getFallback(String backend) {
+        return null == fallbackExecutorFactory ? null : fallbackExecutorFactory.getExecutor(backend).orElse(null);
+    }
+
+    private MessageExecutor getOrdered(String backend, MessageExecutor executor) {
+        if (null == laneConfig) {
+            return executor;
+        }
+        final var existing = lanes.get(backend);
+        if (null != existing && existing.getDelegate() == executor) {
+            return existing;
+        }
+        return lanes.compute(backend, (key, ordered) -> null != ordered && ordered.getDelegate() == executor
+                ? ordered : new KeyOrderedMessageExecutor(executor, keyExtractor, laneConfig.getLanes()));
+    }
+
+    /*
+        Active and queued sends per backend, for the backends that have been sent to so far
+     */
+    public Map<String, BulkheadStats> getBulkheadStats() {
+        final var stats = new TreeMap<String, BulkheadStats>();
+        bulkheads.forEach((backend, bulkhead) -> stats.put(backend, bulkhead.getStats()));
+        return stats;
+    }
+
+    /*
+        The concurrency limit, in flight, queued and rejected sends per limited backend
+     */
+    public Map<String, LimiterStats> getLimiterStats() {
+        final var stats = new TreeMap<String, LimiterStats>();
+        limiters.forEach((backend, limited) -> stats.put(backend, limited.getStats()));
+        return stats;
+    }
+
+    /*
+        The state of the circuit breaker and the failure / slow call rates per backend behind one
+     */
+    public Map<String, CircuitBreakerStats> getCircuitBreakerStats() {
+        final var stats = new TreeMap<String, CircuitBreakerStats>();
+        circuitBreakers.forEach((backend, broken) -> stats.put(backend, broken.getCircuitBreaker().getStats()));
+        return stats;
+    }
+
+    /*
+        The number of sends queued on the lanes of every backend, and the deepest of them, to spot hot keys
+     */
+    public Map<String, LaneStats> getLaneStats() {
+        final var stats = new TreeMap<String, LaneStats>();
+        lanes.forEach((backend, ordered) -> stats.put(backend, ordered.getStats()));
+        return stats;
+    }
+
+    /*
+        The success rate and latency of the sends to every backend, and whether it's healthy
+     */
+    public Map<String, BackendHealthStats> getBackendHealthStats() {
+        return backendHealth.getStats();
+    }
+
+    public void shutdown() {
+        bulkheads.values().forEach(Bulkhead::shutdown);
+    }
+}
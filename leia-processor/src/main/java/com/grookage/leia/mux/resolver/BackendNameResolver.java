@@ -18,10 +18,26 @@ package com.grookage.leia.mux.resolver;
 
 import com.grookage.leia.models.mux.LeiaMessage;
 
+import java.util.List;
 import java.util.Set;
 
 public interface BackendNameResolver {
 
     Set<String> getEligibleBackends(LeiaMessage leiaMessage);
 
+    /*
+        Whether the backends of a message depend only on its schemaKey and tags, and not on its contents. The routes of
+        such messages are resolved once per schemaKey and tags, and are looked up from a RoutingTable after that.
+     */
+    default boolean staticRouting() {
+        return false;
+    }
+
+    /*
+        The backends to fail over to, in order, when a send to an eligible backend fails or the backend is unhealthy
+     */
+    default List<String> getFallbacks(LeiaMessage leiaMessage, String backend) {
+        return List.of();
+    }
+
 }
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.resolver;
+
+import com.grookage.leia.mux.executor.MessageExecutor;
+
+import java.util.List;
+
+/*
+    A backend to send to, along with the routes to fail over to, in order
+ */
+public record BackendRoute(String backend, MessageExecutor executor, List<BackendRoute> fallbacks) {
+
+    public BackendRoute(String backend, MessageExecutor executor) {
+        this(backend, executor, List.of());
+    }
+}
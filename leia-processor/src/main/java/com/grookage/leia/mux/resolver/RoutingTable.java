@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.resolver;
+
+import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.models.schema.SchemaKey;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/*
+    The backends of messages, with their fallbacks, by their schemaKey and tags. Messages of a target share the same key
+    (the tags of a target are frozen in its produce plan), so routing a message is a single map lookup once its target
+    has been seen. Only the names of the backends are held, and their executors are looked up on every send, so that
+    the routes pick up executors as the executorFactory changes them.
+    Messages with dynamic tags are resolved like any other, but are routed without being cached once the table holds
+    maxRoutes keys, so that they can't grow the table without bounds.
+ */
+public class RoutingTable {
+
+    private final int maxRoutes;
+    private final Map<RouteKey, List<BackendChain>> routes = new ConcurrentHashMap<>();
+
+    public RoutingTable(int maxRoutes) {
+        this.maxRoutes = maxRoutes;
+    }
+
+    public List<BackendChain> getRoutes(LeiaMessage message, Function<LeiaMessage, List<BackendChain>> resolver) {
+        final var routeKey = new RouteKey(message.getSchemaKey(), message.getTags());
+        final var cached = routes.get(routeKey);
+        if (null != cached) {
+            return cached;
+        }
+        final var resolved = List.copyOf(resolver.apply(message));
+        if (routes.size() < maxRoutes) {
+            routes.putIfAbsent(new RouteKey(message.getSchemaKey(), null == message.getTags()
+                    ? null : Set.copyOf(message.getTags())), resolved);
+        }
+        return resolved;
+    }
+
+    public int size() {
+        return routes.size();
+    }
+
+    /*
+        Drops all the routes, for them to be resolved afresh when the backends the backendNameResolver routes to change
+     */
+    public void clear() {
+        routes.clear();
+    }
+
+    private record RouteKey(SchemaKey schemaKey, Set<String> tags) {
+    }
+}
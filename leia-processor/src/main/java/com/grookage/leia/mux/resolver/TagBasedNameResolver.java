@@ -21,32 +21,60 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+/*
+    Reads the backends off the backend tag of a message, as in backend-A::B. A backend can be followed by the backends
+    to fail over to, in order, as in backend-A>C::B, which sends to A (failing over to C) and to B.
+ */
 @AllArgsConstructor
 @Data
 public class TagBasedNameResolver implements BackendNameResolver {
 
     private static final String BACKEND_TAG = "backend";
     private static final String TAG_SEPARATOR = "-";
+    private static final Pattern BACKEND_SEPARATOR = Pattern.compile("\\s*::\\s*");
+    private static final Pattern FALLBACK_SEPARATOR = Pattern.compile("\\s*>\\s*");
 
-    @Override
-    public Set<String> getEligibleBackends(LeiaMessage leiaMessage) {
+    private static List<List<String>> getBackendChains(LeiaMessage leiaMessage) {
         final var tags = leiaMessage.getTags();
         if (null == tags || tags.isEmpty()) {
-            return Set.of();
+            return List.of();
         }
         final var backendTag = tags.stream()
                 .filter(each -> each.contains(BACKEND_TAG)).findFirst().orElse(null);
         if (null == backendTag) {
-            return Set.of();
+            return List.of();
         }
-        return Arrays.stream(
-                backendTag.toUpperCase(Locale.ROOT)
-                        .substring(backendTag.lastIndexOf(TAG_SEPARATOR) + 1)
-                        .split("\\s*::\\s*"))
+        return Arrays.stream(BACKEND_SEPARATOR.split(
+                        backendTag.toUpperCase(Locale.ROOT)
+                                .substring(backendTag.lastIndexOf(TAG_SEPARATOR) + 1)))
+                .map(chain -> List.of(FALLBACK_SEPARATOR.split(chain)))
+                .toList();
+    }
+
+    @Override
+    public Set<String> getEligibleBackends(LeiaMessage leiaMessage) {
+        return getBackendChains(leiaMessage).stream()
+                .map(chain -> chain.get(0))
                 .collect(Collectors.toSet());
     }
+
+    @Override
+    public List<String> getFallbacks(LeiaMessage leiaMessage, String backend) {
+        return getBackendChains(leiaMessage).stream()
+                .filter(chain -> chain.get(0).equals(backend))
+                .findFirst()
+                .map(chain -> chain.subList(1, chain.size()))
+                .orElse(List.of());
+    }
+
+    @Override
+    public boolean staticRouting() {
+        return true;
+    }
 }
@@ -30,4 +30,9 @@ public class DefaultTargetValidator implements TargetValidator {
                             SchemaDetails schemaDetails) {
         return true;
     }
+
+    @Override
+    public boolean requiresMessage(TransformationTarget transformationTarget) {
+        return false;
+    }
 }
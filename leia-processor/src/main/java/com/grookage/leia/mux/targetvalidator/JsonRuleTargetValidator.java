@@ -33,4 +33,14 @@ public class JsonRuleTargetValidator implements TargetValidator {
         }
         return transformationTarget.getCriteria().evaluate(messageRequest.getMessage());
     }
+
+    @Override
+    public boolean requiresMessage(TransformationTarget transformationTarget) {
+        return null != transformationTarget.getCriteria();
+    }
+
+    @Override
+    public boolean evaluatesCriteria() {
+        return true;
+    }
 }
@@ -24,4 +24,20 @@ public interface TargetValidator {
     boolean validate(TransformationTarget transformationTarget,
                      MessageRequest messageRequest,
                      SchemaDetails schemaDetails);
+
+    /*
+        Whether validating the target needs the message itself. Messages that are streamed from bytes are multiplexed
+        without materializing the source only when none of the targets need it.
+     */
+    default boolean requiresMessage(TransformationTarget transformationTarget) {
+        return true;
+    }
+
+    /*
+        Whether a target is valid exactly when its criteria holds on the message, targets without a criteria being always
+        valid. The criteria of the targets can then be indexed at compile time, and checked only on the likely targets.
+     */
+    default boolean evaluatesCriteria() {
+        return false;
+    }
 }
@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.tenancy;
+
+import com.grookage.leia.models.exception.LeiaException;
+import com.grookage.leia.mux.exception.LeiaProcessorErrorCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/*
+    Weighted fair queuing of tasks across tenants. Every task is stamped with a virtual finish time, the later of the
+    current virtual time and the finish of the previous task of its tenant, plus its cost over the weight of the tenant.
+    Of the tenants within their quotas, the task with the earliest finish time is started next, so a tenant sending a
+    burst only ever delays itself. Tasks of tenants over their rate are retried once the tenant has the tokens, and
+    tasks that wait for longer than their maxWaitMs fail with a TimeoutException once it's up, whether held back by
+    the rate of their tenant or by the concurrency. A single timer wakes the scheduler up for the earliest of these,
+    and is brought forward when a task needs it sooner. Tenants idle for idleMs are evicted on
+    submit, at most once every idleMs, so that the tenants tracked don't grow without bound.
+ */
+@Slf4j
+public class FairScheduler {
+
+    private static final double AVERAGE_WEIGHT = 0.1;
+
+    private final TenancyConfig config;
+    private final Map<String, Tenant> tenants = new HashMap<>();
+    private final ScheduledExecutorService timer;
+    private double virtualTime;
+    private int inFlight;
+    private ScheduledFuture<?> retry;
+    private long retryAt;
+    private long evictedAt = System.nanoTime();
+
+    public FairScheduler(TenancyConfig config) {
+        this.config = config;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "leia-fair-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /*
+        Queues the task of a tenant, of cost messages, failing it with TENANT_THROTTLED when the tenant has maxQueued
+        tasks waiting already, if bounded. The task is started right away when it's its turn.
+     */
+    public <T> CompletableFuture<T> submit(String tenant, int cost, long maxWaitMs, Supplier<CompletionStage<T>> task) {
+        final var future = new CompletableFuture<T>();
+        final List<Task<?>> ready;
+        synchronized (this) {
+            evictIdle();
+            final var queue = tenants.computeIfAbsent(String.valueOf(tenant), this::tenant);
+            queue.activeAt = System.nanoTime();
+            if (config.getMaxQueued() > 0 && queue.tasks.size() >= config.getMaxQueued()) {
+                queue.throttled++;
+                log.warn("Tenant {} has {} batches waiting, throttling {} messages", tenant, queue.tasks.size(), cost);
+                return CompletableFuture.failedFuture(LeiaException.error(LeiaProcessorErrorCode.TENANT_THROTTLED));
+            }
+            final var start = Math.max(virtualTime, queue.lastFinish);
+            queue.lastFinish = start + (double) Math.max(1, cost) / queue.quota.getWeight();
+            queue.tasks.add(new Task<>(queue, cost, start, queue.lastFinish, System.nanoTime(),
+                    System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs), task, future));
+            ready = poll();
+        }
+        ready.forEach(this::run);
+        return future;
+    }
+
+    private Tenant tenant(String name) {
+        final var quotas = config.getTenants();
+        return new Tenant(null != quotas && quotas.containsKey(name) ? quotas.get(name) : config.getDefaultQuota());
+    }
+
+    private void evictIdle() {
+        final var now = System.nanoTime();
+        final var idleNanos = TimeUnit.MILLISECONDS.toNanos(config.getIdleMs());
+        if (now - evictedAt < idleNanos) {
+            return;
+        }
+        evictedAt = now;
+        tenants.values().removeIf(tenant -> tenant.tasks.isEmpty() && 0 == tenant.inFlight
+                && now - tenant.activeAt >= idleNanos);
+    }
+
+    private void drain() {
+        final List<Task<?>> ready;
+        synchronized (this) {
+            ready = poll();
+        }
+        ready.forEach(this::run);
+    }
+
+    /*
+        Takes the tasks that can be started now, in fair order, after failing the tasks that waited for too long, and
+        arranges for a retry when the next of the tasks left expires or is only held back by the rate of its tenant
+     */
+    private List<Task<?>> poll() {
+        final var ready = new ArrayList<Task<?>>();
+        final var now = System.nanoTime();
+        var retryNanos = expire(now);
+        while (inFlight < config.getMaxConcurrency()) {
+            Tenant next = null;
+            for (final var tenant : tenants.values()) {
+                final var head = tenant.tasks.peek();
+                if (null == head || !tenant.withinConcurrency()) {
+                    continue;
+                }
+                final var waitNanos = tenant.waitNanos(head.cost(), now);
+                if (waitNanos > 0) {
+                    retryNanos = Math.min(retryNanos, waitNanos);
+                    continue;
+                }
+                if (null == next || head.finish() < next.tasks.peek().finish()) {
+                    next = tenant;
+                }
+            }
+            if (null == next) {
+                break;
+            }
+            final var task = next.tasks.poll();
+            next.take(task.cost());
+            next.queueLatencyMs = average(next.queueLatencyMs, TimeUnit.NANOSECONDS.toMillis(now - task.submittedAt()));
+            virtualTime = Math.max(virtualTime, task.start());
+            next.inFlight++;
+            inFlight++;
+            ready.add(task);
+        }
+        if (retryNanos != Long.MAX_VALUE) {
+            retry(now + retryNanos);
+        }
+        return ready;
+    }
+
+    /*
+        Fails the queued tasks that have expired, returning the nanos until the next of the rest expires
+     */
+    private long expire(long now) {
+        var expiryNanos = Long.MAX_VALUE;
+        for (final var tenant : tenants.values()) {
+            final var tasks = tenant.tasks.iterator();
+            while (tasks.hasNext()) {
+                final var task = tasks.next();
+                if (task.expired(now)) {
+                    tasks.remove();
+                    task.expire();
+                } else {
+                    expiryNanos = Math.min(expiryNanos, task.expiresAt() - now);
+                }
+            }
+        }
+        return expiryNanos;
+    }
+
+    private void retry(long at) {
+        if (null != retry) {
+            if (at - retryAt >= 0) {
+                return;
+            }
+            retry.cancel(false);
+        }
+        retryAt = at;
+        retry = timer.schedule(() -> {
+            synchronized (this) {
+                if (retryAt == at) {
+                    retry = null;
+                }
+            }
+            drain();
+        }, at - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    private <T> void run(Task<T> task) {
+        CompletionStage<T> stage;
+        try {
+            stage = task.task().get();
+        } catch (RuntimeException e) {
+            stage = CompletableFuture.failedFuture(e);
+        }
+        stage.whenComplete((result, error) -> {
+            complete(task);
+            if (null == error) {
+                task.future().complete(result);
+            } else {
+                task.future().completeExceptionally(error);
+            }
+            drain();
+        });
+    }
+
+    private synchronized void complete(Task<?> task) {
+        final var tenant = task.tenant();
+        tenant.inFlight--;
+        inFlight--;
+        tenant.completed++;
+        tenant.activeAt = System.nanoTime();
+        tenant.latencyMs = average(tenant.latencyMs, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - task.submittedAt()));
+    }
+
+    private static double average(double average, double sample) {
+        return 0 == average ? sample : average + AVERAGE_WEIGHT * (sample - average);
+    }
+
+    public synchronized Map<String, TenantStats> getStats() {
+        final var stats = new TreeMap<String, TenantStats>();
+        tenants.forEach((name, tenant) -> stats.put(name, TenantStats.builder()
+                .queued(tenant.tasks.size())
+                .inFlight(tenant.inFlight)
+                .completed(tenant.completed)
+                .throttled(tenant.throttled)
+                .queueLatencyMs(tenant.queueLatencyMs)
+                .latencyMs(tenant.latencyMs)
+                .build()));
+        return stats;
+    }
+
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private static final class Tenant {
+        private final TenantQuota quota;
+        private final Queue<Task<?>> tasks = new ArrayDeque<>();
+        private double lastFinish;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+        private long activeAt = System.nanoTime();
+        private int inFlight;
+        private long completed;
+        private long throttled;
+        private double queueLatencyMs;
+        private double latencyMs;
+
+        private Tenant(TenantQuota quota) {
+            this.quota = quota;
+            this.tokens = quota.getRatePerSecond();
+        }
+
+        private boolean withinConcurrency() {
+            return quota.getMaxConcurrency() <= 0 || inFlight < quota.getMaxConcurrency();
+        }
+
+        /*
+            A token bucket of a second's worth of messages. A task larger than the bucket goes once the bucket is full,
+            and leaves it in debt.
+         */
+        private long waitNanos(int cost, long now) {
+            final var rate = quota.getRatePerSecond();
+            if (rate <= 0) {
+                return 0;
+            }
+            tokens = Math.min(rate, tokens + rate * (now - refilledAt) / TimeUnit.SECONDS.toNanos(1));
+            refilledAt = now;
+            final var needed = Math.min(cost, rate);
+            return tokens >= needed ? 0 : (long) ((needed - tokens) / rate * TimeUnit.SECONDS.toNanos(1)) + 1;
+        }
+
+        private void take(int cost) {
+            if (quota.getRatePerSecond() > 0) {
+                tokens -= cost;
+            }
+        }
+    }
+
+    private record Task<T>(Tenant tenant, int cost, double start, double finish, long submittedAt, long expiresAt,
+                           Supplier<CompletionStage<T>> task, CompletableFuture<T> future) {
+
+        private boolean expired(long now) {
+            return now - expiresAt >= 0;
+        }
+
+        private void expire() {
+            future.completeExceptionally(new TimeoutException("Timed out waiting for the turn of the tenant"));
+        }
+    }
+}
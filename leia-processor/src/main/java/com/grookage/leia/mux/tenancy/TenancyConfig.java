@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.tenancy;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.Map;
+
+/*
+    At most maxConcurrency batches of messages are in flight across tenants, and the tenants waiting on them are served
+    in weighted fair order. Every tenant has its entry in tenants as its quota, or the defaultQuota otherwise, and can
+    have up to maxQueued batches waiting, beyond which its batches are throttled, with 0 for no limit. A tenant that has
+    had nothing queued or in flight for idleMs is forgotten, along with its stats.
+ */
+@Data
+@Builder
+@Jacksonized
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TenancyConfig {
+    @Min(1)
+    @Builder.Default
+    int maxConcurrency = 64;
+    @Min(0)
+    @Builder.Default
+    int maxQueued = 1024;
+    @Min(1)
+    @Builder.Default
+    long idleMs = 300_000;
+    @Valid
+    @NotNull
+    @Builder.Default
+    TenantQuota defaultQuota = TenantQuota.builder().build();
+    @Valid
+    Map<String, TenantQuota> tenants;
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.tenancy;
+
+import lombok.Builder;
+import lombok.Value;
+
+/*
+    queueLatencyMs and latencyMs are moving averages of the time batches of the tenant waited for their turn, and took
+    from being submitted to completing
+ */
+@Value
+@Builder
+public class TenantStats {
+    int queued;
+    int inFlight;
+    long completed;
+    long throttled;
+    double queueLatencyMs;
+    double latencyMs;
+}
@@ -20,17 +20,37 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.grookage.leia.models.ResourceHelper;
 import com.grookage.leia.models.exception.LeiaException;
 import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.bulkhead.BulkheadConfig;
+import com.grookage.leia.mux.bulkhead.RejectionPolicy;
+import com.grookage.leia.mux.exception.LeiaProcessorErrorCode;
+import com.grookage.leia.mux.executor.Deadline;
 import com.grookage.leia.mux.executor.MessageExecutor;
 import com.grookage.leia.mux.executor.MessageExecutorFactory;
+import com.grookage.leia.mux.executor.SendResult;
+import com.grookage.leia.mux.failover.FailoverConfig;
+import com.grookage.leia.mux.limiter.LimiterConfig;
+import com.grookage.leia.mux.pipeline.BackendPipeline;
 import com.grookage.leia.mux.resolver.TagBasedNameResolver;
+import com.grookage.leia.mux.tenancy.TenancyConfig;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 class DefaultMessageProcessorTest {
 
@@ -38,7 +58,7 @@ class DefaultMessageProcessorTest {
     @SneakyThrows
     void testHttpMessageProcessor() {
         final var resolver = new TagBasedNameResolver();
-        final var httpExecutor = Mockito.mock(MessageExecutor.class);
+        final var httpExecutor = Mockito.mock(MessageExecutor.class, Mockito.CALLS_REAL_METHODS);
         final var executorFactory = new MessageExecutorFactory() {
             @Override
             public Optional<MessageExecutor> getExecutor(String backendName) {
@@ -75,4 +95,436 @@ class DefaultMessageProcessorTest {
         messageProcessor1.processMessages(leiaMessages);
         Mockito.verify(httpExecutor, Mockito.times(1)).send(leiaMessages);
     }
+
+    @Test
+    @SneakyThrows
+    void testBackendBulkheads() {
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final MessageExecutor slowExecutor = messages -> {
+            started.countDown();
+            awaitQuietly(release);
+        };
+        final var fastExecutor = Mockito.mock(MessageExecutor.class, Mockito.CALLS_REAL_METHODS);
+        final var executorFactory = new MessageExecutorFactory() {
+            @Override
+            public Optional<MessageExecutor> getExecutor(String backendName) {
+                return Optional.of(backendName.equalsIgnoreCase("BACKEND1") ? slowExecutor : fastExecutor);
+            }
+        };
+        final var messageProcessor = DefaultMessageProcessor.builder()
+                .name("test")
+                .processingThresholdMs(10_000L)
+                .backendNameResolver(new TagBasedNameResolver())
+                .executorFactory(executorFactory)
+                .backendPipeline(BackendPipeline.builder()
+                        .name("test")
+                        .backendBulkheads(Map.of("BACKEND1", BulkheadConfig.builder()
+                                .threads(1)
+                                .queueSize(0)
+                                .rejectionPolicy(RejectionPolicy.ABORT)
+                                .build()))
+                        .build())
+                .build();
+        final var slowMessages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+        });
+        slowMessages.forEach(leiaMessage -> leiaMessage.setTags(Set.of("backend-backend1")));
+        final var fastMessages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+        });
+        fastMessages.forEach(leiaMessage -> leiaMessage.setTags(Set.of("backend-backend2")));
+        final var inFlight = CompletableFuture.runAsync(() -> messageProcessor.processMessages(slowMessages));
+        started.await();
+        Assertions.assertEquals(1, messageProcessor.getBackendPipeline().getBulkheadStats().get("BACKEND1").getActive());
+        final var allMessages = new ArrayList<>(slowMessages);
+        allMessages.addAll(fastMessages);
+        final var results = messageProcessor.processMessagesAsync(allMessages).toCompletableFuture().get();
+        Assertions.assertEquals(2, results.size());
+        final var rejected = results.stream()
+                .filter(result -> result.getBackend().equals("BACKEND1"))
+                .findFirst()
+                .orElseThrow();
+        Assertions.assertEquals(LeiaProcessorErrorCode.BACKEND_REJECTED.name(),
+                ((LeiaException) rejected.getError()).getCode());
+        Assertions.assertTrue(results.stream()
+                .filter(result -> result.getBackend().equals("BACKEND2"))
+                .allMatch(SendResult::succeeded));
+        Assertions.assertEquals(1, messageProcessor.getBackendPipeline().getBulkheadStats().get("BACKEND1").getRejected());
+        Mockito.verify(fastExecutor, Mockito.times(1)).send(fastMessages);
+        release.countDown();
+        inFlight.get();
+        messageProcessor.shutdown();
+    }
+
+    @Test
+    @SneakyThrows
+    void testAsyncFailuresThroughStage() {
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final MessageExecutor slowExecutor = messages -> {
+            started.countDown();
+            awaitQuietly(release);
+        };
+        final var messageProcessor = DefaultMessageProcessor.builder()
+                .name("test")
+                .processingThresholdMs(10_000L)
+                .backendNameResolver(new TagBasedNameResolver())
+                .executorFactory(backendName -> Optional.of(slowExecutor))
+                .backendPipeline(BackendPipeline.builder()
+                        .name("test")
+                        .limiterConfig(LimiterConfig.builder()
+                                .initialLimit(1)
+                                .maxLimit(1)
+                                .build())
+                        .build())
+                .build();
+        final var leiaMessages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+        });
+        leiaMessages.forEach(leiaMessage -> leiaMessage.setTags(Set.of("backend-backend1")));
+        final var inFlight = messageProcessor.processMessagesAsync(leiaMessages).toCompletableFuture();
+        started.await();
+        final var results = messageProcessor.processMessagesAsync(leiaMessages).toCompletableFuture().get();
+        Assertions.assertEquals(1, results.size());
+        Assertions.assertEquals(LeiaProcessorErrorCode.BACKEND_REJECTED.name(),
+                ((LeiaException) results.get(0).getError()).getCode());
+        release.countDown();
+        Assertions.assertTrue(inFlight.get().get(0).succeeded());
+
+        leiaMessages.forEach(leiaMessage -> leiaMessage.setTags(Set.of()));
+        final var unresolved = messageProcessor.processMessagesAsync(leiaMessages).toCompletableFuture();
+        final var exception = Assertions.assertThrows(ExecutionException.class, unresolved::get);
+        Assertions.assertEquals(LeiaProcessorErrorCode.BACKENDS_NOT_FOUND.name(),
+                ((LeiaException) exception.getCause()).getCode());
+        messageProcessor.shutdown();
+    }
+
+    @Test
+    @SneakyThrows
+    void testThrottledTenant() {
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final MessageExecutor slowExecutor = messages -> {
+            started.countDown();
+            awaitQuietly(release);
+        };
+        final var fastExecutor = Mockito.mock(MessageExecutor.class, Mockito.CALLS_REAL_METHODS);
+        final var messageProcessor = DefaultMessageProcessor.builder()
+                .name("test")
+                .processingThresholdMs(10_000L)
+                .backendNameResolver(new TagBasedNameResolver())
+                .executorFactory(backendName -> Optional.of(backendName.equalsIgnoreCase("BACKEND1")
+                        ? slowExecutor : fastExecutor))
+                .tenancyConfig(TenancyConfig.builder()
+                        .maxConcurrency(1)
+                        .maxQueued(1)
+                        .build())
+                .tenantResolver(message -> message.getTags().contains("backend-backend1") ? "slow" : "fast")
+                .build();
+        final var slowMessages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+        });
+        slowMessages.forEach(leiaMessage -> leiaMessage.setTags(Set.of("backend-backend1")));
+        final var fastMessages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+        });
+        fastMessages.forEach(leiaMessage -> leiaMessage.setTags(Set.of("backend-backend2")));
+        final var inFlight = messageProcessor.processMessagesAsync(slowMessages).toCompletableFuture();
+        started.await();
+        final var queued = messageProcessor.processMessagesAsync(slowMessages).toCompletableFuture();
+        final var allMessages = new ArrayList<>(slowMessages);
+        allMessages.addAll(fastMessages);
+        final var throttled = messageProcessor.processMessagesAsync(allMessages).toCompletableFuture();
+        release.countDown();
+        final var results = throttled.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(2, results.size());
+        final var slowResult = results.stream()
+                .filter(result -> result.getBackend().equals("BACKEND1"))
+                .findFirst()
+                .orElseThrow();
+        Assertions.assertEquals(LeiaProcessorErrorCode.TENANT_THROTTLED.name(),
+                ((LeiaException) slowResult.getError()).getCode());
+        Assertions.assertTrue(results.stream()
+                .filter(result -> result.getBackend().equals("BACKEND2"))
+                .allMatch(SendResult::succeeded));
+        Assertions.assertTrue(inFlight.get(5, TimeUnit.SECONDS).stream().allMatch(SendResult::succeeded));
+        Assertions.assertTrue(queued.get(5, TimeUnit.SECONDS).stream().allMatch(SendResult::succeeded));
+        Assertions.assertEquals(1, messageProcessor.getTenantStats().get("slow").getThrottled());
+        messageProcessor.shutdown();
+    }
+
+    @Test
+    @SneakyThrows
+    void testRoutingTable() {
+        final var resolver = Mockito.spy(new TagBasedNameResolver());
+        final var httpExecutor = Mockito.mock(MessageExecutor.class, Mockito.CALLS_REAL_METHODS);
+        final var messageProcessor = DefaultMessageProcessor.builder()
+                .name("test")
+                .processingThresholdMs(10_000L)
+                .backendNameResolver(resolver)
+                .executorFactory(backendName -> Optional.of(httpExecutor))
+                .build();
+        final var leiaMessages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+        });
+        leiaMessages.forEach(leiaMessage -> leiaMessage.setTags(Set.of("backend-backend1")));
+        messageProcessor.processMessages(leiaMessages);
+        messageProcessor.processMessages(leiaMessages);
+        final var routes = messageProcessor.getRoutingTable().size();
+        Assertions.assertTrue(routes > 0);
+        Mockito.verify(resolver, Mockito.times(routes)).getEligibleBackends(Mockito.any());
+        Mockito.verify(httpExecutor, Mockito.times(2)).send(leiaMessages);
+
+        messageProcessor.getRoutingTable().clear();
+        messageProcessor.processMessages(leiaMessages);
+        Mockito.verify(resolver, Mockito.times(2 * routes)).getEligibleBackends(Mockito.any());
+        messageProcessor.shutdown();
+    }
+
+    @Test
+    @SneakyThrows
+    void testRoutesPickUpExecutors() {
+        final MessageExecutor primary = messages -> {
+            throw new IllegalStateException("Primary is down");
+        };
+        final var secondary = Mockito.mock(MessageExecutor.class, Mockito.CALLS_REAL_METHODS);
+        final var executors = new ConcurrentHashMap<String, MessageExecutor>(Map.of("BACKEND1", primary));
+        final var messageProcessor = DefaultMessageProcessor.builder()
+                .name("test")
+                .processingThresholdMs(10_000L)
+                .backendNameResolver(new TagBasedNameResolver())
+                .executorFactory(backendName -> Optional.ofNullable(executors.get(backendName)))
+                .build();
+        final var leiaMessages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+        });
+        leiaMessages.forEach(leiaMessage -> leiaMessage.setTags(Set.of("backend-backend1>backend2")));
+        final var results = messageProcessor.processMessagesAsync(leiaMessages).toCompletableFuture().get();
+        Assertions.assertTrue(results.stream().noneMatch(SendResult::succeeded));
+        Assertions.assertTrue(messageProcessor.getRoutingTable().size() > 0);
+
+        executors.put("BACKEND2", secondary);
+        final var failedOver = messageProcessor.processMessagesAsync(leiaMessages).toCompletableFuture().get();
+        Assertions.assertTrue(failedOver.stream().allMatch(SendResult::succeeded));
+        Assertions.assertTrue(failedOver.stream().allMatch(result -> result.getBackend().equals("BACKEND2")));
+
+        final var replacement = Mockito.mock(MessageExecutor.class, Mockito.CALLS_REAL_METHODS);
+        executors.put("BACKEND1", replacement);
+        final var replaced = messageProcessor.processMessagesAsync(leiaMessages).toCompletableFuture().get();
+        Assertions.assertTrue(replaced.stream().allMatch(result -> result.getBackend().equals("BACKEND1")));
+        Mockito.verify(replacement, Mockito.atLeastOnce()).send(Mockito.anyList());
+        messageProcessor.shutdown();
+    }
+
+    @Test
+    @SneakyThrows
+    void testBackendDeadlines() {
+        final var interrupted = new CountDownLatch(1);
+        final MessageExecutor slowExecutor = messages -> {
+            try {
+                Thread.sleep(10_000L);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                Thread.currentThread().interrupt();
+            }
+        };
+        final var messageProcessor = DefaultMessageProcessor.builder()
+                .name("test")
+                .processingThresholdMs(10_000L)
+                .backendNameResolver(new TagBasedNameResolver())
+                .executorFactory(backendName -> Optional.of(slowExecutor))
+                .backendPipeline(BackendPipeline.builder()
+                        .name("test")
+                        .backendTimeoutsMs(Map.of("BACKEND1", 50L))
+                        .build())
+                .build();
+        final var leiaMessages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+        });
+        leiaMessages.forEach(leiaMessage -> leiaMessage.setTags(Set.of("backend-backend1")));
+        final var results = messageProcessor.processMessagesAsync(leiaMessages).toCompletableFuture()
+                .get(5, TimeUnit.SECONDS);
+        Assertions.assertFalse(results.isEmpty());
+        results.forEach(result -> {
+            Assertions.assertFalse(result.succeeded());
+            Assertions.assertInstanceOf(TimeoutException.class, result.getError());
+        });
+        Assertions.assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        messageProcessor.shutdown();
+    }
+
+    @Test
+    @SneakyThrows
+    void testFailover() {
+        final var primaryCalls = new AtomicInteger();
+        final MessageExecutor primary = messages -> {
+            primaryCalls.incrementAndGet();
+            throw new IllegalStateException("Primary is down");
+        };
+        final var secondary = Mockito.mock(MessageExecutor.class, Mockito.CALLS_REAL_METHODS);
+        final var messageProcessor = DefaultMessageProcessor.builder()
+                .name("test")
+                .processingThresholdMs(10_000L)
+                .backendNameResolver(new TagBasedNameResolver())
+                .executorFactory(backendName -> Optional.of(backendName.equals("BACKEND1") ? primary : secondary))
+                .backendPipeline(BackendPipeline.builder()
+                        .name("test")
+                        .failoverConfig(FailoverConfig.builder().minSamples(2).build())
+                        .build())
+                .build();
+        final var leiaMessages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+        });
+        leiaMessages.forEach(leiaMessage -> leiaMessage.setTags(Set.of("backend-backend1>backend2")));
+        final var results = messageProcessor.processMessagesAsync(leiaMessages).toCompletableFuture().get();
+        Assertions.assertEquals(1, results.size());
+        Assertions.assertTrue(results.get(0).succeeded());
+        Assertions.assertEquals("BACKEND2", results.get(0).getBackend());
+        Assertions.assertEquals(1, primaryCalls.get());
+
+        messageProcessor.processMessages(leiaMessages);
+        Assertions.assertEquals(2, primaryCalls.get());
+        Assertions.assertFalse(messageProcessor.getBackendPipeline().getBackendHealthStats().get("BACKEND1").isHealthy());
+        messageProcessor.processMessages(leiaMessages);
+        Assertions.assertEquals(2, primaryCalls.get());
+        Mockito.verify(secondary, Mockito.times(3)).send(leiaMessages);
+        messageProcessor.shutdown();
+    }
+
+    @Test
+    @SneakyThrows
+    void testPartialFailover() {
+        final var message = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+        }).get(0);
+        final var leiaMessages = IntStream.range(0, 3)
+                .mapToObj(i -> ResourceHelper.getObjectMapper().convertValue(message, LeiaMessage.class))
+                .toList();
+        leiaMessages.forEach(leiaMessage -> leiaMessage.setTags(Set.of("backend-backend1>backend2")));
+        final MessageExecutor primary = messages -> {
+            throw SendResult.partiallyFailed(List.of(messages.get(1)));
+        };
+        final var secondary = Mockito.mock(MessageExecutor.class, Mockito.CALLS_REAL_METHODS);
+        final var messageProcessor = DefaultMessageProcessor.builder()
+                .name("test")
+                .processingThresholdMs(10_000L)
+                .backendNameResolver(new TagBasedNameResolver())
+                .executorFactory(backendName -> Optional.of(backendName.equals("BACKEND1") ? primary : secondary))
+                .backendPipeline(BackendPipeline.builder()
+                        .name("test")
+                        .failoverConfig(FailoverConfig.builder().build())
+                        .build())
+                .build();
+        final var results = messageProcessor.processMessagesAsync(leiaMessages).toCompletableFuture().get();
+        Assertions.assertEquals(1, results.size());
+        Assertions.assertTrue(results.get(0).succeeded());
+        Assertions.assertEquals("BACKEND2", results.get(0).getBackend());
+        Mockito.verify(secondary).send(List.of(leiaMessages.get(1)));
+
+        final var failed = SendResult.builder()
+                .backend("BACKEND1")
+                .messages(leiaMessages)
+                .error(SendResult.partiallyFailed(List.of(leiaMessages.get(2))))
+                .build();
+        Assertions.assertSame(leiaMessages.get(2), failed.getFailedMessages().get(0));
+        Assertions.assertEquals(1, failed.getFailedMessages().size());
+        Assertions.assertEquals(leiaMessages, SendResult.builder()
+                .messages(leiaMessages)
+                .error(new IllegalStateException())
+                .build()
+                .getFailedMessages());
+        messageProcessor.shutdown();
+    }
+
+    @Test
+    @SneakyThrows
+    void testFailoverPerRoute() {
+        final var message = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+        }).get(0);
+        final var leiaMessages = IntStream.range(0, 2)
+                .mapToObj(i -> ResourceHelper.getObjectMapper().convertValue(message, LeiaMessage.class))
+                .toList();
+        leiaMessages.get(0).setTags(Set.of("backend-backend1>backend2"));
+        leiaMessages.get(1).setTags(Set.of("backend-backend1>backend3"));
+        final MessageExecutor primary = messages -> {
+            throw new IllegalStateException("Primary is down");
+        };
+        final var secondary = Mockito.mock(MessageExecutor.class, Mockito.CALLS_REAL_METHODS);
+        final var tertiary = Mockito.mock(MessageExecutor.class, Mockito.CALLS_REAL_METHODS);
+        final var executors = Map.of("BACKEND1", primary, "BACKEND2", secondary, "BACKEND3", tertiary);
+        final var messageProcessor = DefaultMessageProcessor.builder()
+                .name("test")
+                .processingThresholdMs(10_000L)
+                .backendNameResolver(new TagBasedNameResolver())
+                .executorFactory(backendName -> Optional.ofNullable(executors.get(backendName)))
+                .build();
+        final var results = messageProcessor.processMessagesAsync(leiaMessages).toCompletableFuture().get();
+        Assertions.assertEquals(2, results.size());
+        Assertions.assertTrue(results.stream().allMatch(SendResult::succeeded));
+        Mockito.verify(secondary).send(List.of(leiaMessages.get(0)));
+        Mockito.verify(tertiary).send(List.of(leiaMessages.get(1)));
+        messageProcessor.shutdown();
+    }
+
+    @Test
+    @SneakyThrows
+    void testProbesOnlyRoutesTried() {
+        final var degradedCalls = new AtomicInteger();
+        final var failing = new AtomicBoolean(true);
+        final MessageExecutor degraded = messages -> {
+            degradedCalls.incrementAndGet();
+            if (failing.get()) {
+                throw new IllegalStateException("Backend is down");
+            }
+        };
+        final var healthy = Mockito.mock(MessageExecutor.class, Mockito.CALLS_REAL_METHODS);
+        final var messageProcessor = DefaultMessageProcessor.builder()
+                .name("test")
+                .processingThresholdMs(10_000L)
+                .backendNameResolver(new TagBasedNameResolver())
+                .executorFactory(backendName -> Optional.of(backendName.equals("BACKEND2") ? degraded : healthy))
+                .backendPipeline(BackendPipeline.builder()
+                        .name("test")
+                        .failoverConfig(FailoverConfig.builder().minSamples(2).cooldownMs(50).build())
+                        .build())
+                .build();
+        final var leiaMessages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+        });
+        leiaMessages.forEach(leiaMessage -> leiaMessage.setTags(Set.of("backend-backend2")));
+        for (var i = 0; i < 2; i++) {
+            Assertions.assertThrows(IllegalStateException.class, () -> messageProcessor.processMessages(leiaMessages));
+        }
+        Assertions.assertFalse(messageProcessor.getBackendPipeline().getBackendHealthStats().get("BACKEND2").isHealthy());
+        failing.set(false);
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        leiaMessages.forEach(leiaMessage -> leiaMessage.setTags(Set.of("backend-backend1>backend2")));
+        messageProcessor.processMessages(leiaMessages);
+        Assertions.assertEquals(2, degradedCalls.get());
+        leiaMessages.forEach(leiaMessage -> leiaMessage.setTags(Set.of("backend-backend2>backend1")));
+        messageProcessor.processMessages(leiaMessages);
+        Assertions.assertEquals(3, degradedCalls.get());
+        Assertions.assertTrue(messageProcessor.getBackendPipeline().getBackendHealthStats().get("BACKEND2").isHealthy());
+        messageProcessor.shutdown();
+    }
+
+    @Test
+    @SneakyThrows
+    void testRejectionsNotRecorded() {
+        final var backendPipeline = BackendPipeline.builder()
+                .name("test")
+                .failoverConfig(FailoverConfig.builder().build())
+                .build();
+        final var leiaMessages = ResourceHelper.getResource("mux/leiaMessages.json", new TypeReference<List<LeiaMessage>>() {
+        });
+        final var rejecting = new MessageExecutor() {
+            @Override
+            public void send(List<LeiaMessage> messages) {
+                throw LeiaException.error(LeiaProcessorErrorCode.BACKEND_REJECTED);
+            }
+        };
+        final var result = backendPipeline.send("BACKEND1", rejecting, leiaMessages, Deadline.none()).get();
+        Assertions.assertFalse(result.succeeded());
+        Assertions.assertFalse(backendPipeline.getBackendHealthStats().containsKey("BACKEND1"));
+        backendPipeline.send("BACKEND1", messages -> {
+        }, leiaMessages, Deadline.none()).get();
+        Assertions.assertEquals(1, backendPipeline.getBackendHealthStats().get("BACKEND1").getSamples());
+        backendPipeline.shutdown();
+    }
+
+    @SneakyThrows
+    private static void awaitQuietly(CountDownLatch latch) {
+        latch.await();
+    }
 }
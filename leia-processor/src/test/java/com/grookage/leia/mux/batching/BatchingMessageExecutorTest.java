@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.batching;
+
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.executor.MessageExecutor;
+import com.grookage.leia.mux.executor.SendResult;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+class BatchingMessageExecutorTest {
+
+    private static List<LeiaMessage> messages(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(index -> LeiaMessage.builder().message(TextNode.valueOf("message" + index)).build())
+                .toList();
+    }
+
+    @Test
+    @SneakyThrows
+    void testFlushOnBatchSize() {
+        final var batches = new CopyOnWriteArrayList<List<LeiaMessage>>();
+        try (final var executor = BatchingMessageExecutor.builder()
+                .delegate(batches::add)
+                .config(BatchingConfig.builder().maxBatchSize(3).lingerMs(60_000).build())
+                .build()) {
+            final var first = executor.sendAsync(messages(2), ForkJoinPool.commonPool()).toCompletableFuture();
+            Assertions.assertFalse(first.isDone());
+            final var second = executor.sendAsync(messages(2), ForkJoinPool.commonPool()).toCompletableFuture();
+            first.get(5, TimeUnit.SECONDS);
+            Assertions.assertFalse(second.isDone());
+            Assertions.assertEquals(1, batches.size());
+            Assertions.assertEquals(3, batches.get(0).size());
+            executor.flush();
+            second.get(5, TimeUnit.SECONDS);
+            Assertions.assertEquals(2, batches.size());
+            Assertions.assertEquals(1, batches.get(1).size());
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void testFlushOnBytesAndLinger() {
+        final var batches = new CopyOnWriteArrayList<List<LeiaMessage>>();
+        try (final var executor = BatchingMessageExecutor.builder()
+                .delegate(batches::add)
+                .config(BatchingConfig.builder().maxBatchSize(100).maxBatchBytes(25).lingerMs(20).build())
+                .sizer(message -> 10)
+                .build()) {
+            executor.sendAsync(messages(3), ForkJoinPool.commonPool()).toCompletableFuture().get(5, TimeUnit.SECONDS);
+            Assertions.assertEquals(2, batches.size());
+            Assertions.assertEquals(2, batches.get(0).size());
+            Assertions.assertEquals(1, batches.get(1).size());
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void testLingerOffCallerRunsSend() {
+        final var delivered = new CountDownLatch(1);
+        final MessageExecutor blocking = batch -> awaitQuietly(delivered);
+        final MessageExecutor releasing = batch -> delivered.countDown();
+        final var config = BatchingConfig.builder().lingerMs(20).build();
+        try (final var blocked = BatchingMessageExecutor.builder().delegate(blocking).config(config).build();
+             final var other = BatchingMessageExecutor.builder().delegate(releasing).config(config).build()) {
+            final var first = blocked.sendAsync(messages(1), Runnable::run).toCompletableFuture();
+            TimeUnit.MILLISECONDS.sleep(50);
+            other.sendAsync(messages(1), Runnable::run).toCompletableFuture().get(5, TimeUnit.SECONDS);
+            first.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void testFailedBatch() {
+        final MessageExecutor failing = messages -> {
+            throw new IllegalStateException("Backend is down");
+        };
+        try (final var executor = BatchingMessageExecutor.builder()
+                .delegate(failing)
+                .config(BatchingConfig.builder().lingerMs(0).build())
+                .build()) {
+            Assertions.assertThrows(IllegalStateException.class, () -> executor.send(messages(2)));
+            final var future = executor.sendAsync(messages(1), ForkJoinPool.commonPool()).toCompletableFuture();
+            final var exception = Assertions.assertThrows(CompletionException.class, future::join);
+            Assertions.assertTrue(exception.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void testFailuresPerCall() {
+        final MessageExecutor partial = batch -> {
+            final var failed = batch.stream()
+                    .filter(message -> message.getMessage().asText().equals("message0"))
+                    .toList();
+            if (!failed.isEmpty()) {
+                throw SendResult.partiallyFailed(failed);
+            }
+        };
+        try (final var executor = BatchingMessageExecutor.builder()
+                .delegate(partial)
+                .config(BatchingConfig.builder().maxBatchSize(4).lingerMs(60_000).build())
+                .build()) {
+            final var poisoned = messages(2);
+            final var first = executor.sendAsync(poisoned, ForkJoinPool.commonPool()).toCompletableFuture();
+            final var second = executor.sendAsync(messages(3).subList(1, 3), ForkJoinPool.commonPool())
+                    .toCompletableFuture();
+            second.get(5, TimeUnit.SECONDS);
+            final var exception = Assertions.assertThrows(CompletionException.class, first::join);
+            final var result = SendResult.builder().messages(poisoned).error(exception.getCause()).build();
+            Assertions.assertEquals(List.of(poisoned.get(0)), result.getFailedMessages());
+        }
+    }
+
+    @Test
+    void testSendAfterClose() {
+        final var batches = new CopyOnWriteArrayList<List<LeiaMessage>>();
+        final var executor = BatchingMessageExecutor.builder()
+                .delegate(batches::add)
+                .config(BatchingConfig.builder().lingerMs(60_000).build())
+                .build();
+        final var pending = executor.sendAsync(messages(2), ForkJoinPool.commonPool()).toCompletableFuture();
+        executor.close();
+        pending.join();
+        Assertions.assertEquals(1, batches.size());
+        final var future = executor.sendAsync(messages(1), ForkJoinPool.commonPool()).toCompletableFuture();
+        final var exception = Assertions.assertThrows(CompletionException.class, future::join);
+        Assertions.assertTrue(exception.getCause() instanceof RejectedExecutionException);
+    }
+
+    @SneakyThrows
+    private static void awaitQuietly(CountDownLatch latch) {
+        latch.await();
+    }
+}
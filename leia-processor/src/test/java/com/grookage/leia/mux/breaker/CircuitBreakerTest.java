@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.breaker;
+
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.grookage.leia.models.exception.LeiaException;
+import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.exception.LeiaProcessorErrorCode;
+import com.grookage.leia.mux.executor.Deadline;
+import com.grookage.leia.mux.executor.MessageExecutor;
+import com.grookage.leia.mux.limiter.LimitedMessageExecutor;
+import com.grookage.leia.mux.limiter.LimiterConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class CircuitBreakerTest {
+
+    private static final List<LeiaMessage> MESSAGES = List.of(LeiaMessage.builder()
+            .message(TextNode.valueOf("message"))
+            .build());
+
+    private static final CircuitBreakerConfig CONFIG = CircuitBreakerConfig.builder()
+            .windowSize(10)
+            .minimumCalls(4)
+            .failureRateThreshold(50)
+            .slowCallRateThreshold(50)
+            .slowCallDurationMs(100)
+            .openDurationMs(1_000)
+            .halfOpenCalls(2)
+            .build();
+
+    private static void record(CircuitBreaker circuitBreaker, long durationMs, boolean failed) {
+        Assertions.assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.onResult(TimeUnit.MILLISECONDS.toNanos(durationMs), failed);
+    }
+
+    @Test
+    void testOpensOnFailuresAndRecovers() {
+        final var clock = new AtomicLong();
+        final var circuitBreaker = new CircuitBreaker("backend", CONFIG, clock::get);
+        record(circuitBreaker, 1, true);
+        record(circuitBreaker, 1, true);
+        record(circuitBreaker, 1, false);
+        Assertions.assertEquals(CircuitState.CLOSED, circuitBreaker.getState());
+        record(circuitBreaker, 1, false);
+        Assertions.assertEquals(CircuitState.OPEN, circuitBreaker.getState());
+        Assertions.assertFalse(circuitBreaker.tryAcquire());
+        Assertions.assertEquals(1, circuitBreaker.getStats().getNotPermitted());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        Assertions.assertTrue(circuitBreaker.tryAcquire());
+        Assertions.assertEquals(CircuitState.HALF_OPEN, circuitBreaker.getState());
+        Assertions.assertTrue(circuitBreaker.tryAcquire());
+        Assertions.assertFalse(circuitBreaker.tryAcquire());
+        circuitBreaker.onResult(TimeUnit.MILLISECONDS.toNanos(1), false);
+        circuitBreaker.onResult(TimeUnit.MILLISECONDS.toNanos(1), false);
+        Assertions.assertEquals(CircuitState.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void testOpensOnSlowCalls() {
+        final var clock = new AtomicLong();
+        final var circuitBreaker = new CircuitBreaker("backend", CONFIG, clock::get);
+        for (var i = 0; i < 10; i++) {
+            record(circuitBreaker, 1, false);
+        }
+        for (var i = 0; i < 4; i++) {
+            record(circuitBreaker, 1, false);
+            record(circuitBreaker, 200, false);
+        }
+        Assertions.assertEquals(CircuitState.CLOSED, circuitBreaker.getState());
+        record(circuitBreaker, 200, false);
+        Assertions.assertEquals(CircuitState.OPEN, circuitBreaker.getState());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        record(circuitBreaker, 200, false);
+        record(circuitBreaker, 1, false);
+        Assertions.assertEquals(CircuitState.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void testFallbackWhileOpen() {
+        final MessageExecutor failing = messages -> {
+            throw new IllegalStateException("Backend is down");
+        };
+        final var fallback = Mockito.mock(MessageExecutor.class, Mockito.CALLS_REAL_METHODS);
+        final var withFallback = new CircuitBreakingMessageExecutor("backend", failing, fallback, CONFIG);
+        for (var i = 0; i < 4; i++) {
+            Assertions.assertThrows(IllegalStateException.class, () -> withFallback.send(MESSAGES));
+        }
+        Assertions.assertEquals(CircuitState.OPEN, withFallback.getCircuitBreaker().getState());
+        withFallback.send(MESSAGES);
+        Mockito.verify(fallback, Mockito.times(1)).send(MESSAGES);
+
+        final var failFast = new CircuitBreakingMessageExecutor("backend", failing, null, CONFIG);
+        for (var i = 0; i < 4; i++) {
+            Assertions.assertThrows(IllegalStateException.class, () -> failFast.send(MESSAGES));
+        }
+        final var exception = Assertions.assertThrows(LeiaException.class, () -> failFast.send(MESSAGES));
+        Assertions.assertEquals(LeiaProcessorErrorCode.BACKEND_UNAVAILABLE.name(), exception.getCode());
+        final var failed = failFast.sendAsync(MESSAGES, Runnable::run, Deadline.none()).toCompletableFuture();
+        final var asyncException = Assertions.assertThrows(CompletionException.class, failed::join);
+        Assertions.assertEquals(LeiaProcessorErrorCode.BACKEND_UNAVAILABLE.name(),
+                ((LeiaException) asyncException.getCause()).getCode());
+    }
+
+    @Test
+    void testLimiterRejectionsDontOpen() {
+        final var inFlight = new CompletableFuture<Void>();
+        final var backend = new MessageExecutor() {
+            @Override
+            public void send(List<LeiaMessage> messages) {
+                inFlight.join();
+            }
+
+            @Override
+            public CompletionStage<Void> sendAsync(List<LeiaMessage> messages, Executor executor, Deadline deadline) {
+                return inFlight;
+            }
+        };
+        final var limited = new LimitedMessageExecutor("backend", backend, LimiterConfig.builder()
+                .initialLimit(1)
+                .maxLimit(1)
+                .build());
+        final var executor = new CircuitBreakingMessageExecutor("backend", limited, null, CONFIG);
+        final var sent = executor.sendAsync(MESSAGES, Runnable::run, Deadline.none()).toCompletableFuture();
+        for (var i = 0; i < 10; i++) {
+            final var rejected = executor.sendAsync(MESSAGES, Runnable::run, Deadline.none()).toCompletableFuture();
+            final var exception = Assertions.assertThrows(CompletionException.class, rejected::join);
+            Assertions.assertEquals(LeiaProcessorErrorCode.BACKEND_REJECTED.name(),
+                    ((LeiaException) exception.getCause()).getCode());
+        }
+        Assertions.assertEquals(CircuitState.CLOSED, executor.getCircuitBreaker().getState());
+        Assertions.assertEquals(0, executor.getCircuitBreaker().getStats().getCalls());
+        inFlight.complete(null);
+        sent.join();
+        Assertions.assertEquals(1, executor.getCircuitBreaker().getStats().getCalls());
+    }
+}
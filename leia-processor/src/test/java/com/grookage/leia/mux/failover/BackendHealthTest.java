@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.failover;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class BackendHealthTest {
+
+    private static final FailoverConfig CONFIG = FailoverConfig.builder()
+            .minSamples(2)
+            .cooldownMs(1_000)
+            .build();
+
+    @Test
+    void testProbesOncePerCooldown() {
+        final var clock = new AtomicLong();
+        final var backendHealth = new BackendHealth(CONFIG, clock::get);
+        Assertions.assertTrue(backendHealth.healthy("backend"));
+        backendHealth.record("backend", false, 1);
+        backendHealth.record("backend", false, 1);
+        Assertions.assertFalse(backendHealth.healthy("backend"));
+        Assertions.assertFalse(backendHealth.getStats().get("backend").isHealthy());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1_000));
+        Assertions.assertTrue(backendHealth.healthy("backend"));
+        Assertions.assertFalse(backendHealth.healthy("backend"));
+        backendHealth.record("backend", false, 1);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        backendHealth.record("backend", false, 1);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        Assertions.assertTrue(backendHealth.healthy("backend"));
+        Assertions.assertFalse(backendHealth.healthy("backend"));
+    }
+
+    @Test
+    void testSuccessfulProbeRestores() {
+        final var clock = new AtomicLong();
+        final var backendHealth = new BackendHealth(CONFIG, clock::get);
+        for (var i = 0; i < 20; i++) {
+            backendHealth.record("backend", false, 1);
+        }
+        Assertions.assertFalse(backendHealth.healthy("backend"));
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1_000));
+        Assertions.assertTrue(backendHealth.healthy("backend"));
+        backendHealth.record("backend", true, 1);
+        Assertions.assertTrue(backendHealth.healthy("backend"));
+        Assertions.assertTrue(backendHealth.healthy("backend"));
+        Assertions.assertEquals(1, backendHealth.getStats().get("backend").getSuccessRate());
+    }
+
+    @Test
+    void testSlowProbeDoesNotRestore() {
+        final var clock = new AtomicLong();
+        final var backendHealth = new BackendHealth(FailoverConfig.builder()
+                .minSamples(1)
+                .maxLatencyMs(100)
+                .cooldownMs(1_000)
+                .build(), clock::get);
+        backendHealth.record("backend", true, 500);
+        Assertions.assertFalse(backendHealth.healthy("backend"));
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1_000));
+        Assertions.assertTrue(backendHealth.healthy("backend"));
+        backendHealth.record("backend", true, 500);
+        Assertions.assertFalse(backendHealth.healthy("backend"));
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1_000));
+        Assertions.assertTrue(backendHealth.healthy("backend"));
+        backendHealth.record("backend", true, 10);
+        Assertions.assertTrue(backendHealth.healthy("backend"));
+    }
+}
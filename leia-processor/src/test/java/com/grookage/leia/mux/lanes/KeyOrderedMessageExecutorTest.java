@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.lanes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.executor.Deadline;
+import com.grookage.leia.mux.executor.MessageExecutor;
+import com.grookage.leia.mux.executor.SendResult;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
+
+class KeyOrderedMessageExecutorTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static LeiaMessage message(String customerId, int sequence) {
+        final var node = MAPPER.createObjectNode().put("sequence", sequence);
+        if (null != customerId) {
+            node.putObject("customer").put("id", customerId);
+        }
+        return LeiaMessage.builder().message(node).build();
+    }
+
+    @Test
+    void testJsonPathKeyExtractor() {
+        final var keyExtractor = new JsonPathKeyExtractor("$.customer.id");
+        Assertions.assertEquals("c1", keyExtractor.getKey(message("c1", 0)));
+        Assertions.assertNull(keyExtractor.getKey(message(null, 0)));
+        Assertions.assertNull(keyExtractor.getKey(LeiaMessage.builder().build()));
+    }
+
+    @Test
+    @SneakyThrows
+    void testInOrderPerKey() {
+        final var delivered = new ConcurrentHashMap<String, List<Integer>>();
+        final MessageExecutor delegate = messages -> {
+            sleepQuietly(ThreadLocalRandom.current().nextInt(3));
+            messages.forEach(message -> delivered.computeIfAbsent(message.getMessage().at("/customer/id").asText(),
+                            key -> new CopyOnWriteArrayList<>())
+                    .add(message.getMessage().get("sequence").asInt()));
+        };
+        final var executor = Executors.newFixedThreadPool(8);
+        final var ordered = new KeyOrderedMessageExecutor(delegate, new JsonPathKeyExtractor("$.customer.id"), 4);
+        final var sends = new ArrayList<CompletableFuture<Void>>();
+        for (var sequence = 0; sequence < 50; sequence++) {
+            sends.add(ordered.sendAsync(List.of(message("c1", sequence), message("c2", sequence),
+                    message("c3", sequence)), executor, Deadline.none()).toCompletableFuture());
+        }
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        final var expected = IntStream.range(0, 50).boxed().toList();
+        Assertions.assertEquals(Map.of("c1", expected, "c2", expected, "c3", expected), delivered);
+        Assertions.assertEquals(0, ordered.getStats().getQueued());
+        executor.shutdown();
+    }
+
+    @Test
+    @SneakyThrows
+    void testLaneStats() {
+        final var release = new CountDownLatch(1);
+        final MessageExecutor delegate = messages -> awaitQuietly(release);
+        final var executor = Executors.newCachedThreadPool();
+        final var ordered = new KeyOrderedMessageExecutor(delegate, new JsonPathKeyExtractor("$.customer.id"), 4);
+        final var sends = new ArrayList<CompletableFuture<Void>>();
+        for (var sequence = 0; sequence < 3; sequence++) {
+            sends.add(ordered.sendAsync(List.of(message("hot", sequence)), executor, Deadline.none())
+                    .toCompletableFuture());
+        }
+        final var stats = ordered.getStats();
+        Assertions.assertEquals(4, stats.getLanes());
+        Assertions.assertEquals(3, stats.getQueued());
+        Assertions.assertEquals(3, stats.getMaxDepth());
+        Assertions.assertEquals(Math.floorMod("hot".hashCode(), 4), stats.getHottestLane());
+        release.countDown();
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(0, ordered.getStats().getQueued());
+        executor.shutdown();
+    }
+
+    @Test
+    @SneakyThrows
+    void testLaneWaitsOnCancelledSend() {
+        final var release = new CountDownLatch(1);
+        final var started = new CopyOnWriteArrayList<Integer>();
+        final MessageExecutor delegate = messages -> {
+            final var sequence = messages.get(0).getMessage().get("sequence").asInt();
+            started.add(sequence);
+            if (sequence == 0) {
+                awaitUninterruptibly(release);
+            }
+        };
+        final var executor = Executors.newCachedThreadPool();
+        final var ordered = new KeyOrderedMessageExecutor(delegate, new JsonPathKeyExtractor("$.customer.id"), 4);
+        final var timedOut = ordered.sendAsync(List.of(message("c1", 0)), executor, Deadline.none())
+                .toCompletableFuture();
+        while (started.isEmpty()) {
+            sleepQuietly(1);
+        }
+        timedOut.completeExceptionally(new TimeoutException("Timed out"));
+        final var next = ordered.sendAsync(List.of(message("c1", 1)), executor, Deadline.none())
+                .toCompletableFuture();
+        sleepQuietly(100);
+        Assertions.assertEquals(List.of(0), started);
+        release.countDown();
+        next.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(List.of(0, 1), started);
+        executor.shutdown();
+    }
+
+    @Test
+    @SneakyThrows
+    void testFailsOnlyMessagesOfFailedLanes() {
+        final var failed = new CountDownLatch(1);
+        final var interrupted = new CopyOnWriteArrayList<Boolean>();
+        final MessageExecutor delegate = messages -> {
+            if ("c1".equals(messages.get(0).getMessage().at("/customer/id").asText())) {
+                failed.countDown();
+                throw new IllegalStateException("Backend failed");
+            }
+            awaitQuietly(failed);
+            sleepQuietly(50);
+            interrupted.add(Thread.currentThread().isInterrupted());
+        };
+        final var executor = Executors.newCachedThreadPool();
+        final var ordered = new KeyOrderedMessageExecutor(delegate, new JsonPathKeyExtractor("$.customer.id"), 4);
+        final var bad = message("c1", 0);
+        final var messages = List.of(bad, message("c2", 0));
+        final var error = Assertions.assertThrows(ExecutionException.class, () -> ordered.sendAsync(messages,
+                executor, Deadline.none()).toCompletableFuture().get(5, TimeUnit.SECONDS)).getCause();
+        Assertions.assertEquals(List.of(false), interrupted);
+        Assertions.assertEquals(List.of(bad), SendResult.builder().messages(messages).error(error).build()
+                .getFailedMessages());
+        executor.shutdown();
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        while (true) {
+            try {
+                latch.await();
+                return;
+            } catch (InterruptedException e) {
+                //Ignores the cancellation, as a send stuck in a blocking call would
+            }
+        }
+    }
+
+    @SneakyThrows
+    private static void sleepQuietly(long millis) {
+        Thread.sleep(millis);
+    }
+
+    @SneakyThrows
+    private static void awaitQuietly(CountDownLatch latch) {
+        latch.await();
+    }
+}
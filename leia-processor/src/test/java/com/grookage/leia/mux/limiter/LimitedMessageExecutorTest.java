@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.limiter;
+
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.grookage.leia.models.exception.LeiaException;
+import com.grookage.leia.models.mux.LeiaMessage;
+import com.grookage.leia.mux.exception.LeiaProcessorErrorCode;
+import com.grookage.leia.mux.executor.Deadline;
+import com.grookage.leia.mux.executor.MessageExecutor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+class LimitedMessageExecutorTest {
+
+    private static final List<LeiaMessage> MESSAGES = List.of(LeiaMessage.builder()
+            .message(TextNode.valueOf("message"))
+            .build());
+
+    private static void sendAll(AdaptiveLimiter limiter, long rttNanos, boolean dropped) {
+        final var acquired = limiter.getLimit();
+        for (var i = 0; i < acquired; i++) {
+            Assertions.assertTrue(limiter.tryAcquire());
+        }
+        Assertions.assertFalse(limiter.tryAcquire());
+        for (var i = 0; i < acquired; i++) {
+            limiter.release(rttNanos, dropped);
+        }
+    }
+
+    @Test
+    void testLimitAdaptsToLatency() {
+        final var limiter = new AdaptiveLimiter(LimiterConfig.builder()
+                .initialLimit(10)
+                .maxLimit(20)
+                .build());
+        sendAll(limiter, TimeUnit.MILLISECONDS.toNanos(1), false);
+        Assertions.assertTrue(limiter.getLimit() > 10);
+        sendAll(limiter, TimeUnit.MILLISECONDS.toNanos(1), false);
+        sendAll(limiter, TimeUnit.MILLISECONDS.toNanos(1), false);
+        Assertions.assertEquals(20, limiter.getLimit());
+
+        sendAll(limiter, TimeUnit.MILLISECONDS.toNanos(10), false);
+        final var congested = limiter.getLimit();
+        Assertions.assertTrue(congested < 20);
+
+        sendAll(limiter, TimeUnit.MILLISECONDS.toNanos(1), true);
+        Assertions.assertTrue(limiter.getLimit() < congested);
+        Assertions.assertTrue(limiter.getLimit() >= 1);
+        Assertions.assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    @SneakyThrows
+    void testQueuesAndSheds() {
+        final var release = new CountDownLatch(1);
+        final MessageExecutor delegate = messages -> awaitQuietly(release);
+        final var executor = Executors.newCachedThreadPool();
+        final var limited = new LimitedMessageExecutor("backend", delegate, LimiterConfig.builder()
+                .initialLimit(1)
+                .maxLimit(1)
+                .queueSize(1)
+                .build());
+        final var inFlight = limited.sendAsync(MESSAGES, executor, Deadline.none()).toCompletableFuture();
+        final var queued = limited.sendAsync(MESSAGES, executor, Deadline.none()).toCompletableFuture();
+        final var rejected = limited.sendAsync(MESSAGES, executor, Deadline.none()).toCompletableFuture();
+        final var exception = Assertions.assertThrows(ExecutionException.class, rejected::get);
+        Assertions.assertEquals(LeiaProcessorErrorCode.BACKEND_REJECTED.name(),
+                ((LeiaException) exception.getCause()).getCode());
+        Assertions.assertThrows(LeiaException.class, () -> limited.send(MESSAGES));
+        final var stats = limited.getStats();
+        Assertions.assertEquals(1, stats.getInFlight());
+        Assertions.assertEquals(1, stats.getQueued());
+        Assertions.assertEquals(2, stats.getRejected());
+
+        release.countDown();
+        inFlight.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(0, limited.getStats().getInFlight());
+        Assertions.assertEquals(0, limited.getStats().getQueued());
+        executor.shutdown();
+    }
+
+    @Test
+    @SneakyThrows
+    void testQueuedSendsPastDeadline() {
+        final var release = new CountDownLatch(1);
+        final MessageExecutor delegate = messages -> awaitQuietly(release);
+        final var executor = Executors.newCachedThreadPool();
+        final var limited = new LimitedMessageExecutor("backend", delegate, LimiterConfig.builder()
+                .initialLimit(1)
+                .maxLimit(1)
+                .queueSize(1)
+                .build());
+        final var inFlight = limited.sendAsync(MESSAGES, executor, Deadline.none()).toCompletableFuture();
+        final var expired = limited.sendAsync(MESSAGES, executor, Deadline.after(0)).toCompletableFuture();
+        final var queued = limited.sendAsync(MESSAGES, executor, Deadline.none()).toCompletableFuture();
+        final var exception = Assertions.assertThrows(Exception.class, () -> expired.get(5, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(TimeoutException.class, exception.getCause());
+        Assertions.assertEquals(1, limited.getStats().getQueued());
+        Assertions.assertEquals(0, limited.getStats().getRejected());
+        release.countDown();
+        inFlight.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+    }
+
+    @Test
+    @SneakyThrows
+    void testQueuedSendsStartOnRelease() {
+        final var executor = Executors.newCachedThreadPool();
+        final var sent = new AtomicInteger();
+        final var limited = new LimitedMessageExecutor("backend", messages -> sent.incrementAndGet(),
+                LimiterConfig.builder()
+                        .initialLimit(2)
+                        .maxLimit(2)
+                        .queueSize(1_000)
+                        .build());
+        final var submitted = IntStream.range(0, 1_000)
+                .mapToObj(i -> CompletableFuture.supplyAsync(
+                        () -> limited.sendAsync(MESSAGES, executor, Deadline.none()).toCompletableFuture(), executor))
+                .toList();
+        final var futures = submitted.stream()
+                .map(CompletableFuture::join)
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(futures).get(10, TimeUnit.SECONDS);
+        Assertions.assertEquals(1_000, sent.get());
+        Assertions.assertEquals(0, limited.getStats().getQueued());
+        executor.shutdown();
+    }
+
+    @SneakyThrows
+    private static void awaitQuietly(CountDownLatch latch) {
+        latch.await();
+    }
+}
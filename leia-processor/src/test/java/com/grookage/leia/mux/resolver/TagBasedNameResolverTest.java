@@ -22,6 +22,9 @@ import lombok.SneakyThrows;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.Set;
+
 class TagBasedNameResolverTest {
 
     @Test
@@ -36,5 +39,17 @@ class TagBasedNameResolverTest {
         Assertions.assertTrue(eligibleBackends.contains("BACKEND1"));
         Assertions.assertTrue(eligibleBackends.contains("BACKEND2"));
         Assertions.assertFalse(eligibleBackends.contains("BACKEND3"));
+        Assertions.assertTrue(resolver.getFallbacks(leiaMessage, "BACKEND1").isEmpty());
+    }
+
+    @Test
+    void testFallbacks() {
+        final var resolver = new TagBasedNameResolver();
+        final var leiaMessage = LeiaMessage.builder()
+                .tags(Set.of("backend-backend1>backend3>backend4::backend2"))
+                .build();
+        Assertions.assertEquals(Set.of("BACKEND1", "BACKEND2"), resolver.getEligibleBackends(leiaMessage));
+        Assertions.assertEquals(List.of("BACKEND3", "BACKEND4"), resolver.getFallbacks(leiaMessage, "BACKEND1"));
+        Assertions.assertEquals(List.of(), resolver.getFallbacks(leiaMessage, "BACKEND2"));
     }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2025. Koushik R <rkoushik.14@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.grookage.leia.mux.tenancy;
+
+import com.grookage.leia.models.exception.LeiaException;
+import com.grookage.leia.mux.exception.LeiaProcessorErrorCode;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+class FairSchedulerTest {
+
+    @Test
+    @SneakyThrows
+    void testFairOrderAcrossTenants() {
+        final var scheduler = new FairScheduler(TenancyConfig.builder()
+                .maxConcurrency(1)
+                .build());
+        final var started = new CopyOnWriteArrayList<String>();
+        final var gate = new CompletableFuture<Void>();
+        final var first = scheduler.submit("noisy", 1, 10_000, () -> {
+            started.add("noisy-0");
+            return gate;
+        });
+        final var futures = new CopyOnWriteArrayList<CompletableFuture<Void>>();
+        for (var i = 1; i <= 5; i++) {
+            final var name = "noisy-" + i;
+            futures.add(scheduler.submit("noisy", 1, 10_000, () -> {
+                started.add(name);
+                return CompletableFuture.completedFuture(null);
+            }));
+        }
+        futures.add(scheduler.submit("quiet", 1, 10_000, () -> {
+            started.add("quiet-0");
+            return CompletableFuture.completedFuture(null);
+        }));
+        Assertions.assertEquals(List.of("noisy-0"), started);
+        Assertions.assertEquals(5, scheduler.getStats().get("noisy").getQueued());
+        gate.complete(null);
+        first.get(5, TimeUnit.SECONDS);
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals("quiet-0", started.get(1));
+        Assertions.assertEquals(6, scheduler.getStats().get("noisy").getCompleted());
+        scheduler.shutdown();
+    }
+
+    @Test
+    @SneakyThrows
+    void testThrottledAndExpired() {
+        final var scheduler = new FairScheduler(TenancyConfig.builder()
+                .maxConcurrency(1)
+                .maxQueued(1)
+                .build());
+        final var gate = new CompletableFuture<Void>();
+        scheduler.submit("tenant", 1, 10_000, () -> gate);
+        final var queued = scheduler.submit("tenant", 1, 50, () -> CompletableFuture.completedFuture(null));
+        final var throttled = scheduler.submit("tenant", 1, 10_000, () -> CompletableFuture.completedFuture(null));
+        final var exception = Assertions.assertThrows(ExecutionException.class, throttled::get);
+        Assertions.assertEquals(LeiaProcessorErrorCode.TENANT_THROTTLED.name(),
+                ((LeiaException) exception.getCause()).getCode());
+        Assertions.assertEquals(1, scheduler.getStats().get("tenant").getThrottled());
+        final var expired = Assertions.assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(TimeoutException.class, expired.getCause());
+        Assertions.assertEquals(0, scheduler.getStats().get("tenant").getQueued());
+        gate.complete(null);
+        scheduler.shutdown();
+    }
+
+    @Test
+    @SneakyThrows
+    void testExpiresBeforeRateRetry() {
+        final var scheduler = new FairScheduler(TenancyConfig.builder()
+                .tenants(Map.of("limited", TenantQuota.builder().ratePerSecond(1).build()))
+                .build());
+        scheduler.submit("limited", 1, 10_000, () -> CompletableFuture.completedFuture(null)).get(5, TimeUnit.SECONDS);
+        final var waiting = scheduler.submit("limited", 1, 10_000, () -> CompletableFuture.completedFuture(null));
+        final var expiring = scheduler.submit("limited", 1, 50, () -> CompletableFuture.completedFuture(null));
+        final var expired = Assertions.assertThrows(ExecutionException.class,
+                () -> expiring.get(500, TimeUnit.MILLISECONDS));
+        Assertions.assertInstanceOf(TimeoutException.class, expired.getCause());
+        Assertions.assertFalse(waiting.isDone());
+        waiting.get(5, TimeUnit.SECONDS);
+        scheduler.shutdown();
+    }
+
+    @Test
+    @SneakyThrows
+    void testRateQuota() {
+        final var scheduler = new FairScheduler(TenancyConfig.builder()
+                .tenants(Map.of("limited", TenantQuota.builder().ratePerSecond(10).build()))
+                .build());
+        final var first = scheduler.submit("limited", 10, 10_000, () -> CompletableFuture.completedFuture(null));
+        final var second = scheduler.submit("limited", 10, 10_000, () -> CompletableFuture.completedFuture(null));
+        final var other = scheduler.submit("other", 10, 10_000, () -> CompletableFuture.completedFuture(null));
+        Assertions.assertTrue(first.isDone());
+        Assertions.assertTrue(other.isDone());
+        Assertions.assertFalse(second.isDone());
+        second.get(5, TimeUnit.SECONDS);
+        scheduler.shutdown();
+    }
+
+    @Test
+    @SneakyThrows
+    void testUnboundedQueueAndIdleEviction() {
+        final var scheduler = new FairScheduler(TenancyConfig.builder()
+                .maxConcurrency(1)
+                .maxQueued(0)
+                .idleMs(50)
+                .build());
+        final var gate = new CompletableFuture<Void>();
+        final var first = scheduler.submit("idle", 1, 10_000, () -> gate);
+        final var queued = scheduler.submit("idle", 1, 10_000, () -> CompletableFuture.completedFuture(null));
+        Assertions.assertEquals(1, scheduler.getStats().get("idle").getQueued());
+        gate.complete(null);
+        CompletableFuture.allOf(first, queued).get(5, TimeUnit.SECONDS);
+        Assertions.assertTrue(scheduler.getStats().containsKey("idle"));
+        TimeUnit.MILLISECONDS.sleep(100);
+        scheduler.submit("active", 1, 10_000, () -> CompletableFuture.completedFuture(null)).get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(Set.of("active"), scheduler.getStats().keySet());
+        scheduler.shutdown();
+    }
+}
@@ -23,7 +23,7 @@ import com.grookage.leia.common.violation.LeiaSchemaViolation;
 import com.grookage.leia.models.annotations.SchemaDefinition;
 import com.grookage.leia.models.schema.SchemaDetails;
 import com.grookage.leia.models.schema.SchemaKey;
-import com.grookage.leia.models.utils.SchemaUtils;
+import com.grookage.leia.models.schema.SchemaSnapshotHolder;
 import lombok.Builder;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
@@ -38,6 +38,7 @@ public class StaticSchemaValidator implements LeiaSchemaValidator {
 
     private final ConcurrentHashMap<SchemaKey, Boolean> validationRegistry = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<SchemaKey, Class<?>> klassRegistry = new ConcurrentHashMap<>();
+    private final SchemaSnapshotHolder snapshotHolder = new SchemaSnapshotHolder();
     private final Supplier<List<SchemaDetails>> supplier;
     private final Set<String> packageRoots;
 
@@ -50,7 +51,7 @@ public class StaticSchemaValidator implements LeiaSchemaValidator {
 
     @SneakyThrows
     private List<LeiaSchemaViolation> validate(final SchemaKey schemaKey, Class<?> klass) {
-        final var details = SchemaUtils.getMatchingSchema(supplier.get(), schemaKey).orElse(null);
+        final var details = snapshotHolder.get(supplier.get()).getSchemaDetails(schemaKey).orElse(null);
         if (null == details) {
             throw SchemaValidationException.error(ValidationErrorCode.NO_SCHEMA_FOUND,
                     String.format("No schema found with key: %s", schemaKey.getReferenceId()));